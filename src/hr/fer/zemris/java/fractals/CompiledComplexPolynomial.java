@@ -0,0 +1,161 @@
+package hr.fer.zemris.java.fractals;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * This class is a compiled form of the {@linkplain ComplexPolynomial}, meant
+ * for evaluation in tight loops. The polynomial factors are stored in flat
+ * arrays of <tt>double</tt> values, one for the real parts and one for the
+ * imaginary parts, and the polynomial is evaluated by the Horner's method
+ * using only multiplications and additions.
+ * <p>
+ * Value of the polynomial and value of its first derivative are computed
+ * together, in a single pass over the factors, using the
+ * {@linkplain #apply(double, double, double[])} method.
+ * <p>
+ * This class is immutable and therefore thread-safe.
+ *
+ * @author Mario Bobic
+ */
+public class CompiledComplexPolynomial {
+
+    /** Real parts of the polynomial factors, index 0 is by z<sup>0</sup>. */
+    private final double[] factorsRe;
+    /** Imaginary parts of the polynomial factors, index 0 is by z<sup>0</sup>. */
+    private final double[] factorsIm;
+
+    /**
+     * Constructs an instance of CompiledComplexPolynomial with the specified
+     * <tt>factors</tt>. The factors are expected to be sorted by degree, where
+     * the factor at index 0 is by z<sup>0</sup>, factor at index 1 is by z
+     * <sup>1</sup> etc.
+     *
+     * @param factors factors of the polynomial
+     * @throws NullPointerException if factors is null or contains null
+     * @throws IllegalArgumentException if <tt>factors.length == 0</tt>
+     */
+    CompiledComplexPolynomial(Complex[] factors) {
+        Objects.requireNonNull(factors, "Factors must not be null.");
+
+        if (factors.length == 0) {
+            throw new IllegalArgumentException("Factors must contain at least 1 factor.");
+        }
+
+        factorsRe = new double[factors.length];
+        factorsIm = new double[factors.length];
+
+        for (int i = 0; i < factors.length; i++) {
+            factorsRe[i] = factors[i].getReal();
+            factorsIm[i] = factors[i].getImag();
+        }
+    }
+
+    /**
+     * Returns the order of this polynomial.
+     *
+     * @return the order of this polynomial
+     */
+    public short order() {
+        return (short) (factorsRe.length - 1);
+    }
+
+    /**
+     * Computes polynomial value and value of its first derivative at the point
+     * <tt>re + im*i</tt> in a single Horner pass. The results are stored into
+     * the specified <tt>result</tt> array as follows:
+     * <ul>
+     * <li><tt>result[0]</tt> - real part of the polynomial value,
+     * <li><tt>result[1]</tt> - imaginary part of the polynomial value,
+     * <li><tt>result[2]</tt> - real part of the derivative value,
+     * <li><tt>result[3]</tt> - imaginary part of the derivative value.
+     * </ul>
+     *
+     * @param re real part of the point for which the values are computed
+     * @param im imaginary part of the point for which the values are computed
+     * @param result array of at least four elements where the values are stored
+     * @throws NullPointerException if <tt>result == null</tt>
+     */
+    public void apply(double re, double im, double[] result) {
+        int n = factorsRe.length - 1;
+
+        double valueRe = factorsRe[n];
+        double valueIm = factorsIm[n];
+        double derivedRe = 0;
+        double derivedIm = 0;
+
+        for (int i = n - 1; i >= 0; i--) {
+            // derived = derived * z + value
+            double tempRe = derivedRe*re - derivedIm*im + valueRe;
+            derivedIm = derivedRe*im + derivedIm*re + valueIm;
+            derivedRe = tempRe;
+
+            // value = value * z + factor
+            tempRe = valueRe*re - valueIm*im + factorsRe[i];
+            valueIm = valueRe*im + valueIm*re + factorsIm[i];
+            valueRe = tempRe;
+        }
+
+        result[0] = valueRe;
+        result[1] = valueIm;
+        result[2] = derivedRe;
+        result[3] = derivedIm;
+    }
+
+    /**
+     * Computes polynomial values and values of its first derivative at all
+     * points of the array <tt>z</tt> at once and stores them into the arrays
+     * <tt>value</tt> and <tt>derivative</tt> at the same indexes. For each
+     * point, the results are the same as the ones computed by the
+     * {@linkplain #apply(double, double, double[])} method, but the points are
+     * iterated in the innermost loop, so that it may be vectorized.
+     *
+     * @param z points for which the values are computed
+     * @param value array where the polynomial values are stored
+     * @param derivative array where the derivative values are stored
+     * @throws IllegalArgumentException if the lengths of the arrays differ or
+     *         any two of them are the same array
+     * @throws NullPointerException if any of the arrays is <tt>null</tt>
+     */
+    public void apply(ComplexArray z, ComplexArray value, ComplexArray derivative) {
+        z.checkLength(value);
+        z.checkLength(derivative);
+        if (value == z || derivative == z || value == derivative) {
+            throw new IllegalArgumentException("Arrays must not be the same.");
+        }
+
+        double[] zRe = z.re;
+        double[] zIm = z.im;
+        double[] valueRe = value.re;
+        double[] valueIm = value.im;
+        double[] derivedRe = derivative.re;
+        double[] derivedIm = derivative.im;
+
+        int n = factorsRe.length - 1;
+        Arrays.fill(valueRe, factorsRe[n]);
+        Arrays.fill(valueIm, factorsIm[n]);
+        Arrays.fill(derivedRe, 0);
+        Arrays.fill(derivedIm, 0);
+
+        for (int i = n - 1; i >= 0; i--) {
+            double factorRe = factorsRe[i];
+            double factorIm = factorsIm[i];
+
+            for (int l = 0; l < zRe.length; l++) {
+                double re = zRe[l];
+                double im = zIm[l];
+
+                // derived = derived * z + value
+                double tempRe = derivedRe[l]*re - derivedIm[l]*im + valueRe[l];
+                derivedIm[l] = derivedRe[l]*im + derivedIm[l]*re + valueIm[l];
+                derivedRe[l] = tempRe;
+
+                // value = value * z + factor
+                tempRe = valueRe[l]*re - valueIm[l]*im + factorRe;
+                valueIm[l] = valueRe[l]*im + valueIm[l]*re + factorIm;
+                valueRe[l] = tempRe;
+            }
+        }
+    }
+
+}
@@ -20,8 +20,13 @@ import java.util.List;
  */
 public class Complex {
 
-    /** This class instance counter. */
-    static long instanceCounter = 0;
+    /**
+     * This class instance counter, or <tt>null</tt> if the instances are not
+     * counted. It is created only if the <tt>complex.countInstances</tt>
+     * system property is set to <tt>true</tt>, before this class is loaded.
+     */
+    static final InstanceCounter instanceCounter =
+            Boolean.getBoolean("complex.countInstances") ? new InstanceCounter() : null;
 
     /** The constant zero of a complex number. */
     public static final Complex ZERO = new Complex(0, 0);
@@ -76,7 +81,9 @@ public class Complex {
         real = re;
         imag = im;
 
-        instanceCounter++;
+        if (instanceCounter != null) {
+            instanceCounter.increment();
+        }
     }
 
     /**
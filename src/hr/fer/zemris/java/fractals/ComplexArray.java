@@ -0,0 +1,306 @@
+package hr.fer.zemris.java.fractals;
+
+import java.util.Objects;
+
+/**
+ * This class is a fixed-length array of complex numbers, stored as two
+ * parallel arrays of <tt>double</tt> values, one for the real parts and one
+ * for the imaginary parts. Unlike an array of {@linkplain Complex} objects,
+ * the values are stored next to each other, so they can be processed in bulk.
+ * <p>
+ * The arithmetic operations of this class are performed element by element
+ * and in place, storing the results into this array. Each of them is a single
+ * loop over the elements doing the same arithmetic for each of them, so that
+ * the loops may be vectorized by the virtual machine. For the same reason,
+ * division by zero is not checked, but gives NaN values.
+ * <p>
+ * Rows of pixels can be evaluated at once by the
+ * {@linkplain ComplexPolynomial#apply(ComplexArray, ComplexArray)},
+ * {@linkplain CompiledComplexPolynomial#apply(ComplexArray, ComplexArray, ComplexArray)}
+ * and {@linkplain ComplexRootedPolynomial#apply(ComplexArray, ComplexArray)}
+ * methods.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Mario Bobic
+ */
+public class ComplexArray {
+
+    /** Real parts of the elements. */
+    final double[] re;
+    /** Imaginary parts of the elements. */
+    final double[] im;
+
+    /**
+     * Constructs an instance of ComplexArray with the specified
+     * <tt>length</tt>, with all elements set to zero.
+     *
+     * @param length number of the elements
+     * @throws IllegalArgumentException if <tt>length &lt; 0</tt>
+     */
+    public ComplexArray(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Length must not be negative: " + length);
+        }
+
+        re = new double[length];
+        im = new double[length];
+    }
+
+    /**
+     * Constructs an instance of ComplexArray with the specified
+     * <tt>values</tt>.
+     *
+     * @param values values of the elements
+     * @throws NullPointerException if values is null or contains null
+     */
+    public ComplexArray(Complex ...values) {
+        this(Objects.requireNonNull(values, "Values must not be null.").length);
+
+        for (int i = 0; i < values.length; i++) {
+            set(i, values[i]);
+        }
+    }
+
+    /**
+     * Returns the number of elements of this array.
+     *
+     * @return the number of elements
+     */
+    public int length() {
+        return re.length;
+    }
+
+    /**
+     * Returns the element at the specified <tt>index</tt>.
+     *
+     * @param index index of the element
+     * @return the element at the index
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public Complex get(int index) {
+        return new Complex(re[index], im[index]);
+    }
+
+    /**
+     * Returns the real part of the element at the specified <tt>index</tt>.
+     *
+     * @param index index of the element
+     * @return the real part of the element
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public double getReal(int index) {
+        return re[index];
+    }
+
+    /**
+     * Returns the imaginary part of the element at the specified
+     * <tt>index</tt>.
+     *
+     * @param index index of the element
+     * @return the imaginary part of the element
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public double getImag(int index) {
+        return im[index];
+    }
+
+    /**
+     * Sets the element at the specified <tt>index</tt> to the specified
+     * complex number <tt>c</tt>.
+     *
+     * @param index index of the element
+     * @param c the new value of the element
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     * @throws NullPointerException if <tt>c == null</tt>
+     */
+    public void set(int index, Complex c) {
+        set(index, c.getReal(), c.getImag());
+    }
+
+    /**
+     * Sets the element at the specified <tt>index</tt> to
+     * <tt>re + im*i</tt>.
+     *
+     * @param index index of the element
+     * @param re the new real part of the element
+     * @param im the new imaginary part of the element
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public void set(int index, double re, double im) {
+        this.re[index] = re;
+        this.im[index] = im;
+    }
+
+    /**
+     * Adds the elements of the specified array <tt>c</tt> to the elements
+     * of this array.
+     *
+     * @param c array whose elements are added
+     * @throws IllegalArgumentException if the lengths of the arrays differ
+     * @throws NullPointerException if <tt>c == null</tt>
+     */
+    public void add(ComplexArray c) {
+        checkLength(c);
+
+        double[] cRe = c.re;
+        double[] cIm = c.im;
+        for (int i = 0; i < re.length; i++) {
+            re[i] += cRe[i];
+            im[i] += cIm[i];
+        }
+    }
+
+    /**
+     * Subtracts the elements of the specified array <tt>c</tt> from the
+     * elements of this array.
+     *
+     * @param c array whose elements are subtracted
+     * @throws IllegalArgumentException if the lengths of the arrays differ
+     * @throws NullPointerException if <tt>c == null</tt>
+     */
+    public void sub(ComplexArray c) {
+        checkLength(c);
+
+        double[] cRe = c.re;
+        double[] cIm = c.im;
+        for (int i = 0; i < re.length; i++) {
+            re[i] -= cRe[i];
+            im[i] -= cIm[i];
+        }
+    }
+
+    /**
+     * Multiplies the elements of this array with the elements of the
+     * specified array <tt>c</tt>.
+     *
+     * @param c array whose elements this array is multiplied with
+     * @throws IllegalArgumentException if the lengths of the arrays differ
+     * @throws NullPointerException if <tt>c == null</tt>
+     */
+    public void multiply(ComplexArray c) {
+        checkLength(c);
+
+        double[] cRe = c.re;
+        double[] cIm = c.im;
+        for (int i = 0; i < re.length; i++) {
+            double realMul = re[i]*cRe[i] - im[i]*cIm[i];
+            double imagMul = im[i]*cRe[i] + re[i]*cIm[i];
+            re[i] = realMul;
+            im[i] = imagMul;
+        }
+    }
+
+    /**
+     * Divides the elements of this array with the elements of the specified
+     * array <tt>c</tt>. Division by zero gives NaN values.
+     *
+     * @param c array whose elements this array is divided with
+     * @throws IllegalArgumentException if the lengths of the arrays differ
+     * @throws NullPointerException if <tt>c == null</tt>
+     */
+    public void divide(ComplexArray c) {
+        checkLength(c);
+
+        double[] cRe = c.re;
+        double[] cIm = c.im;
+        for (int i = 0; i < re.length; i++) {
+            double denominator = cRe[i]*cRe[i] + cIm[i]*cIm[i];
+            double realDiv = (re[i]*cRe[i] + im[i]*cIm[i]) / denominator;
+            double imagDiv = (im[i]*cRe[i] - re[i]*cIm[i]) / denominator;
+            re[i] = realDiv;
+            im[i] = imagDiv;
+        }
+    }
+
+    /**
+     * Stores the absolute values of the elements of this array into the
+     * specified <tt>result</tt> array. Unlike the {@linkplain Complex#module()}
+     * method, the values are computed by a plain square root, so they may
+     * differ in the last bit and overflow for parts greater than about
+     * <tt>10<sup>154</sup></tt>.
+     *
+     * @param result array where the absolute values are stored
+     * @throws IllegalArgumentException if <tt>result</tt> is shorter than this array
+     * @throws NullPointerException if <tt>result == null</tt>
+     */
+    public void module(double[] result) {
+        checkLength(result);
+
+        for (int i = 0; i < re.length; i++) {
+            result[i] = Math.sqrt(re[i]*re[i] + im[i]*im[i]);
+        }
+    }
+
+    /**
+     * Stores the distances between the elements of this array and the
+     * elements of the specified array <tt>c</tt> into the specified
+     * <tt>result</tt> array, computed the same way as by the
+     * {@linkplain #module(double[])} method.
+     *
+     * @param c array to whose elements the distances are computed
+     * @param result array where the distances are stored
+     * @throws IllegalArgumentException if the lengths of the arrays differ or
+     *         <tt>result</tt> is shorter than this array
+     * @throws NullPointerException if <tt>c</tt> or <tt>result</tt> is <tt>null</tt>
+     */
+    public void distance(ComplexArray c, double[] result) {
+        checkLength(c);
+        checkLength(result);
+
+        double[] cRe = c.re;
+        double[] cIm = c.im;
+        for (int i = 0; i < re.length; i++) {
+            double diffRe = re[i] - cRe[i];
+            double diffIm = im[i] - cIm[i];
+            result[i] = Math.sqrt(diffRe*diffRe + diffIm*diffIm);
+        }
+    }
+
+    /**
+     * Throws an {@linkplain IllegalArgumentException} if the length of the
+     * specified array <tt>c</tt> differs from the length of this array.
+     *
+     * @param c array whose length is checked
+     * @throws IllegalArgumentException if the lengths of the arrays differ
+     * @throws NullPointerException if <tt>c == null</tt>
+     */
+    void checkLength(ComplexArray c) {
+        if (c.re.length != re.length) {
+            throw new IllegalArgumentException(
+                    "Lengths of the arrays differ: " + re.length + " and " + c.re.length);
+        }
+    }
+
+    /**
+     * Throws an {@linkplain IllegalArgumentException} if the specified
+     * <tt>result</tt> array is shorter than this array.
+     *
+     * @param result array whose length is checked
+     * @throws IllegalArgumentException if the array is shorter than this one
+     * @throws NullPointerException if <tt>result == null</tt>
+     */
+    private void checkLength(double[] result) {
+        if (result.length < re.length) {
+            throw new IllegalArgumentException(
+                    "Result array is shorter than " + re.length + ": " + result.length);
+        }
+    }
+
+    /**
+     * Returns a string representation of the elements of this array, each
+     * formatted by the {@linkplain Complex#toString()} method.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < re.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(get(i));
+        }
+        return sb.append(']').toString();
+    }
+
+}
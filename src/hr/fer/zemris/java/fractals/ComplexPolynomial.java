@@ -20,6 +20,13 @@ public class ComplexPolynomial {
     private static final double ZERO_LIMIT =
             Double.parseDouble("1E-" + Complex.DEFAULT_DECPLACES);
 
+    /**
+     * Smallest number of factors of both polynomials for which the
+     * {@linkplain #multiply(ComplexPolynomial)} method uses the fast Fourier
+     * transform instead of the schoolbook method.
+     */
+    static final int FFT_THRESHOLD = 128;
+
     /** The polynomial factors. */
     private final Complex[] factors;
 
@@ -113,36 +120,111 @@ public class ComplexPolynomial {
     /**
      * Multiplies this ComplexPolynomial with another ComplexPolynomial and
      * returns a new object with the multiplication result.
+     * <p>
+     * If both polynomials have at least {@linkplain #FFT_THRESHOLD} factors,
+     * the product is computed by the fast Fourier transform in
+     * <tt>O(n log n)</tt> operations, otherwise by the schoolbook method in
+     * <tt>O(n&middot;m)</tt> operations. The rounding error of the transform
+     * is relative to the largest factors of the polynomials, so small factors
+     * of a product whose factors span many orders of magnitude are less
+     * accurate than the ones of the schoolbook method.
      *
      * @param p a ComplexPolynomial to be multiplied with
      * @return a result of multiplication complex polynomials
      * @throws NullPointerException if <tt>p == null</tt>
      */
     public ComplexPolynomial multiply(ComplexPolynomial p) {
-        Complex[] multiplied = getComplexArray(order() + p.order() + 1);
+        if (Math.min(factors.length, p.factors.length) < FFT_THRESHOLD) {
+            return multiplySchoolbook(p);
+        } else {
+            return multiplyTransform(p);
+        }
+    }
+
+    /**
+     * Multiplies this ComplexPolynomial with another ComplexPolynomial by the
+     * schoolbook method, summing the products of every pair of factors.
+     *
+     * @param p a ComplexPolynomial to be multiplied with
+     * @return a result of multiplication complex polynomials
+     * @throws NullPointerException if <tt>p == null</tt>
+     */
+    ComplexPolynomial multiplySchoolbook(ComplexPolynomial p) {
+        int length = factors.length + p.factors.length - 1;
+        double[] multipliedRe = new double[length];
+        double[] multipliedIm = new double[length];
 
         for (int i = 0; i < factors.length; i++) {
+            double re = factors[i].getReal();
+            double im = factors[i].getImag();
             for (int j = 0; j < p.factors.length; j++) {
                 // multiplied[i+j] += factors[i] * p.factors[j];
-                multiplied[i+j] = multiplied[i+j].add(factors[i].multiply(p.factors[j]));
+                double pRe = p.factors[j].getReal();
+                double pIm = p.factors[j].getImag();
+                multipliedRe[i+j] += re*pRe - im*pIm;
+                multipliedIm[i+j] += im*pRe + re*pIm;
             }
         }
 
-        return new ComplexPolynomial(multiplied);
+        return new ComplexPolynomial(getComplexArray(multipliedRe, multipliedIm, length));
+    }
+
+    /**
+     * Multiplies this ComplexPolynomial with another ComplexPolynomial by the
+     * fast Fourier transform, multiplying the transformed factors point by
+     * point and transforming the result back.
+     *
+     * @param p a ComplexPolynomial to be multiplied with
+     * @return a result of multiplication complex polynomials
+     * @throws NullPointerException if <tt>p == null</tt>
+     */
+    ComplexPolynomial multiplyTransform(ComplexPolynomial p) {
+        int length = factors.length + p.factors.length - 1;
+        int n = Integer.highestOneBit(length);
+        if (n < length) {
+            n <<= 1;
+        }
+
+        double[] re = new double[n];
+        double[] im = new double[n];
+        double[] pRe = new double[n];
+        double[] pIm = new double[n];
+        for (int i = 0; i < factors.length; i++) {
+            re[i] = factors[i].getReal();
+            im[i] = factors[i].getImag();
+        }
+        for (int j = 0; j < p.factors.length; j++) {
+            pRe[j] = p.factors[j].getReal();
+            pIm[j] = p.factors[j].getImag();
+        }
+
+        FastFourierTransform.transform(re, im, false);
+        FastFourierTransform.transform(pRe, pIm, false);
+        for (int k = 0; k < n; k++) {
+            double realMul = re[k]*pRe[k] - im[k]*pIm[k];
+            double imagMul = im[k]*pRe[k] + re[k]*pIm[k];
+            re[k] = realMul;
+            im[k] = imagMul;
+        }
+        FastFourierTransform.transform(re, im, true);
+
+        return new ComplexPolynomial(getComplexArray(re, im, length));
     }
 
     /**
-     * Returns an array filled with complex zeroes, that is with
-     * {@linkplain Complex#ZERO} values.
+     * Returns an array of the first <tt>length</tt> complex numbers whose
+     * real and imaginary parts are given by the specified arrays.
      *
+     * @param re real parts of the complex numbers
+     * @param im imaginary parts of the complex numbers
      * @param length the length of the new array
-     * @return an array filled with complex zeroes
+     * @return an array of complex numbers
      */
-    private static Complex[] getComplexArray(int length) {
+    static Complex[] getComplexArray(double[] re, double[] im, int length) {
         Complex[] array = new Complex[length];
 
         for (int i = 0; i < length; i++) {
-            array[i] = Complex.ZERO;
+            array[i] = new Complex(re[i], im[i]);
         }
 
         return array;
@@ -191,6 +273,127 @@ public class ComplexPolynomial {
         return result;
     }
 
+    /**
+     * Computes polynomial value at the point <tt>re + im*i</tt> and stores the
+     * real part of the result to <tt>result[0]</tt> and the imaginary part to
+     * <tt>result[1]</tt>.
+     * <p>
+     * This method performs exactly the same floating-point operations as the
+     * {@linkplain #apply(Complex)} method, but does not create any
+     * {@linkplain Complex} objects.
+     *
+     * @param re real part of the point for which the value is computed
+     * @param im imaginary part of the point for which the value is computed
+     * @param result array of at least two elements where the value is stored
+     * @throws NullPointerException if <tt>result == null</tt>
+     */
+    public void apply(double re, double im, double[] result) {
+        double module = Math.hypot(re, im);
+        double angle = Math.atan2(im, re);
+
+        double resultRe = 0;
+        double resultIm = 0;
+
+        for (int i = 0; i < factors.length; i++) {
+            // z^i in the polar form, same as Complex.power(i)
+            double magnitude = Math.pow(module, i);
+            double zRe = magnitude*Math.cos(i*angle);
+            double zIm = magnitude*Math.sin(i*angle);
+
+            double factorRe = factors[i].getReal();
+            double factorIm = factors[i].getImag();
+            resultRe += factorRe*zRe - factorIm*zIm;
+            resultIm += factorIm*zRe + factorRe*zIm;
+        }
+
+        result[0] = resultRe;
+        result[1] = resultIm;
+    }
+
+    /**
+     * Computes polynomial value and value of its first derivative at the point
+     * <tt>z</tt> by the Horner's method and stores them into <tt>value</tt>
+     * and <tt>derivative</tt>, without creating any objects. The results are
+     * the same as the ones computed by the
+     * {@linkplain CompiledComplexPolynomial#apply(double, double, double[])}
+     * method.
+     *
+     * @param z the point for which the values are computed
+     * @param value complex number where the polynomial value is stored
+     * @param derivative complex number where the derivative value is stored
+     * @throws IllegalArgumentException if any two of the arguments are the
+     *         same object
+     * @throws NullPointerException if any of the arguments is <tt>null</tt>
+     */
+    public void apply(MutableComplex z, MutableComplex value, MutableComplex derivative) {
+        if (value == z || derivative == z || value == derivative) {
+            throw new IllegalArgumentException("Arguments must not be the same.");
+        }
+
+        int n = factors.length - 1;
+        value.set(factors[n]);
+        derivative.set(0, 0);
+
+        for (int i = n - 1; i >= 0; i--) {
+            derivative.fma(z, value);
+            value.fma(z, factors[i]);
+        }
+    }
+
+    /**
+     * Computes polynomial values at all points of the array <tt>z</tt> at
+     * once and stores them into the array <tt>result</tt> at the same
+     * indexes.
+     * <p>
+     * The values are computed by the Horner's method, with the points
+     * iterated in the innermost loop, so they may differ in the last bits
+     * from the ones computed by the {@linkplain #apply(Complex)} method.
+     *
+     * @param z points for which the polynomial values are computed
+     * @param result array where the values are stored
+     * @throws IllegalArgumentException if the lengths of the arrays differ or
+     *         <tt>result</tt> is the same array as <tt>z</tt>
+     * @throws NullPointerException if <tt>z</tt> or <tt>result</tt> is <tt>null</tt>
+     */
+    public void apply(ComplexArray z, ComplexArray result) {
+        z.checkLength(result);
+        if (result == z) {
+            throw new IllegalArgumentException("Result must not be the array of points.");
+        }
+
+        double[] zRe = z.re;
+        double[] zIm = z.im;
+        double[] valueRe = result.re;
+        double[] valueIm = result.im;
+
+        int n = factors.length - 1;
+        Arrays.fill(valueRe, factors[n].getReal());
+        Arrays.fill(valueIm, factors[n].getImag());
+
+        for (int i = n - 1; i >= 0; i--) {
+            double factorRe = factors[i].getReal();
+            double factorIm = factors[i].getImag();
+
+            // value = value * z + factor
+            for (int l = 0; l < zRe.length; l++) {
+                double tempRe = valueRe[l]*zRe[l] - valueIm[l]*zIm[l] + factorRe;
+                valueIm[l] = valueRe[l]*zIm[l] + valueIm[l]*zRe[l] + factorIm;
+                valueRe[l] = tempRe;
+            }
+        }
+    }
+
+    /**
+     * Compiles this polynomial into a form that stores its factors in flat
+     * arrays and evaluates the polynomial value together with the value of its
+     * first derivative, without any trigonometric functions.
+     *
+     * @return a compiled form of this polynomial
+     */
+    public CompiledComplexPolynomial compile() {
+        return new CompiledComplexPolynomial(factors);
+    }
+
     /**
      * Returns a pretty string representation of this complex polynomial.
      */
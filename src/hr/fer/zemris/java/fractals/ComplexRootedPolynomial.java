@@ -1,6 +1,10 @@
 package hr.fer.zemris.java.fractals;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * This class offers basic operations for complex rooted polynomial
@@ -15,8 +19,32 @@ import java.util.Objects;
  */
 public class ComplexRootedPolynomial {
 
+    /**
+     * Maximum number of roots whose members are multiplied one at a time by
+     * the {@linkplain #toComplexPolynom()} method.
+     */
+    static final int EXPANSION_LEAF = 32;
+    /**
+     * Minimum number of roots whose subtrees are computed in parallel by the
+     * {@linkplain #toComplexPolynom()} method.
+     */
+    static final int PARALLEL_EXPANSION = 512;
+    /**
+     * Minimum number of roots for which the closest root is found by a
+     * {@linkplain RootGrid} instead of by the linear scan.
+     */
+    static final int GRID_ROOTS = 16;
+
     /** The polynomial roots. */
     private final Complex[] roots;
+    /** Real parts of the polynomial roots. */
+    private final double[] rootsRe;
+    /** Imaginary parts of the polynomial roots. */
+    private final double[] rootsIm;
+    /** Radii of the guaranteed convergence disks around the roots. */
+    private final double[] convergenceRadii;
+    /** Grid over the roots for the last used threshold, built lazily. */
+    private volatile RootGrid rootGrid;
 
     /**
      * Constructs an instance of ComplexPolynomial with the specified
@@ -36,6 +64,116 @@ public class ComplexRootedPolynomial {
         checkArgument(roots);
 
         this.roots = roots;
+
+        rootsRe = new double[roots.length];
+        rootsIm = new double[roots.length];
+        for (int i = 0; i < roots.length; i++) {
+            rootsRe[i] = roots[i].getReal();
+            rootsIm[i] = roots[i].getImag();
+        }
+
+        convergenceRadii = computeConvergenceRadii(rootsRe, rootsIm);
+    }
+
+    /**
+     * Constructs an instance of ComplexRootedPolynomial with the roots given
+     * by the specified array, copying its parts directly instead of reading
+     * them from {@linkplain Complex} objects.
+     *
+     * @param roots roots of the polynomial
+     * @throws NullPointerException if <tt>roots == null</tt>
+     * @throws IllegalArgumentException if <tt>roots.length() == 0</tt>
+     */
+    ComplexRootedPolynomial(ComplexArray roots) {
+        if (roots.length() == 0) {
+            throw new IllegalArgumentException("Roots must contain at least 1 root.");
+        }
+
+        rootsRe = roots.re.clone();
+        rootsIm = roots.im.clone();
+
+        this.roots = new Complex[rootsRe.length];
+        for (int i = 0; i < rootsRe.length; i++) {
+            this.roots[i] = new Complex(rootsRe[i], rootsIm[i]);
+        }
+
+        convergenceRadii = computeConvergenceRadii(rootsRe, rootsIm);
+    }
+
+    /**
+     * Computes the radius of a guaranteed convergence disk around each root.
+     * <p>
+     * Let <tt>n</tt> be the number of roots and <tt>&delta;</tt> the distance
+     * from the root <tt>r</tt> to its nearest other root. For every point
+     * <tt>z</tt> with <tt>e = z - r</tt> and <tt>|e| &le; &delta; / (3n - 2)
+     * </tt>, the Newton-Raphson step gives
+     * <tt>N(z) - r = e &middot; eT / (1 + eT)</tt>, where <tt>T</tt> is the
+     * sum of <tt>1/(z - r<sub>j</sub>)</tt> over the other roots. Since
+     * <tt>|eT| &le; 1/3</tt>, it follows that <tt>|N(z) - r| &le; |e| / 2</tt>,
+     * so the iteration stays in the disk and converges to <tt>r</tt>.
+     * <p>
+     * Repeated roots get a radius of zero, while the only root of a first
+     * order polynomial gets an infinite radius. The nearest other roots are
+     * found by the {@linkplain RootGrid#nearestDistances(double[], double[])}
+     * method, or for fewer than {@linkplain #GRID_ROOTS} roots, by a sweep over
+     * the roots sorted by their real parts, which stops once the difference of
+     * real parts exceeds the nearest distance found.
+     *
+     * @param rootsRe real parts of the roots
+     * @param rootsIm imaginary parts of the roots
+     * @return radii of the guaranteed convergence disks
+     */
+    private static double[] computeConvergenceRadii(final double[] rootsRe, double[] rootsIm) {
+        int n = rootsRe.length;
+        double[] radii = new double[n];
+
+        if (n >= GRID_ROOTS && RootGrid.isSupported(rootsRe, rootsIm, RootGrid.MIN_THRESHOLD)) {
+            double[] nearest = RootGrid.nearestDistances(rootsRe, rootsIm);
+            for (int i = 0; i < n; i++) {
+                radii[i] = nearest[i] / (3*n - 2);
+            }
+            return radii;
+        }
+
+        // sweep by real part, a root is not nearer than its real distance
+        Integer[] sorted = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = i;
+        }
+        Arrays.sort(sorted, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer i, Integer j) {
+                return Double.compare(rootsRe[i], rootsRe[j]);
+            }
+        });
+
+        for (int s = 0; s < n; s++) {
+            int i = sorted[s];
+            double nearest = Double.POSITIVE_INFINITY;
+            for (int t = s + 1; t < n && !(rootsRe[sorted[t]] - rootsRe[i] > nearest); t++) {
+                nearest = Math.min(nearest, distance(rootsRe, rootsIm, i, sorted[t]));
+            }
+            for (int t = s - 1; t >= 0 && !(rootsRe[i] - rootsRe[sorted[t]] > nearest); t--) {
+                nearest = Math.min(nearest, distance(rootsRe, rootsIm, i, sorted[t]));
+            }
+            radii[i] = nearest / (3*n - 2);
+        }
+
+        return radii;
+    }
+
+    /**
+     * Returns the distance between the roots at indexes <tt>i</tt> and
+     * <tt>j</tt>.
+     *
+     * @param rootsRe real parts of the roots
+     * @param rootsIm imaginary parts of the roots
+     * @param i index of the first root
+     * @param j index of the second root
+     * @return the distance between the roots
+     */
+    private static double distance(double[] rootsRe, double[] rootsIm, int i, int j) {
+        return Math.hypot(rootsRe[i] - rootsRe[j], rootsIm[i] - rootsIm[j]);
     }
 
     /**
@@ -61,6 +199,26 @@ public class ComplexRootedPolynomial {
         }
     }
 
+    /**
+     * Returns the order of this polynomial, which is the number of its roots.
+     *
+     * @return the order of this polynomial
+     */
+    public int order() {
+        return roots.length;
+    }
+
+    /**
+     * Returns the root of this polynomial at the specified index.
+     *
+     * @param index index of the root
+     * @return the root at the specified index
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public Complex getRoot(int index) {
+        return roots[index];
+    }
+
     /**
      * Computes polynomial value at the given point <tt>z</tt> and returns the
      * complex result.
@@ -80,25 +238,108 @@ public class ComplexRootedPolynomial {
         return result;
     }
 
+    /**
+     * Computes polynomial values at all points of the array <tt>z</tt> at
+     * once and stores them into the array <tt>result</tt> at the same
+     * indexes. For each point, the result is the same as the one computed by
+     * the {@linkplain #apply(Complex)} method, but the points are iterated in
+     * the innermost loop, so that it may be vectorized.
+     *
+     * @param z points for which the polynomial values are computed
+     * @param result array where the values are stored
+     * @throws IllegalArgumentException if the lengths of the arrays differ or
+     *         <tt>result</tt> is the same array as <tt>z</tt>
+     * @throws NullPointerException if <tt>z</tt> or <tt>result</tt> is <tt>null</tt>
+     */
+    public void apply(ComplexArray z, ComplexArray result) {
+        z.checkLength(result);
+        if (result == z) {
+            throw new IllegalArgumentException("Result must not be the array of points.");
+        }
+
+        double[] zRe = z.re;
+        double[] zIm = z.im;
+        double[] valueRe = result.re;
+        double[] valueIm = result.im;
+
+        Arrays.fill(valueRe, 1);
+        Arrays.fill(valueIm, 0);
+
+        for (int i = 0; i < rootsRe.length; i++) {
+            double rootRe = rootsRe[i];
+            double rootIm = rootsIm[i];
+
+            // value = value * (z - root)
+            for (int l = 0; l < zRe.length; l++) {
+                double elRe = zRe[l] - rootRe;
+                double elIm = zIm[l] - rootIm;
+                double tempRe = valueRe[l]*elRe - valueIm[l]*elIm;
+                valueIm[l] = valueIm[l]*elRe + valueRe[l]*elIm;
+                valueRe[l] = tempRe;
+            }
+        }
+    }
+
     /**
      * Converts this representation to {@linkplain ComplexPolynomial} type by
      * multiplying every member of the complex rooted polynomial.
+     * <p>
+     * The members are multiplied in a balanced product tree. Groups of at
+     * most {@linkplain #EXPANSION_LEAF} roots are multiplied one member at a
+     * time, then pairs of the partial products are multiplied together using
+     * the {@linkplain ComplexPolynomial#multiply(ComplexPolynomial)} method,
+     * which uses the fast Fourier transform for large products. Subtrees of
+     * more than {@linkplain #PARALLEL_EXPANSION} roots are computed in
+     * parallel by the common {@linkplain ForkJoinPool}. A polynomial with at
+     * most {@linkplain #EXPANSION_LEAF} roots gives exactly the same factors
+     * as multiplying the members one at a time.
      *
      * @return a complex polynomial object
      */
     public ComplexPolynomial toComplexPolynom() {
-        ComplexPolynomial result = new ComplexPolynomial(Complex.ONE);
+        if (roots.length <= EXPANSION_LEAF) {
+            return expand(0, roots.length);
+        }
 
-        for (Complex root : roots) {
-            ComplexPolynomial member = new ComplexPolynomial(
-                new Complex[] {
-                    root.negate(),
-                    Complex.ONE
-            });
-            result = result.multiply(member);
+        return ForkJoinPool.commonPool().invoke(new ExpansionTask(0, roots.length));
+    }
+
+    /**
+     * Multiplies the members of the roots from index <tt>from</tt>, inclusive,
+     * to index <tt>to</tt>, exclusive, one member at a time. Each member is
+     * multiplied in place, with the same floating-point operations as the
+     * {@linkplain ComplexPolynomial#multiply(ComplexPolynomial)} method.
+     *
+     * @param from index of the first root, inclusive
+     * @param to index of the last root, exclusive
+     * @return product of the members
+     */
+    private ComplexPolynomial expand(int from, int to) {
+        int length = to - from + 1;
+        double[] re = new double[length];
+        double[] im = new double[length];
+        re[0] = 1;
+
+        for (int k = 1; k < length; k++) {
+            // multiplied by (z - root), from the highest factor down
+            double negRe = -rootsRe[from + k-1];
+            double negIm = -rootsIm[from + k-1];
+
+            re[k] = re[k-1];
+            im[k] = im[k-1];
+            for (int i = k-1; i >= 1; i--) {
+                double mulRe = re[i]*negRe - im[i]*negIm;
+                double mulIm = im[i]*negRe + re[i]*negIm;
+                re[i] = re[i-1] + mulRe;
+                im[i] = im[i-1] + mulIm;
+            }
+            double mulRe = re[0]*negRe - im[0]*negIm;
+            double mulIm = im[0]*negRe + re[0]*negIm;
+            re[0] = mulRe;
+            im[0] = mulIm;
         }
 
-        return result;
+        return new ComplexPolynomial(ComplexPolynomial.getComplexArray(re, im, length));
     }
 
     /**
@@ -113,11 +354,39 @@ public class ComplexRootedPolynomial {
      * @throws NullPointerException if <tt>z == null</tt>
      */
     public int indexOfClosestRootFor(Complex z, double threshold) {
-        double minDistance = z.distance(roots[0]);
+        return indexOfClosestRootFor(z.getReal(), z.getImag(), threshold);
+    }
+
+    /**
+     * Finds and returns the index of closest root to the complex number
+     * <tt>re + im*i</tt> that is within the threshold.
+     * <p>
+     * This method returns the same result as the
+     * {@linkplain #indexOfClosestRootFor(Complex, double)} method, but does
+     * not create any {@linkplain Complex} objects. For a polynomial with at
+     * least {@linkplain #GRID_ROOTS} roots, only the roots near the point are
+     * looked up in a {@linkplain RootGrid}, which gives exactly the same
+     * result as the scan of all roots. The grid is built on the first lookup
+     * for a threshold and kept until a different threshold is used.
+     *
+     * @param re real part of the complex number
+     * @param im imaginary part of the complex number
+     * @param threshold the maximum allowed distance
+     * @return the index of closest root to the specified complex number
+     */
+    public int indexOfClosestRootFor(double re, double im, double threshold) {
+        if (roots.length >= GRID_ROOTS && Double.isFinite(re) && Double.isFinite(im)) {
+            RootGrid grid = getRootGrid(threshold);
+            if (grid != null) {
+                return grid.indexOfClosestRootFor(re, im);
+            }
+        }
+
+        double minDistance = Math.hypot(re - rootsRe[0], im - rootsIm[0]);
         int index = 0;
 
         for (int i = 1; i < roots.length; i++) {
-            double distance = z.distance(roots[i]);
+            double distance = Math.hypot(re - rootsRe[i], im - rootsIm[i]);
             if (distance < minDistance) {
                 minDistance = distance;
                 index = i;
@@ -131,6 +400,257 @@ public class ComplexRootedPolynomial {
         return index;
     }
 
+    /**
+     * Returns the grid over the roots for the specified <tt>threshold</tt>,
+     * building it if the last built grid has a different threshold. Returns
+     * <tt>null</tt> if the grid is not supported for the roots and the
+     * threshold.
+     *
+     * @param threshold the maximum allowed distance
+     * @return the grid for the threshold, or <tt>null</tt>
+     */
+    private RootGrid getRootGrid(double threshold) {
+        RootGrid grid = rootGrid;
+        if (grid != null && grid.getThreshold() == threshold) {
+            return grid;
+        }
+        if (!RootGrid.isSupported(rootsRe, rootsIm, threshold)) {
+            return null;
+        }
+
+        grid = new RootGrid(rootsRe, rootsIm, threshold);
+        rootGrid = grid;
+        return grid;
+    }
+
+    /**
+     * Returns the radius of a disk around the root at the specified
+     * <tt>index</tt> inside which the Newton-Raphson iteration is guaranteed
+     * to converge to that root. The disks of different roots do not overlap.
+     *
+     * @param index index of the root
+     * @return the radius of a guaranteed convergence disk around the root
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public double convergenceRadius(int index) {
+        return convergenceRadii[index];
+    }
+
+    /**
+     * Computes the Newton-Raphson step <tt>p(z) / p'(z)</tt> at the point
+     * <tt>z = re + im*i</tt> directly from the roots, without expanding this
+     * polynomial, by formula <tt>1 / &Sigma; 1/(z - r<sub>i</sub>)</tt>.
+     * <p>
+     * Distances to the roots are computed in the same pass, so the index of
+     * the closest root to <tt>z</tt> is returned as well. The results are
+     * stored into the specified <tt>result</tt> array as follows:
+     * <ul>
+     * <li><tt>result[0]</tt> - real part of the step,
+     * <li><tt>result[1]</tt> - imaginary part of the step,
+     * <li><tt>result[2]</tt> - distance from <tt>z</tt> to the closest root.
+     * </ul>
+     * If <tt>z</tt> equals one of the roots, the step is zero. If the
+     * derivative vanishes at <tt>z</tt>, both parts of the step are set to
+     * {@linkplain Double#POSITIVE_INFINITY}.
+     *
+     * @param re real part of the point for which the step is computed
+     * @param im imaginary part of the point for which the step is computed
+     * @param result array of at least three elements where the results are stored
+     * @return the index of closest root to the specified point
+     * @throws NullPointerException if <tt>result == null</tt>
+     */
+    public int newtonStep(double re, double im, double[] result) {
+        double sumRe = 0;
+        double sumIm = 0;
+        double minDistanceSquared = Double.POSITIVE_INFINITY;
+        int index = 0;
+
+        for (int i = 0; i < rootsRe.length; i++) {
+            double diffRe = re - rootsRe[i];
+            double diffIm = im - rootsIm[i];
+            double distanceSquared = diffRe*diffRe + diffIm*diffIm;
+
+            if (distanceSquared < minDistanceSquared) {
+                minDistanceSquared = distanceSquared;
+                index = i;
+            }
+
+            // 1 / (z - r) = conj(z - r) / |z - r|^2
+            double reciprocal = 1 / distanceSquared;
+            sumRe += diffRe * reciprocal;
+            sumIm -= diffIm * reciprocal;
+        }
+
+        result[2] = Math.sqrt(minDistanceSquared);
+
+        if (minDistanceSquared == 0) { // z is a root
+            result[0] = 0;
+            result[1] = 0;
+            return index;
+        }
+
+        double sumModuleSquared = sumRe*sumRe + sumIm*sumIm;
+        if (sumModuleSquared == 0) { // the derivative vanishes
+            result[0] = Double.POSITIVE_INFINITY;
+            result[1] = Double.POSITIVE_INFINITY;
+            return index;
+        }
+
+        result[0] = sumRe / sumModuleSquared;
+        result[1] = -sumIm / sumModuleSquared;
+        return index;
+    }
+
+    /**
+     * Computes the Newton-Raphson step <tt>p(z) / p'(z)</tt> at the point
+     * <tt>z</tt> in double-double precision, by the same formula as the
+     * {@linkplain #newtonStep(double, double, double[])} method.
+     * <p>
+     * If <tt>z</tt> equals one of the roots, the step is zero. If the
+     * derivative vanishes at <tt>z</tt>, <tt>null</tt> is returned.
+     *
+     * @param z the point for which the step is computed
+     * @return the step, or <tt>null</tt> if the derivative vanishes
+     * @throws NullPointerException if <tt>z == null</tt>
+     */
+    public DoubleDoubleComplex newtonStep(DoubleDoubleComplex z) {
+        DoubleDoubleComplex sum = DoubleDoubleComplex.ZERO;
+
+        for (int i = 0; i < rootsRe.length; i++) {
+            DoubleDoubleComplex diff = z.sub(new DoubleDoubleComplex(rootsRe[i], rootsIm[i]));
+            if (diff.isZero()) { // z is a root
+                return DoubleDoubleComplex.ZERO;
+            }
+            sum = sum.add(diff.reciprocal());
+        }
+
+        if (sum.isZero()) { // the derivative vanishes
+            return null;
+        }
+        return sum.reciprocal();
+    }
+
+    /**
+     * Computes the Newton-Raphson steps at the first <tt>count</tt> points
+     * <tt>re[l] + im[l]*i</tt> at once. For each point that is not NaN, the
+     * results are the same as the ones computed by the
+     * {@linkplain #newtonStep(double, double, double[])} method and they are
+     * stored at the same index <tt>l</tt> of the specified arrays.
+     * <p>
+     * The points are iterated in the innermost loop, which does the same
+     * arithmetic for each of them, so that the loop may be vectorized by the
+     * virtual machine.
+     *
+     * @param re real parts of the points
+     * @param im imaginary parts of the points
+     * @param count number of the points
+     * @param stepRe array where the real parts of the steps are stored
+     * @param stepIm array where the imaginary parts of the steps are stored
+     * @param distances array where the distances to the closest roots are stored
+     * @param indexes array where the indexes of the closest roots are stored
+     * @throws NullPointerException if any of the arrays is <tt>null</tt>
+     * @throws ArrayIndexOutOfBoundsException if any of the arrays is shorter
+     *         than <tt>count</tt>
+     */
+    public void newtonSteps(double[] re, double[] im, int count,
+            double[] stepRe, double[] stepIm, double[] distances, int[] indexes) {
+        for (int l = 0; l < count; l++) {
+            stepRe[l] = 0;
+            stepIm[l] = 0;
+            distances[l] = Double.POSITIVE_INFINITY;
+        }
+
+        // the sums and the squared distances are accumulated in place
+        for (int i = 0; i < rootsRe.length; i++) {
+            double rootRe = rootsRe[i];
+            double rootIm = rootsIm[i];
+
+            for (int l = 0; l < count; l++) {
+                double diffRe = re[l] - rootRe;
+                double diffIm = im[l] - rootIm;
+                double distanceSquared = diffRe*diffRe + diffIm*diffIm;
+                double reciprocal = 1 / distanceSquared;
+
+                distances[l] = Math.min(distances[l], distanceSquared);
+                stepRe[l] += diffRe * reciprocal;
+                stepIm[l] -= diffIm * reciprocal;
+            }
+        }
+
+        for (int l = 0; l < count; l++) {
+            double minDistanceSquared = distances[l];
+            double sumRe = stepRe[l];
+            double sumIm = stepIm[l];
+            double sumModuleSquared = sumRe*sumRe + sumIm*sumIm;
+
+            // the closest root is the first one at the minimum distance
+            int index = 0;
+            for (int i = 0; i < rootsRe.length; i++) {
+                double diffRe = re[l] - rootsRe[i];
+                double diffIm = im[l] - rootsIm[i];
+                if (diffRe*diffRe + diffIm*diffIm == minDistanceSquared) {
+                    index = i;
+                    break;
+                }
+            }
+
+            indexes[l] = index;
+            distances[l] = Math.sqrt(minDistanceSquared);
+
+            if (minDistanceSquared == 0) { // z is a root
+                stepRe[l] = 0;
+                stepIm[l] = 0;
+            } else if (sumModuleSquared == 0) { // the derivative vanishes
+                stepRe[l] = Double.POSITIVE_INFINITY;
+                stepIm[l] = Double.POSITIVE_INFINITY;
+            } else {
+                stepRe[l] = sumRe / sumModuleSquared;
+                stepIm[l] = -sumIm / sumModuleSquared;
+            }
+        }
+    }
+
+    /**
+     * Computes the Newton-Raphson steps at all points of the array
+     * <tt>z</tt> at once, the same way as the
+     * {@linkplain #newtonSteps(double[], double[], int, double[], double[], double[], int[])}
+     * method.
+     *
+     * @param z points for which the steps are computed
+     * @param steps array where the steps are stored
+     * @param distances array where the distances to the closest roots are stored
+     * @param indexes array where the indexes of the closest roots are stored
+     * @throws IllegalArgumentException if the lengths of <tt>z</tt> and
+     *         <tt>steps</tt> differ or they are the same array
+     * @throws NullPointerException if any of the arrays is <tt>null</tt>
+     * @throws ArrayIndexOutOfBoundsException if <tt>distances</tt> or
+     *         <tt>indexes</tt> is shorter than <tt>z</tt>
+     */
+    public void newtonSteps(ComplexArray z, ComplexArray steps, double[] distances, int[] indexes) {
+        z.checkLength(steps);
+        if (steps == z) {
+            throw new IllegalArgumentException("Steps must not be the array of points.");
+        }
+        newtonSteps(z.re, z.im, z.length(), steps.re, steps.im, distances, indexes);
+    }
+
+    /**
+     * Finds the symmetries of the roots of this polynomial, which are the
+     * rotations around the centroid of the roots and the reflections over
+     * the axes through it that map the roots onto themselves. Returns
+     * <tt>null</tt> if there are none, other than the identity.
+     * <p>
+     * Roots are considered equal if they differ by at most <tt>1E-6</tt>, or
+     * by one millionth of the distance from the centroid to the farthest root
+     * if that is greater. Rotation orders
+     * greater than {@linkplain RootSymmetry#MAX_ORDER} are not looked for.
+     *
+     * @return the symmetry group of the roots, or <tt>null</tt>
+     */
+    public RootSymmetry findSymmetry() {
+        return RootSymmetry.find(rootsRe, rootsIm);
+    }
+
     /**
      * Returns a string representation of this complex rooted polynomial object.
      */
@@ -181,4 +701,54 @@ public class ComplexRootedPolynomial {
         return rootStr;
     }
 
+    /**
+     * This class is a {@linkplain RecursiveTask} that multiplies the members
+     * of a range of roots by splitting the range in halves, until it reaches
+     * {@linkplain #EXPANSION_LEAF} roots. The left half is forked if the range
+     * has more than {@linkplain #PARALLEL_EXPANSION} roots.
+     *
+     * @author Mario Bobic
+     */
+    private class ExpansionTask extends RecursiveTask<ComplexPolynomial> {
+        /** Serial version UID. */
+        private static final long serialVersionUID = 1L;
+
+        /** Index of the first root, inclusive. */
+        private final int from;
+        /** Index of the last root, exclusive. */
+        private final int to;
+
+        /**
+         * Constructs an instance of <tt>ExpansionTask</tt> with the specified
+         * range of roots.
+         *
+         * @param from index of the first root, inclusive
+         * @param to index of the last root, exclusive
+         */
+        public ExpansionTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ComplexPolynomial compute() {
+            if (to - from <= EXPANSION_LEAF) {
+                return expand(from, to);
+            }
+
+            int mid = (from + to) >>> 1;
+            ExpansionTask left = new ExpansionTask(from, mid);
+            ExpansionTask right = new ExpansionTask(mid, to);
+
+            if (to - from > PARALLEL_EXPANSION) {
+                left.fork();
+                ComplexPolynomial product = right.compute();
+                return left.join().multiply(product);
+            } else {
+                return left.compute().multiply(right.compute());
+            }
+        }
+
+    }
+
 }
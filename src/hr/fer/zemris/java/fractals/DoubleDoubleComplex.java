@@ -0,0 +1,478 @@
+package hr.fer.zemris.java.fractals;
+
+/**
+ * This class is an immutable model of a complex number whose real and
+ * imaginary parts are double-double numbers. A double-double number is an
+ * unevaluated sum of two <tt>double</tt> values, the high part and the low
+ * part, where the low part is at most half an ulp of the high part. This
+ * gives about 106 bits of precision, twice as many as a <tt>double</tt>,
+ * while all of the arithmetic is still done by the <tt>double</tt> operations
+ * of the processor.
+ * <p>
+ * Like with the {@linkplain Complex}, every time an operation is performed
+ * upon this complex number, a new complex number object is returned. The
+ * {@linkplain #getReal()} and {@linkplain #getImag()} methods return the high
+ * parts, which are the <tt>double</tt> values closest to the exact ones.
+ *
+ * @author Mario Bobic
+ */
+public class DoubleDoubleComplex {
+
+    /** The constant zero of a double-double complex number. */
+    public static final DoubleDoubleComplex ZERO = new DoubleDoubleComplex(0, 0);
+
+    /** Factor that splits a <tt>double</tt> into two halves of 26 bits. */
+    private static final double SPLITTER = 134217729; // 2^27 + 1
+
+    /** High part of the real part. */
+    private final double reHi;
+    /** Low part of the real part. */
+    private final double reLo;
+    /** High part of the imaginary part. */
+    private final double imHi;
+    /** Low part of the imaginary part. */
+    private final double imLo;
+
+    /**
+     * Constructs a new instance of a DoubleDoubleComplex,
+     * with the specified <tt>double</tt> parameters.
+     *
+     * @param re real part of the complex number
+     * @param im imaginary part of the complex number
+     */
+    public DoubleDoubleComplex(double re, double im) {
+        this(re, 0, im, 0);
+    }
+
+    /**
+     * Constructs a new instance of a DoubleDoubleComplex, whose real part is
+     * <tt>reHi + reLo</tt> and imaginary part is <tt>imHi + imLo</tt>. The
+     * parts do not have to be normalized.
+     *
+     * @param reHi high part of the real part
+     * @param reLo low part of the real part
+     * @param imHi high part of the imaginary part
+     * @param imLo low part of the imaginary part
+     */
+    public DoubleDoubleComplex(double reHi, double reLo, double imHi, double imLo) {
+        Real re = Real.sum(reHi, reLo);
+        Real im = Real.sum(imHi, imLo);
+        this.reHi = re.hi;
+        this.reLo = re.lo;
+        this.imHi = im.hi;
+        this.imLo = im.lo;
+    }
+
+    /**
+     * Constructs a new instance of a DoubleDoubleComplex with the value of
+     * the specified complex number <tt>c</tt>.
+     *
+     * @param c complex number whose value is taken
+     * @throws NullPointerException if <tt>c == null</tt>
+     */
+    public DoubleDoubleComplex(Complex c) {
+        this(c.getReal(), c.getImag());
+    }
+
+    /**
+     * Constructs a new instance of a DoubleDoubleComplex from the specified
+     * double-double parts.
+     *
+     * @param re real part of the complex number
+     * @param im imaginary part of the complex number
+     */
+    private DoubleDoubleComplex(Real re, Real im) {
+        this.reHi = re.hi;
+        this.reLo = re.lo;
+        this.imHi = im.hi;
+        this.imLo = im.lo;
+    }
+
+    /**
+     * Returns the high part of the real part of this complex number, which is
+     * the <tt>double</tt> value closest to it.
+     *
+     * @return the real part of this complex number
+     */
+    public double getReal() {
+        return reHi;
+    }
+
+    /**
+     * Returns the low part of the real part of this complex number.
+     *
+     * @return the low part of the real part of this complex number
+     */
+    public double getRealLow() {
+        return reLo;
+    }
+
+    /**
+     * Returns the high part of the imaginary part of this complex number,
+     * which is the <tt>double</tt> value closest to it.
+     *
+     * @return the imaginary part of this complex number
+     */
+    public double getImag() {
+        return imHi;
+    }
+
+    /**
+     * Returns the low part of the imaginary part of this complex number.
+     *
+     * @return the low part of the imaginary part of this complex number
+     */
+    public double getImagLow() {
+        return imLo;
+    }
+
+    /**
+     * Returns this complex number rounded to a {@linkplain Complex}.
+     *
+     * @return this complex number rounded to a complex number
+     */
+    public Complex toComplex() {
+        return new Complex(reHi, imHi);
+    }
+
+    /**
+     * Returns the absolute value of this complex number, rounded to a
+     * <tt>double</tt>.
+     *
+     * @return the absolute value (modulus) of this complex number
+     */
+    public double module() {
+        return Math.sqrt(moduleSquared().hi);
+    }
+
+    /**
+     * Performs addition of the two complex numbers by formula
+     * <tt>this + c</tt> and returns the result.
+     *
+     * @param c complex number to be added to this one
+     * @return the sum of the two complex numbers
+     * @throws NullPointerException if <tt>c == null</tt>
+     */
+    public DoubleDoubleComplex add(DoubleDoubleComplex c) {
+        return new DoubleDoubleComplex(real().add(c.real()), imag().add(c.imag()));
+    }
+
+    /**
+     * Performs subtraction of the two complex numbers by formula
+     * <tt>this - c</tt> and returns the result.
+     *
+     * @param c complex number to be subtracted from this one
+     * @return the difference of the two complex numbers
+     * @throws NullPointerException if <tt>c == null</tt>
+     */
+    public DoubleDoubleComplex sub(DoubleDoubleComplex c) {
+        return new DoubleDoubleComplex(real().add(c.real().negate()), imag().add(c.imag().negate()));
+    }
+
+    /**
+     * Performs multiplication of the two complex numbers by formula
+     * <tt>this * c</tt> and returns the result.
+     *
+     * @param c complex number to be multiplied with this one
+     * @return the product of the two complex numbers
+     * @throws NullPointerException if <tt>c == null</tt>
+     */
+    public DoubleDoubleComplex multiply(DoubleDoubleComplex c) {
+        Real re = real().multiply(c.real()).add(imag().multiply(c.imag()).negate());
+        Real im = imag().multiply(c.real()).add(real().multiply(c.imag()));
+        return new DoubleDoubleComplex(re, im);
+    }
+
+    /**
+     * Multiplies this complex number by the real <tt>factor</tt> and returns
+     * the result.
+     *
+     * @param factor real number to multiply this one with
+     * @return the product of this complex number and the factor
+     */
+    public DoubleDoubleComplex multiply(double factor) {
+        return new DoubleDoubleComplex(real().multiply(factor), imag().multiply(factor));
+    }
+
+    /**
+     * Performs division of the two complex numbers by formula
+     * <tt>this / c</tt> and returns the result.
+     *
+     * @param c complex number to divide this one with
+     * @return the quotient of the two complex numbers
+     * @throws ArithmeticException if <tt>c</tt> is <tt>0+0i</tt>
+     * @throws NullPointerException if <tt>c == null</tt>
+     */
+    public DoubleDoubleComplex divide(DoubleDoubleComplex c) {
+        return multiply(c.reciprocal());
+    }
+
+    /**
+     * Divides this complex number by the real <tt>divisor</tt> and returns the
+     * result.
+     *
+     * @param divisor real number to divide this one with
+     * @return the quotient of this complex number and the divisor
+     * @throws ArithmeticException if <tt>divisor</tt> is <tt>0</tt>
+     */
+    public DoubleDoubleComplex divide(double divisor) {
+        if (divisor == 0) {
+            throw new ArithmeticException("Division by zero.");
+        }
+        return new DoubleDoubleComplex(real().divide(divisor), imag().divide(divisor));
+    }
+
+    /**
+     * Returns the reciprocal value of this complex number by formula
+     * <tt>1 / this</tt>.
+     *
+     * @return the reciprocal value of this complex number
+     * @throws ArithmeticException if this complex number is <tt>0+0i</tt>
+     */
+    public DoubleDoubleComplex reciprocal() {
+        Real moduleSquared = moduleSquared();
+        if (moduleSquared.hi == 0) {
+            throw new ArithmeticException("Division by zero: " + this);
+        }
+        return new DoubleDoubleComplex(real().divide(moduleSquared), imag().negate().divide(moduleSquared));
+    }
+
+    /**
+     * Returns the negative value of this complex number by formula
+     * <tt>-this</tt>.
+     *
+     * @return the negation of this complex number
+     */
+    public DoubleDoubleComplex negate() {
+        return new DoubleDoubleComplex(real().negate(), imag().negate());
+    }
+
+    /**
+     * Returns <tt>true</tt> if this complex number is <tt>0+0i</tt>.
+     *
+     * @return <tt>true</tt> if this complex number is zero
+     */
+    public boolean isZero() {
+        return reHi == 0 && imHi == 0;
+    }
+
+    /**
+     * Returns the real part of this complex number.
+     *
+     * @return the real part of this complex number
+     */
+    private Real real() {
+        return new Real(reHi, reLo);
+    }
+
+    /**
+     * Returns the imaginary part of this complex number.
+     *
+     * @return the imaginary part of this complex number
+     */
+    private Real imag() {
+        return new Real(imHi, imLo);
+    }
+
+    /**
+     * Returns the squared absolute value of this complex number.
+     *
+     * @return the squared absolute value of this complex number
+     */
+    private Real moduleSquared() {
+        return real().multiply(real()).add(imag().multiply(imag()));
+    }
+
+    /**
+     * Returns a string representation of this complex number, where each of
+     * the parts is written as the sum of its high and low part.
+     */
+    @Override
+    public String toString() {
+        return "(" + reHi + " + " + reLo + ") + (" + imHi + " + " + imLo + ")i";
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        long temp;
+        temp = Double.doubleToLongBits(imHi);
+        result = prime * result + (int) (temp ^ (temp >>> 32));
+        temp = Double.doubleToLongBits(imLo);
+        result = prime * result + (int) (temp ^ (temp >>> 32));
+        temp = Double.doubleToLongBits(reHi);
+        result = prime * result + (int) (temp ^ (temp >>> 32));
+        temp = Double.doubleToLongBits(reLo);
+        result = prime * result + (int) (temp ^ (temp >>> 32));
+        return result;
+    }
+
+    /**
+     * Returns true if the specified <tt>obj</tt> is an instance of
+     * <tt>DoubleDoubleComplex</tt> with exactly the same parts.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (!(obj instanceof DoubleDoubleComplex))
+            return false;
+        DoubleDoubleComplex other = (DoubleDoubleComplex) obj;
+        if (Double.doubleToLongBits(imHi) != Double.doubleToLongBits(other.imHi))
+            return false;
+        if (Double.doubleToLongBits(imLo) != Double.doubleToLongBits(other.imLo))
+            return false;
+        if (Double.doubleToLongBits(reHi) != Double.doubleToLongBits(other.reHi))
+            return false;
+        if (Double.doubleToLongBits(reLo) != Double.doubleToLongBits(other.reLo))
+            return false;
+        return true;
+    }
+
+    /**
+     * This class is an immutable double-double real number, the sum of a high
+     * and a low part. It is only used for intermediate results, which the
+     * virtual machine usually keeps in registers rather than allocating them.
+     * The operations are the ones of Dekker and Knuth, and they use only the
+     * <tt>double</tt> operations, splitting the values for exact products.
+     *
+     * @author Mario Bobic
+     */
+    private static class Real {
+        /** High part of the number. */
+        private final double hi;
+        /** Low part of the number, at most half an ulp of the high part. */
+        private final double lo;
+
+        /**
+         * Constructs an instance of Real with the specified normalized parts.
+         *
+         * @param hi high part of the number
+         * @param lo low part of the number
+         */
+        private Real(double hi, double lo) {
+            this.hi = hi;
+            this.lo = lo;
+        }
+
+        /**
+         * Returns the exact sum of <tt>a</tt> and <tt>b</tt>.
+         *
+         * @param a the first addend
+         * @param b the second addend
+         * @return the exact sum
+         */
+        private static Real sum(double a, double b) {
+            double s = a + b;
+            double bb = s - a;
+            return new Real(s, (a - (s - bb)) + (b - bb));
+        }
+
+        /**
+         * Returns the exact sum of <tt>a</tt> and <tt>b</tt>, provided that
+         * <tt>|a| &ge; |b|</tt>.
+         *
+         * @param a the larger addend
+         * @param b the smaller addend
+         * @return the exact sum
+         */
+        private static Real quickSum(double a, double b) {
+            double s = a + b;
+            return new Real(s, b - (s - a));
+        }
+
+        /**
+         * Returns the exact product of <tt>a</tt> and <tt>b</tt>.
+         *
+         * @param a the first factor
+         * @param b the second factor
+         * @return the exact product
+         */
+        private static Real product(double a, double b) {
+            double p = a * b;
+
+            double t = SPLITTER * a;
+            double aHi = t - (t - a);
+            double aLo = a - aHi;
+            t = SPLITTER * b;
+            double bHi = t - (t - b);
+            double bLo = b - bHi;
+
+            return new Real(p, ((aHi*bHi - p) + aHi*bLo + aLo*bHi) + aLo*bLo);
+        }
+
+        /**
+         * Returns <tt>this + r</tt>.
+         *
+         * @param r the number to be added
+         * @return the sum
+         */
+        private Real add(Real r) {
+            Real s = sum(hi, r.hi);
+            Real t = sum(lo, r.lo);
+            Real u = quickSum(s.hi, s.lo + t.hi);
+            return quickSum(u.hi, u.lo + t.lo);
+        }
+
+        /**
+         * Returns <tt>this * r</tt>.
+         *
+         * @param r the factor
+         * @return the product
+         */
+        private Real multiply(Real r) {
+            Real p = product(hi, r.hi);
+            return quickSum(p.hi, p.lo + (hi*r.lo + lo*r.hi));
+        }
+
+        /**
+         * Returns <tt>this * d</tt>.
+         *
+         * @param d the factor
+         * @return the product
+         */
+        private Real multiply(double d) {
+            Real p = product(hi, d);
+            return quickSum(p.hi, p.lo + lo*d);
+        }
+
+        /**
+         * Returns <tt>this / r</tt>.
+         *
+         * @param r the divisor
+         * @return the quotient
+         */
+        private Real divide(Real r) {
+            double q1 = hi / r.hi;
+            Real remainder = add(r.multiply(q1).negate());
+            double q2 = remainder.hi / r.hi;
+            return quickSum(q1, q2);
+        }
+
+        /**
+         * Returns <tt>this / d</tt>.
+         *
+         * @param d the divisor
+         * @return the quotient
+         */
+        private Real divide(double d) {
+            double q1 = hi / d;
+            Real p = product(q1, d);
+            double remainder = ((hi - p.hi) - p.lo) + lo;
+            return quickSum(q1, remainder / d);
+        }
+
+        /**
+         * Returns <tt>-this</tt>.
+         *
+         * @return the negation
+         */
+        private Real negate() {
+            return new Real(-hi, -lo);
+        }
+    }
+
+}
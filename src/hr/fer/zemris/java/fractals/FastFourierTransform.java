@@ -0,0 +1,103 @@
+package hr.fer.zemris.java.fractals;
+
+import java.util.Objects;
+
+/**
+ * This class offers the fast Fourier transform of complex values stored as two
+ * parallel arrays of <tt>double</tt> values, one for the real parts and one
+ * for the imaginary parts. The length of the arrays must be a power of two.
+ * <p>
+ * The transform is computed in place by the iterative radix-2 Cooley-Tukey
+ * algorithm in <tt>O(n log n)</tt> operations. The twiddle factors are
+ * computed directly by the sine and cosine functions instead of by a
+ * recurrence, so the rounding error stays within a few units in the last
+ * place times <tt>log n</tt>, relative to the largest value.
+ *
+ * @author Mario Bobic
+ */
+public class FastFourierTransform {
+
+    /**
+     * Disable instantiation or inheritance.
+     */
+    private FastFourierTransform() {
+    }
+
+    /**
+     * Transforms the specified values in place. The forward transform
+     * computes <tt>X<sub>k</sub> = &sum; x<sub>j</sub> e<sup>-2&pi;ijk/n</sup></tt>,
+     * while the inverse transform uses the opposite sign of the exponent and
+     * divides the result by <tt>n</tt>, so it reverts the forward transform.
+     *
+     * @param re real parts of the values
+     * @param im imaginary parts of the values
+     * @param inverse <tt>true</tt> for the inverse transform
+     * @throws IllegalArgumentException if the lengths of the arrays differ or
+     *         are not a power of two
+     * @throws NullPointerException if <tt>re</tt> or <tt>im</tt> is <tt>null</tt>
+     */
+    public static void transform(double[] re, double[] im, boolean inverse) {
+        Objects.requireNonNull(re, "Real parts must not be null.");
+        Objects.requireNonNull(im, "Imaginary parts must not be null.");
+
+        int n = re.length;
+        if (im.length != n) {
+            throw new IllegalArgumentException("Lengths of the arrays differ: " + n + " and " + im.length);
+        }
+        if (Integer.bitCount(n) > 1) {
+            throw new IllegalArgumentException("Length is not a power of two: " + n);
+        }
+        if (n <= 1) {
+            return;
+        }
+
+        // bit-reversal permutation
+        int bits = Integer.numberOfTrailingZeros(n);
+        for (int i = 0; i < n; i++) {
+            int j = Integer.reverse(i) >>> (32 - bits);
+            if (i < j) {
+                double temp = re[i]; re[i] = re[j]; re[j] = temp;
+                temp = im[i]; im[i] = im[j]; im[j] = temp;
+            }
+        }
+
+        // twiddle factors of the largest stage, w^k = e^(-+2*pi*i*k/n)
+        double sign = inverse ? 1 : -1;
+        double[] cos = new double[n/2];
+        double[] sin = new double[n/2];
+        for (int k = 0; k < n/2; k++) {
+            double angle = 2 * Math.PI * k / n;
+            cos[k] = Math.cos(angle);
+            sin[k] = sign * Math.sin(angle);
+        }
+
+        for (int length = 2; length <= n; length <<= 1) {
+            int half = length / 2;
+            int step = n / length;
+            for (int start = 0; start < n; start += length) {
+                for (int k = 0; k < half; k++) {
+                    int even = start + k;
+                    int odd = even + half;
+
+                    double wRe = cos[k*step];
+                    double wIm = sin[k*step];
+                    double tRe = re[odd]*wRe - im[odd]*wIm;
+                    double tIm = re[odd]*wIm + im[odd]*wRe;
+
+                    re[odd] = re[even] - tRe;
+                    im[odd] = im[even] - tIm;
+                    re[even] += tRe;
+                    im[even] += tIm;
+                }
+            }
+        }
+
+        if (inverse) {
+            for (int i = 0; i < n; i++) {
+                re[i] /= n;
+                im[i] /= n;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+package hr.fer.zemris.java.fractals;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is an exact counter of created instances that may be incremented
+ * by many threads at once. Each thread counts into its own cell, which only
+ * that thread writes, so the threads do not share a contended field and no
+ * counts are lost. The {@linkplain #total()} method sums the cells of all
+ * threads that have ever incremented this counter.
+ * <p>
+ * The {@linkplain Complex} class counts its instances with an instance of this
+ * class only if the <tt>complex.countInstances</tt> system property is set to
+ * <tt>true</tt>, otherwise the counting costs nothing.
+ *
+ * @author Mario Bobic
+ */
+public class InstanceCounter {
+
+    /** Cells of all threads that have incremented this counter. */
+    private final Queue<AtomicLong> cells = new ConcurrentLinkedQueue<>();
+
+    /** Cell of the current thread, registered on its first use. */
+    private final ThreadLocal<AtomicLong> cell = new ThreadLocal<AtomicLong>() {
+        @Override
+        protected AtomicLong initialValue() {
+            AtomicLong cell = new AtomicLong();
+            cells.add(cell);
+            return cell;
+        }
+    };
+
+    /**
+     * Increments the count of the current thread.
+     */
+    public void increment() {
+        AtomicLong cell = this.cell.get();
+        // only this thread writes the cell, so no atomic increment is needed
+        cell.lazySet(cell.get() + 1);
+    }
+
+    /**
+     * Returns the number of increments made by the current thread.
+     *
+     * @return the count of the current thread
+     */
+    public long ofCurrentThread() {
+        return cell.get().get();
+    }
+
+    /**
+     * Returns the number of increments made by all threads. The returned
+     * value is exact for the threads whose increments happened before this
+     * call, for example threads that have finished their jobs.
+     *
+     * @return the count of all threads
+     */
+    public long total() {
+        long total = 0;
+        for (AtomicLong cell : cells) {
+            total += cell.get();
+        }
+        return total;
+    }
+
+}
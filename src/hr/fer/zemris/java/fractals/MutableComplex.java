@@ -0,0 +1,274 @@
+package hr.fer.zemris.java.fractals;
+
+/**
+ * This class is a mutable companion of the {@linkplain Complex}. Its
+ * operations store the result into this complex number instead of returning a
+ * new one, so a chain of operations in a tight loop does not create any
+ * objects. Every operation returns this complex number, so the operations can
+ * be chained, for example <tt>z.mulInPlace(z).addInPlace(c)</tt>.
+ * <p>
+ * The operations perform exactly the same floating-point operations as the
+ * ones of the {@linkplain Complex}, so the results are identical. An instance
+ * is converted from and to a {@linkplain Complex} by the
+ * {@linkplain #MutableComplex(Complex)} constructor and the
+ * {@linkplain #toComplex()} method.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Mario Bobic
+ */
+public class MutableComplex {
+
+    /** Lowest decimal number value until it is regarded as zero. */
+    private static final double ZERO_LIMIT = 1E-20;
+
+    /** Real part of the complex number. */
+    private double real;
+    /** Imaginary part of the complex number. */
+    private double imag;
+
+    /**
+     * Constructs a new instance of a MutableComplex,
+     * with the real and imaginary part both set to 0.
+     */
+    public MutableComplex() {
+        this(0, 0);
+    }
+
+    /**
+     * Constructs a new instance of a MutableComplex,
+     * with the specified parameters.
+     *
+     * @param re real part of the complex number
+     * @param im imaginary part of the complex number
+     */
+    public MutableComplex(double re, double im) {
+        real = re;
+        imag = im;
+    }
+
+    /**
+     * Constructs a new instance of a MutableComplex with the value of the
+     * specified complex number <tt>c</tt>.
+     *
+     * @param c complex number whose value is taken
+     * @throws NullPointerException if <tt>c == null</tt>
+     */
+    public MutableComplex(Complex c) {
+        this(c.getReal(), c.getImag());
+    }
+
+    /**
+     * Returns the real part of this complex number.
+     *
+     * @return the real part of this complex number
+     */
+    public double getReal() {
+        return real;
+    }
+
+    /**
+     * Returns the imaginary part of this complex number.
+     *
+     * @return the imaginary part of this complex number
+     */
+    public double getImag() {
+        return imag;
+    }
+
+    /**
+     * Sets this complex number to <tt>re + im*i</tt>.
+     *
+     * @param re the new real part
+     * @param im the new imaginary part
+     * @return this complex number
+     */
+    public MutableComplex set(double re, double im) {
+        real = re;
+        imag = im;
+        return this;
+    }
+
+    /**
+     * Sets this complex number to the value of the specified complex number
+     * <tt>c</tt>.
+     *
+     * @param c complex number whose value is taken
+     * @return this complex number
+     * @throws NullPointerException if <tt>c == null</tt>
+     */
+    public MutableComplex set(Complex c) {
+        return set(c.getReal(), c.getImag());
+    }
+
+    /**
+     * Sets this complex number to the value of the specified complex number
+     * <tt>c</tt>.
+     *
+     * @param c complex number whose value is taken
+     * @return this complex number
+     * @throws NullPointerException if <tt>c == null</tt>
+     */
+    public MutableComplex set(MutableComplex c) {
+        return set(c.real, c.imag);
+    }
+
+    /**
+     * Returns a new {@linkplain Complex} with the value of this complex
+     * number.
+     *
+     * @return an immutable copy of this complex number
+     */
+    public Complex toComplex() {
+        return new Complex(real, imag);
+    }
+
+    /**
+     * Returns the absolute value of this complex number by formula
+     * <tt>sqrt(real<sup>2</sup>+imag<sup>2</sup>)</tt>.
+     *
+     * @return the absolute value (modulus) of this complex number
+     */
+    public double module() {
+        return Math.hypot(real, imag);
+    }
+
+    /**
+     * Returns the distance between this complex number and complex number
+     * <tt>c</tt>.
+     *
+     * @param c complex number from whose distance is to be calculated
+     * @return the distance between this complex number and <tt>c</tt>
+     * @throws NullPointerException if <tt>c == null</tt>
+     */
+    public double distance(MutableComplex c) {
+        return Math.hypot(real-c.real, imag-c.imag);
+    }
+
+    /**
+     * Adds the complex number <tt>c</tt> to this one by formula
+     * <tt>this = this + c</tt>.
+     *
+     * @param c complex number to be added to this one
+     * @return this complex number
+     * @throws NullPointerException if <tt>c == null</tt>
+     */
+    public MutableComplex addInPlace(MutableComplex c) {
+        real += c.real;
+        imag += c.imag;
+        return this;
+    }
+
+    /**
+     * Subtracts the complex number <tt>c</tt> from this one by formula
+     * <tt>this = this - c</tt>.
+     *
+     * @param c complex number to be subtracted from this one
+     * @return this complex number
+     * @throws NullPointerException if <tt>c == null</tt>
+     */
+    public MutableComplex subInPlace(MutableComplex c) {
+        real -= c.real;
+        imag -= c.imag;
+        return this;
+    }
+
+    /**
+     * Multiplies this complex number with the complex number <tt>c</tt> by
+     * formula <tt>this = this * c</tt>.
+     *
+     * @param c complex number to be multiplied with this one
+     * @return this complex number
+     * @throws NullPointerException if <tt>c == null</tt>
+     */
+    public MutableComplex mulInPlace(MutableComplex c) {
+        double realMul = real*c.real - imag*c.imag;
+        double imagMul = imag*c.real + real*c.imag;
+        return set(realMul, imagMul);
+    }
+
+    /**
+     * Divides this complex number with the complex number <tt>c</tt> by
+     * formula <tt>this = this / c</tt>.
+     *
+     * @param c complex number to divide this one with
+     * @return this complex number
+     * @throws ArithmeticException if <tt>c</tt> is <tt>0+0i</tt>, in which
+     *         case this complex number is not changed
+     * @throws NullPointerException if <tt>c == null</tt>
+     */
+    public MutableComplex divInPlace(MutableComplex c) {
+        // multiplied with the conjugate of c, same as Complex.divide
+        double denominator = c.real*c.real - c.imag*(-c.imag);
+        if (Math.abs(denominator) < ZERO_LIMIT) {
+            throw new ArithmeticException("Division by zero: " + c);
+        }
+
+        double realDiv = (real*c.real - imag*(-c.imag)) / denominator;
+        double imagDiv = (imag*c.real + real*(-c.imag)) / denominator;
+        return set(realDiv, imagDiv);
+    }
+
+    /**
+     * Negates this complex number by formula <tt>this = -this</tt>.
+     *
+     * @return this complex number
+     */
+    public MutableComplex negateInPlace() {
+        return set(-real, -imag);
+    }
+
+    /**
+     * Multiplies this complex number with the complex number <tt>c</tt> and
+     * adds the complex number <tt>addend</tt> by formula
+     * <tt>this = this * c + addend</tt>. This is a single step of the Horner's
+     * method.
+     *
+     * @param c complex number to be multiplied with this one
+     * @param addend complex number to be added to the product
+     * @return this complex number
+     * @throws NullPointerException if <tt>c</tt> or <tt>addend</tt> is <tt>null</tt>
+     */
+    public MutableComplex fma(MutableComplex c, MutableComplex addend) {
+        return fma(c, addend.real, addend.imag);
+    }
+
+    /**
+     * Multiplies this complex number with the complex number <tt>c</tt> and
+     * adds the complex number <tt>addend</tt> by formula
+     * <tt>this = this * c + addend</tt>.
+     *
+     * @param c complex number to be multiplied with this one
+     * @param addend complex number to be added to the product
+     * @return this complex number
+     * @throws NullPointerException if <tt>c</tt> or <tt>addend</tt> is <tt>null</tt>
+     */
+    public MutableComplex fma(MutableComplex c, Complex addend) {
+        return fma(c, addend.getReal(), addend.getImag());
+    }
+
+    /**
+     * Multiplies this complex number with the complex number <tt>c</tt> and
+     * adds <tt>re + im*i</tt>.
+     *
+     * @param c complex number to be multiplied with this one
+     * @param re real part of the addend
+     * @param im imaginary part of the addend
+     * @return this complex number
+     */
+    private MutableComplex fma(MutableComplex c, double re, double im) {
+        double realFma = real*c.real - imag*c.imag + re;
+        double imagFma = real*c.imag + imag*c.real + im;
+        return set(realFma, imagFma);
+    }
+
+    /**
+     * Returns a formatted string of this complex number, the same as the
+     * {@linkplain Complex#toString()} method.
+     */
+    @Override
+    public String toString() {
+        return toComplex().toString();
+    }
+
+}
@@ -3,12 +3,21 @@ package hr.fer.zemris.java.fractals;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.ThreadFactory;
 
 import hr.fer.zemris.java.fractals.viewer.FractalViewer;
@@ -23,27 +32,44 @@ import hr.fer.zemris.java.fractals.viewer.IFractalResultObserver;
  * <p>
  * Second, it creates new daemon threads used for running the jobs of fractal
  * image calculation and then the fractal image is finally shown to the user.
+ * <p>
+ * If a file is given as the program argument, the roots are loaded from it by
+ * the {@linkplain PolynomialLoader} instead, without asking the user.
  *
  * @author Mario Bobic
  */
 public class Newton {
 
-    /** Array of roots fetched from the user. */
-    private static Complex[] roots;
-    /** The rooted polynomial created from array of roots. */
+    /**
+     * Maximum number of roots, so that every color index and the number of
+     * colors fit in a <tt>short</tt>.
+     */
+    static final int MAX_ROOTS = Short.MAX_VALUE - 1;
+
+    /** The rooted polynomial created from the roots. */
     private static ComplexRootedPolynomial rootedPolynomial;
 
     /**
      * Program entry point.
      *
-     * @param args not used in this example
+     * @param args optional path of the file with the roots
      * @throws IOException if an unrecoverable reading error occurs
      */
     public static void main(String[] args) throws IOException {
         System.out.println("Welcome to Newton-Raphson iteration-based fractal viewer.");
-        System.out.println("Please enter at least two roots, one root per line. Enter 'done' when done.");
 
-        readInput();
+        if (args.length > 0) {
+            try {
+                loadRoots(Paths.get(args[0]));
+            } catch (IllegalArgumentException e) {
+                System.out.println(e.getMessage());
+                return;
+            }
+            System.out.println("Loaded " + rootedPolynomial.order() + " roots from " + args[0] + ".");
+        } else {
+            System.out.println("Please enter at least two roots, one root per line. Enter 'done' when done.");
+            readInput();
+        }
 
         System.out.println("Image of fractal will appear shortly. Thank you.");
 
@@ -51,7 +77,30 @@ public class Newton {
     }
 
     /**
-     * Reads the input from user, filling the <tt>roots</tt> array and ignoring
+     * Loads the roots from the file at the specified <tt>path</tt> by the
+     * {@linkplain PolynomialLoader} and sets the rooted polynomial of these
+     * roots.
+     * <p>
+     * Throws {@linkplain IllegalArgumentException} if the file contains more
+     * than {@linkplain #MAX_ROOTS} roots, as their color indexes would not fit
+     * in a <tt>short</tt>.
+     *
+     * @param path path of the file
+     * @throws IOException if an I/O error occurs or the binary file is corrupted
+     * @throws IllegalArgumentException if the file cannot be parsed or
+     *         contains no roots or more than <tt>MAX_ROOTS</tt> roots
+     */
+    static void loadRoots(Path path) throws IOException {
+        ComplexRootedPolynomial polynomial = PolynomialLoader.loadRoots(path);
+        if (polynomial.order() > MAX_ROOTS) {
+            throw new IllegalArgumentException("Cannot show more than " + MAX_ROOTS
+                    + " roots, the file contains " + polynomial.order() + ".");
+        }
+        rootedPolynomial = polynomial;
+    }
+
+    /**
+     * Reads the input from user, filling the list of roots and ignoring
      * empty lines. Every input line is parsed as a complex number using the
      * {@linkplain Complex#parse(String)} method.
      * <p>
@@ -88,7 +137,7 @@ public class Newton {
             }
         }
 
-        roots = rootsList.toArray(new Complex[rootsList.size()]);
+        Complex[] roots = rootsList.toArray(new Complex[rootsList.size()]);
         rootedPolynomial = new ComplexRootedPolynomial(roots);
         reader.close();
     }
@@ -97,7 +146,28 @@ public class Newton {
      * Shows the fractal image of the specified roots.
      */
     private static void showImage() {
-        FractalViewer.show(new FractalProducerImpl());
+        FractalViewer.show(createProducer());
+    }
+
+    /**
+     * Returns a new producer of the fractal images of the roots that have
+     * been read or loaded.
+     *
+     * @return a new producer of the fractal images
+     */
+    static IFractalProducer createProducer() {
+        return createProducer(new Settings());
+    }
+
+    /**
+     * Returns a new producer of the fractal images of the roots that have
+     * been read or loaded, with the specified settings.
+     *
+     * @param settings settings of the producer
+     * @return a new producer of the fractal images
+     */
+    static IFractalProducer createProducer(Settings settings) {
+        return new FractalProducerImpl(settings);
     }
 
     /**
@@ -122,41 +192,323 @@ public class Newton {
         private static final double convergenceThreshold = 0.001;
         /** The root threshold. */
         private static final double rootThreshold = 0.002;
+        /** Lowest divisor value until it is regarded as zero, same as in Complex. */
+        private static final double ZERO_LIMIT = 1E-20;
+        /** Distance under which an orbit is considered to have returned to a saved point. */
+        private static final double cycleThreshold = 1E-10;
+        /**
+         * Distance between the pixels, relative to the magnitude of the points,
+         * under which the {@linkplain Kernel#DOUBLE_DOUBLE} kernel is used.
+         */
+        private static final double deepZoomThreshold = 1E-13;
+        /** Distance in pixels under which a transformed pixel is equal to a pixel. */
+        private static final double gridThreshold = 1E-6;
+
+        /**
+         * Indicates whether the number of pixels per iteration exit should be
+         * printed after every frame, set by the <tt>newton.statistics</tt>
+         * system property.
+         */
+        private static final boolean printExits = Boolean.getBoolean("newton.statistics");
+        /** Distances between computed pixels in each of the progressive passes. */
+        private static final int[] PROGRESSIVE_STEPS = {4, 2, 1};
+        /**
+         * Indicates whether the image produced by the
+         * {@linkplain Scheduler#SUBDIVISION} scheduler or by the symmetry of
+         * the roots should be compared to the one computed pixel by pixel,
+         * set by the <tt>newton.verify</tt> system property.
+         */
+        private static final boolean verify = Boolean.getBoolean("newton.verify");
+        /** Distance in pixels under which the pixel grids of two frames are aligned. */
+        private static final double phaseThreshold = 1E-6;
+        /** Number of the lowest mantissa bits ignored when comparing pixel spacings. */
+        private static final int SPACING_BITS = 8;
 
         /** A polynomial obtained from the rooted polynomial. */
         private static final ComplexPolynomial polynomial = rootedPolynomial.toComplexPolynom();
         /** A derivative of a polynomial obtained from the rooted polynomial. */
         private static final ComplexPolynomial derived = polynomial.derive();
+        /** A compiled form of the polynomial, evaluating it with its derivative. */
+        private static final CompiledComplexPolynomial compiled = polynomial.compile();
+        /** The largest root modulus, but at least the root threshold. */
+        private static final double rootBound = computeRootBound();
+        /** Escape radius for each iteration, see {@linkplain #computeEscapeRadii()}. */
+        private static final double[] escapeRadii = computeEscapeRadii();
 
 
         // Non-static initializers
 
+        /** The kernel used for computing color indexes. */
+        private final Kernel kernel;
+        /** Number of pixels iterated at once by the {@linkplain Kernel#LANES} kernel. */
+        private final int lanes;
+        /** The scheduler used for splitting the image into jobs. */
+        private final Scheduler scheduler;
+        /** Maximum width and height of a tile computed as a single job. */
+        private final int tileSize;
+        /** Indicates whether the image is delivered progressively. */
+        private final boolean progressive;
+        /** Indicates whether the pixels of the previous image are reused when it is only moved. */
+        private final boolean reuse;
+        /** Symmetry of the roots, or <tt>null</tt> if there is none or it is not used. */
+        private final RootSymmetry symmetry;
+
         /** Thread pool that reuses a fixed number of daemonic threads. */
         private ExecutorService pool =
                 Executors.newFixedThreadPool(NUMPROCESSORS, new DaemonicThreadFactory());
 
-        /** List of Future objects containing jobs. */
-        private List<Future<Void>> results = new ArrayList<>();
+        /** Work-stealing pool used by the {@linkplain Scheduler#TILES} scheduler. */
+        private ForkJoinPool forkJoinPool = new ForkJoinPool(NUMPROCESSORS);
+
+        /** The most recent request, whose result is still to be delivered. */
+        private Request currentRequest;
+
+        /** The last image delivered to the observer, or <tt>null</tt>. */
+        private Frame lastFrame;
+
+        /** Cache of computed tiles, or <tt>null</tt> if it is disabled. */
+        private TileCache<TileKey> cache;
+
+        /**
+         * Constructs an instance of <tt>FractalProducerImpl</tt> with the
+         * specified settings.
+         *
+         * @param settings settings of the producer
+         */
+        public FractalProducerImpl(Settings settings) {
+            kernel = settings.kernel;
+            lanes = Math.max(1, settings.lanes);
+            scheduler = settings.scheduler;
+            tileSize = Math.max(1, settings.tileSize);
+            progressive = settings.progressive;
+            reuse = settings.reuse;
+            symmetry = settings.symmetric ? rootedPolynomial.findSymmetry() : null;
+            cache = settings.cacheSize > 0 ? new TileCache<TileKey>((long) settings.cacheSize << 20) : null;
+        }
+
+        /**
+         * Computes the escape radius for each iteration <tt>i</tt>. If the
+         * point is further than the escape radius from the origin, the
+         * remaining <tt>MAX_ITERS - i</tt> iterations cannot bring it back
+         * close enough to any of the roots, so the pixel would end up without a
+         * root anyway.
+         * <p>
+         * Let <tt>n</tt> be the number of roots and <tt>M</tt> the largest root
+         * modulus, but at least the root threshold. For <tt>|z| &ge; 4M</tt>
+         * the Newton-Raphson step keeps <tt>|N(z)| &ge; (1 - 1.5/n) |z|</tt>,
+         * which gives the radius <tt>4M / (1 - 1.5/n)<sup>MAX_ITERS - i</sup>
+         * </tt>. An iteration of a first order polynomial never diverges.
+         *
+         * @return escape radius for each iteration
+         */
+        private static double[] computeEscapeRadii() {
+            double[] radii = new double[MAX_ITERS + 1];
+
+            int n = rootedPolynomial.order();
+            if (n < 2) {
+                Arrays.fill(radii, Double.POSITIVE_INFINITY);
+                return radii;
+            }
+
+            double factor = 1 - 1.5 / n;
+            for (int i = 0; i <= MAX_ITERS; i++) {
+                radii[i] = 4 * rootBound / Math.pow(factor, MAX_ITERS - i);
+            }
+
+            return radii;
+        }
+
+        /**
+         * Returns the largest modulus of the roots, but at least the root
+         * threshold.
+         *
+         * @return the largest root modulus
+         */
+        private static double computeRootBound() {
+            double bound = rootThreshold;
+            for (int i = 0, n = rootedPolynomial.order(); i < n; i++) {
+                bound = Math.max(bound, rootedPolynomial.getRoot(i).module());
+            }
+            return bound;
+        }
+
+        /**
+         * Returns <tt>true</tt> if the distance between the pixels of the
+         * specified view is so small compared to the points that are iterated
+         * that the <tt>double</tt> precision is not enough and the
+         * {@linkplain Kernel#DOUBLE_DOUBLE} kernel has to be used. The orbits
+         * pass by the roots, so the magnitude of the points is at least the
+         * {@linkplain #rootBound}.
+         *
+         * @param reMin minimum value of the real part of a complex number
+         * @param reMax maximum value of the real part of a complex number
+         * @param imMin minimum value of the imaginary part of a complex number
+         * @param imMax maximum value of the imaginary part of a complex number
+         * @param width width of the image
+         * @param height height of the image
+         * @return <tt>true</tt> if the double-double precision is needed
+         */
+        private boolean isDeepZoom(double reMin, double reMax, double imMin, double imMax,
+                int width, int height) {
+            if (kernel == Kernel.DOUBLE_DOUBLE) {
+                return true;
+            }
+
+            double spacing = Math.min((reMax - reMin) / (width - 1), (imMax - imMin) / (height - 1));
+            double magnitude = Math.max(
+                    Math.max(Math.abs(reMin), Math.abs(reMax)),
+                    Math.max(Math.abs(imMin), Math.abs(imMax)));
+
+            return spacing < deepZoomThreshold * Math.max(magnitude, rootBound);
+        }
 
         @Override
         public void produce(double reMin, double reMax, double imMin, double imMax,
                 int width, int height, long requestNo, IFractalResultObserver observer) {
 
-            // Initialize settings
+            Request request = startRequest(requestNo);
+            if (request == null) {
+                return; // a newer request has already started
+            }
+
             short[] data = new short[width * height];
+            Collection<Job> jobs = new ArrayList<>();
+
+            Frame previous;
+            synchronized (this) {
+                previous = lastFrame;
+            }
+            int[] shift = reuse && previous != null
+                    ? previous.shiftTo(reMin, reMax, imMin, imMax, width, height)
+                    : null;
+
+            // every pass computes only the pixels that the previous one skipped
+            // the tile grid and the pixel symmetries are computed in double precision
+            boolean deep = isDeepZoom(reMin, reMax, imMin, imMax, width, height);
+            boolean panned = shift != null;
+            boolean cached = !panned && cache != null && !progressive && !deep;
+            boolean passes = !panned && progressive && scheduler != Scheduler.SUBDIVISION;
+            boolean mapped = symmetry != null && !panned && !passes && !cached && !deep
+                    && scheduler != Scheduler.SUBDIVISION;
+            int[] steps = passes ? PROGRESSIVE_STEPS : new int[] {1};
+            for (int pass = 0; pass < steps.length; pass++) {
+                int step = steps[pass];
+                int previousStep = pass == 0 ? 0 : steps[pass-1];
+
+                Job prototype = new Job(reMin, reMax, imMin, imMax, width, height, 0, width, 0, height,
+                        data, request, step, previousStep);
+
+                int[][] gridSymmetries = mapped ? prototype.findGridSymmetries() : new int[0][];
+
+                if (panned) {
+                    jobs.addAll(producePanned(prototype, previous, shift[0], shift[1]));
+                } else if (cached) {
+                    jobs.addAll(produceCached(prototype));
+                } else if (scheduler == Scheduler.SUBDIVISION) {
+                    jobs.addAll(produceSubdivision(prototype));
+                } else if (gridSymmetries.length > 0) {
+                    // the rest of the image is mapped from the computed pixels once they are done
+                    jobs.addAll(schedule(prototype.withSymmetries(gridSymmetries, false)));
+                    jobs.addAll(schedule(prototype.withSymmetries(gridSymmetries, true)));
+                } else {
+                    jobs.addAll(schedule(prototype));
+                }
+
+                if (verify && (panned || cached || scheduler == Scheduler.SUBDIVISION || gridSymmetries.length > 0)) {
+                    verifyImage(reMin, reMax, imMin, imMax, width, height, data, request);
+                }
+
+                boolean last = pass == steps.length - 1;
+                synchronized (this) {
+                    if (request.isCancelled()) {
+                        return; // superseded while computing
+                    }
+
+                    if (last && printExits) {
+                        printExits(jobs);
+                        if (cache != null) {
+                            System.out.println("Tile cache: " + cache);
+                        }
+                    }
+
+                    // the observer may read the array later, so it gets a snapshot
+                    short[] result = last ? data : data.clone();
+                    observer.acceptResult(result, (short)(polynomial.order() + 1), requestNo);
+
+                    if (last) {
+                        lastFrame = new Frame(reMin, reMax, imMin, imMax, width, height, data);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Starts tracking a new request with the specified <tt>requestNo</tt>
+         * and cancels the jobs of the previous request. Returns <tt>null</tt>
+         * if a request with a greater number has already been started, as the
+         * specified one is then superseded before it even began.
+         *
+         * @param requestNo number of the request
+         * @return the started request, or <tt>null</tt> if it is superseded
+         */
+        private synchronized Request startRequest(long requestNo) {
+            if (currentRequest != null) {
+                if (currentRequest.requestNo > requestNo) {
+                    return null;
+                }
+                currentRequest.cancel();
+            }
+
+            currentRequest = new Request(requestNo);
+            return currentRequest;
+        }
+
+        /**
+         * Fills the part of the image covered by the specified
+         * <tt>prototype</tt> job using the {@linkplain Scheduler#TILES} or the
+         * {@linkplain Scheduler#STRIPES} scheduler. Returns the jobs that were
+         * run.
+         *
+         * @param prototype job that covers the part of the image to be filled
+         * @return the jobs that were run
+         */
+        private Collection<Job> schedule(Job prototype) {
+            if (scheduler == Scheduler.TILES) {
+                return produceTiles(prototype);
+            }
+            return produceStripes(prototype);
+        }
+
+        /**
+         * Fills the part of the image covered by the specified
+         * <tt>prototype</tt> job by splitting it into <tt>NUMJOBS</tt>
+         * horizontal stripes of equal height, which are then computed by the
+         * fixed thread pool. Returns the jobs that were run.
+         *
+         * @param prototype job that covers the part of the image to be filled
+         * @return the jobs that were run
+         */
+        private Collection<Job> produceStripes(Job prototype) {
+            int top = prototype.ymin;
+            int height = prototype.ymax - top;
+
+            // Initialize settings
             int jobHeightFraction = height / NUMJOBS;
+            List<Job> jobs = new ArrayList<>(NUMJOBS);
+            List<Future<Void>> results = new ArrayList<>(NUMJOBS);
 
             // Submit every job and store Future objects
             for (int i = 0; i < NUMJOBS; i++) {
-                int ymin = i * jobHeightFraction;
-                int ymax = (i+1) * jobHeightFraction;
+                int ymin = top + i * jobHeightFraction;
+                int ymax = top + (i+1) * jobHeightFraction;
 
                 if (i == NUMJOBS - 1) { // last job
-                    ymax = height; // collect remnants
+                    ymax = top + height; // collect remnants
                 }
 
-                Job job = new Job(reMin, reMax, imMin, imMax, width, height, ymin, ymax, data);
+                Job job = prototype.region(prototype.xmin, prototype.xmax, ymin, ymax);
 
+                jobs.add(job);
                 results.add(pool.submit(job));
             }
 
@@ -167,119 +519,1683 @@ public class Newton {
                 } catch (Exception ignorable) {}
             }
 
-            observer.acceptResult(data, (short)(polynomial.order() + 1), requestNo);
+            return jobs;
         }
 
         /**
-         * This class implements the {@linkplain Callable} interface and
-         * represents a job that fills the array of <tt>short</tt> integers with
-         * color indexes until it reached a predefined number of iterations or
-         * until the convergence threshold becomes adequately small.
+         * Fills the part of the image covered by the specified
+         * <tt>prototype</tt> job by recursively splitting it into tiles on the
+         * work-stealing pool, until both sides of a tile are at most
+         * <tt>tileSize</tt> pixels long. Idle threads steal the unsplit halves
+         * of busy ones, so all of them stay busy until the last tile is done.
+         * Returns the jobs that were run.
          *
-         * @author Mario Bobic
+         * @param prototype job that covers the part of the image to be filled
+         * @return the jobs that were run
          */
-        static class Job implements Callable<Void> {
-            /** Minimum value of the real part of a complex number. */
-            private double reMin;
-            /** Maximum value of the real part of a complex number. */
-            private double reMax;
-            /** Minimum value of the imaginary part of a complex number. */
-            private double imMin;
-            /** Maximum value of the imaginary part of a complex number. */
-            private double imMax;
+        private Collection<Job> produceTiles(Job prototype) {
+            Request request = prototype.request;
+            Collection<Job> jobs = new ConcurrentLinkedQueue<>();
 
-            /** Width of the image where this job produces fractals. */
-            private int width;
-            /** Height of the image where this job produces fractals. */
-            private int height;
-            /** The starting y coordinate of producing. */
-            private int ymin;
-            /** The ending y coordinate of producing. */
-            private int ymax;
+            /**
+             * This class is an implementation of {@linkplain RecursiveAction}
+             * that splits a tile in half along its longer side until it is
+             * small enough to be computed directly by a {@linkplain Job}.
+             *
+             * @author Mario Bobic
+             */
+            class TileAction extends RecursiveAction {
+                /** Serialization UID. */
+                private static final long serialVersionUID = 1L;
 
-            /** Array that contains color index data. */
-            private short[] data;
+                /** The starting x coordinate. */
+                private int xmin;
+                /** The ending x coordinate. */
+                private int xmax;
+                /** The starting y coordinate. */
+                private int ymin;
+                /** The ending y coordinate. */
+                private int ymax;
+
+                /**
+                 * Constructs an instance of <tt>TileAction</tt> with the
+                 * specified parameters.
+                 *
+                 * @param xmin the starting x coordinate of the tile
+                 * @param xmax the ending x coordinate of the tile
+                 * @param ymin the starting y coordinate of the tile
+                 * @param ymax the ending y coordinate of the tile
+                 */
+                public TileAction(int xmin, int xmax, int ymin, int ymax) {
+                    this.xmin = xmin;
+                    this.xmax = xmax;
+                    this.ymin = ymin;
+                    this.ymax = ymax;
+                }
+
+                @Override
+                protected void compute() {
+                    if (request.isCancelled()) {
+                        return;
+                    }
+
+                    int tileWidth = xmax - xmin;
+                    int tileHeight = ymax - ymin;
+
+                    if (tileWidth <= tileSize && tileHeight <= tileSize) {
+                        Job job = prototype.region(xmin, xmax, ymin, ymax);
+                        job.call();
+                        jobs.add(job);
+                        return;
+                    }
+
+                    if (tileWidth >= tileHeight) {
+                        int xmid = xmin + tileWidth / 2;
+                        invokeAll(
+                            new TileAction(xmin, xmid, ymin, ymax),
+                            new TileAction(xmid, xmax, ymin, ymax)
+                        );
+                    } else {
+                        int ymid = ymin + tileHeight / 2;
+                        invokeAll(
+                            new TileAction(xmin, xmax, ymin, ymid),
+                            new TileAction(xmin, xmax, ymid, ymax)
+                        );
+                    }
+                }
+            }
+
+            forkJoinPool.invoke(new TileAction(prototype.xmin, prototype.xmax, prototype.ymin, prototype.ymax));
+
+            return jobs;
+        }
+
+        /**
+         * Fills the specified <tt>data</tt> array using the Mariani-Silver
+         * algorithm on the work-stealing pool. Only the border of a rectangle
+         * is computed. If every border pixel has the same color index, the
+         * interior is filled with it, otherwise the rectangle is split in half
+         * along its longer side and both halves are processed the same way.
+         * Since Newton basins are large connected regions, most of the
+         * interior pixels are never iterated. Returns the jobs that were run.
+         *
+         * @param prototype job that covers the whole image
+         * @return the jobs that were run
+         */
+        private Collection<Job> produceSubdivision(Job prototype) {
+            int width = prototype.width;
+            int height = prototype.height;
+            short[] data = prototype.data;
+            Request request = prototype.request;
+            Collection<Job> jobs = new ConcurrentLinkedQueue<>();
 
             /**
-             * Constructs an instance of a <tt>Job</tt> object with the
-             * specified parameters.
+             * This class is an implementation of {@linkplain RecursiveAction}
+             * that fills the interior of a rectangle whose border pixels are
+             * already computed. All coordinates are inclusive, so the
+             * rectangles of both halves share the line they were split on.
              *
-             * @param reMin minimum value of the real part of a complex number
-             * @param reMax maximum value of the real part of a complex number
-             * @param imMin minimum value of the imaginary part of a complex number
-             * @param imMax maximum value of the imaginary part of a complex number
-             * @param width width of the image where this job produces fractals
-             * @param height height of the image where this job produces fractals
-             * @param ymin the starting y coordinate of producing
-             * @param ymax the ending y coordinate of producing
-             * @param data array where the color index data will be stored
+             * @author Mario Bobic
              */
-            public Job(double reMin, double reMax, double imMin, double imMax,
-                    int width, int height, int ymin, int ymax, short[] data) {
-                this.reMin = reMin;
-                this.reMax = reMax;
-                this.imMin = imMin;
-                this.imMax = imMax;
-                this.width = width;
-                this.height = height;
-                this.ymin = ymin;
-                this.ymax = ymax;
-                this.data = data;
-            }
+            class SubdivisionAction extends RecursiveAction {
+                /** Serialization UID. */
+                private static final long serialVersionUID = 1L;
 
-            @Override
-            public Void call() {
-                int offset = ymin * width;
+                /** The left x coordinate of the border. */
+                private int x0;
+                /** The right x coordinate of the border. */
+                private int x1;
+                /** The top y coordinate of the border. */
+                private int y0;
+                /** The bottom y coordinate of the border. */
+                private int y1;
 
-                for (int y = ymin; y < ymax; y++) {
-                    for (int x = 0; x < width; x++) {
-                        double cre = x * (reMax - reMin) / (width - 1.0) + reMin;
-                        double cim = (height - 1.0 - y) * (imMax - imMin) / (height - 1) + imMin;
-                        Complex zn = new Complex(cre, cim);
-
-                        int i = 0;
-                        double module;
-                        Complex zn1;
-                        do {
-                            Complex numerator = polynomial.apply(zn);
-                            Complex denominator = derived.apply(zn);
-                            Complex fraction = numerator.divide(denominator);
-                            zn1 = zn.sub(fraction);
-                            module = zn1.sub(zn).module();
-                            zn = zn1;
-                            i++;
-                        } while (module > convergenceThreshold && i < MAX_ITERS);
-
-                        short index = (short) rootedPolynomial.indexOfClosestRootFor(zn1, rootThreshold);
-                        data[offset++] = (short) (index + 1);
+                /**
+                 * Constructs an instance of <tt>SubdivisionAction</tt> with
+                 * the specified border coordinates.
+                 *
+                 * @param x0 the left x coordinate of the border
+                 * @param x1 the right x coordinate of the border
+                 * @param y0 the top y coordinate of the border
+                 * @param y1 the bottom y coordinate of the border
+                 */
+                public SubdivisionAction(int x0, int x1, int y0, int y1) {
+                    this.x0 = x0;
+                    this.x1 = x1;
+                    this.y0 = y0;
+                    this.y1 = y1;
+                }
+
+                @Override
+                protected void compute() {
+                    if (request.isCancelled()) {
+                        return;
+                    }
+
+                    // nothing inside the border
+                    if (x1 - x0 < 2 || y1 - y0 < 2) {
+                        return;
+                    }
+
+                    short value = data[y0 * width + x0];
+                    if (isBorderUniform(value)) {
+                        for (int y = y0 + 1; y < y1; y++) {
+                            Arrays.fill(data, y * width + x0 + 1, y * width + x1, value);
+                        }
+                        return;
+                    }
+
+                    Job job = prototype.region(x0, x1 + 1, y0, y1 + 1);
+                    jobs.add(job);
+
+                    if (x1 - x0 >= y1 - y0) {
+                        int xmid = (x0 + x1) / 2;
+                        for (int y = y0 + 1; y < y1; y++) {
+                            data[y * width + xmid] = job.computePixel(xmid, y);
+                        }
+                        invokeAll(
+                            new SubdivisionAction(x0, xmid, y0, y1),
+                            new SubdivisionAction(xmid, x1, y0, y1)
+                        );
+                    } else {
+                        int ymid = (y0 + y1) / 2;
+                        for (int x = x0 + 1; x < x1; x++) {
+                            data[ymid * width + x] = job.computePixel(x, ymid);
+                        }
+                        invokeAll(
+                            new SubdivisionAction(x0, x1, y0, ymid),
+                            new SubdivisionAction(x0, x1, ymid, y1)
+                        );
                     }
                 }
 
-                return null;
+                /**
+                 * Returns true if every border pixel of this rectangle has the
+                 * specified color index.
+                 *
+                 * @param value the color index to be checked
+                 * @return true if the whole border has the specified value
+                 */
+                private boolean isBorderUniform(short value) {
+                    for (int x = x0; x <= x1; x++) {
+                        if (data[y0 * width + x] != value || data[y1 * width + x] != value) {
+                            return false;
+                        }
+                    }
+                    for (int y = y0 + 1; y < y1; y++) {
+                        if (data[y * width + x0] != value || data[y * width + x1] != value) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+            }
+
+            // the border of the whole image is computed upfront
+            Job job = prototype.region(0, width, 0, height);
+            jobs.add(job);
+            for (int x = 0; x < width; x++) {
+                data[x] = job.computePixel(x, 0);
+                data[(height - 1) * width + x] = job.computePixel(x, height - 1);
+            }
+            for (int y = 1; y < height - 1; y++) {
+                data[y * width] = job.computePixel(0, y);
+                data[y * width + width - 1] = job.computePixel(width - 1, y);
             }
 
+            forkJoinPool.invoke(new SubdivisionAction(0, width - 1, 0, height - 1));
+
+            return jobs;
         }
 
         /**
-         * This class implements the {@linkplain ThreadFactory} interface and
-         * represents an object that creates new daemon threads on demand.
+         * Fills the image of the specified <tt>prototype</tt> job by shifting
+         * the pixels of the <tt>previous</tt> frame into place and computing
+         * only the newly exposed strips along the edges. The pixel
+         * <tt>(x, y)</tt> of the image is the pixel <tt>(x + shiftX,
+         * y + shiftY)</tt> of the previous frame. Returns the jobs that were
+         * run.
+         *
+         * @param prototype job that covers the whole image
+         * @param previous the previous frame
+         * @param shiftX horizontal shift of the image in pixels
+         * @param shiftY vertical shift of the image in pixels
+         * @return the jobs that were run
+         */
+        private Collection<Job> producePanned(Job prototype, Frame previous, int shiftX, int shiftY) {
+            int width = prototype.width;
+            int height = prototype.height;
+
+            // the part of the image that was in the previous frame
+            int left = Math.max(0, -shiftX);
+            int right = Math.min(width, width - shiftX);
+            int top = Math.max(0, -shiftY);
+            int bottom = Math.min(height, height - shiftY);
+
+            for (int y = top; y < bottom; y++) {
+                System.arraycopy(previous.data, (y + shiftY) * width + left + shiftX,
+                        prototype.data, y * width + left, right - left);
+            }
+
+            Collection<Job> jobs = new ArrayList<>();
+            if (top > 0) {
+                jobs.addAll(schedule(prototype.region(0, width, 0, top)));
+            }
+            if (bottom < height) {
+                jobs.addAll(schedule(prototype.region(0, width, bottom, height)));
+            }
+            if (left > 0) {
+                jobs.addAll(schedule(prototype.region(0, left, top, bottom)));
+            }
+            if (right < width) {
+                jobs.addAll(schedule(prototype.region(right, width, top, bottom)));
+            }
+            return jobs;
+        }
+
+        /**
+         * Fills the image of the specified <tt>prototype</tt> job with tiles
+         * of <tt>tileSize</tt> by <tt>tileSize</tt> pixels taken from the
+         * tile cache, and computes the missing tiles on the work-stealing
+         * pool. Returns the jobs that were run.
          * <p>
-         * The daemon threads are used so that the program running them can be
-         * terminated completely, without waiting for these threads to finish.
+         * The tiles belong to a grid of pixels that covers the whole complex
+         * plane with the same spacing as the image, so that the image is
+         * always aligned to it. The grid is shifted by the fraction of a
+         * pixel at which the image starts, so that the pixels are computed
+         * at the same points as they would be without the cache, up to the
+         * rounding of the last bits. Two images share their tiles if they
+         * have the same spacing and start at the same fraction of a pixel, as
+         * happens when returning to a previous view or when the image is
+         * moved by whole pixels.
+         * <p>
+         * Since a point of the grid may differ from the point of the same
+         * pixel computed without the cache in the last bits, and a tile may
+         * have been computed for an image whose spacing differs in the bits
+         * ignored by the {@linkplain TileKey}, a pixel whose point lies
+         * close to a boundary between the basins may get a different color
+         * index than without the cache. Pixels inside the basins are equal.
          *
-         * @author Mario Bobic
+         * @param prototype job that covers the whole image
+         * @return the jobs that were run
          */
-        static class DaemonicThreadFactory implements ThreadFactory {
+        private Collection<Job> produceCached(Job prototype) {
+            int width = prototype.width;
+            int height = prototype.height;
+            double spacingRe = (prototype.reMax - prototype.reMin) / (width - 1.0);
+            double spacingIm = (prototype.imMax - prototype.imMin) / (height - 1.0);
 
-            @Override
-            public Thread newThread(Runnable runnable) {
-                Thread thread = new Thread(runnable);
-                thread.setDaemon(true);
-                return thread;
+            // the grid pixel (gx, gy) is at ((gx + phaseRe) * spacingRe, -(gy + phaseIm) * spacingIm)
+            double startRe = prototype.reMin / spacingRe;
+            double startIm = -prototype.imMax / spacingIm;
+            long gx0 = Math.round(startRe);
+            long gy0 = Math.round(startIm);
+            double phaseRe = startRe - gx0;
+            double phaseIm = startIm - gy0;
+
+            long tx0 = Math.floorDiv(gx0, tileSize);
+            long ty0 = Math.floorDiv(gy0, tileSize);
+            long tx1 = Math.floorDiv(gx0 + width - 1, tileSize);
+            long ty1 = Math.floorDiv(gy0 + height - 1, tileSize);
+
+            Map<TileKey, short[]> tiles = new LinkedHashMap<>();
+            List<Job> missing = new ArrayList<>();
+
+            for (long ty = ty0; ty <= ty1; ty++) {
+                for (long tx = tx0; tx <= tx1; tx++) {
+                    TileKey key = new TileKey(spacingRe, spacingIm, phaseRe, phaseIm, tx, ty);
+                    short[] tile = cache.get(key);
+
+                    if (tile == null) {
+                        tile = new short[tileSize * tileSize];
+
+                        double tileReMin = (tx * tileSize + phaseRe) * spacingRe;
+                        double tileImMax = -(ty * tileSize + phaseIm) * spacingIm;
+                        Job job = new Job(tileReMin, tileReMin + (tileSize - 1) * spacingRe,
+                                tileImMax - (tileSize - 1) * spacingIm, tileImMax,
+                                tileSize, tileSize, 0, tileSize, 0, tileSize, tile, prototype.request);
+                        missing.add(job.onGrid(tx * tileSize, ty * tileSize, phaseRe, phaseIm, spacingRe, spacingIm));
+                    }
+                    tiles.put(key, tile);
+                }
+            }
+
+            forkJoinPool.invokeAll(missing);
+
+            // a cancelled job may have left its tile unfinished
+            if (prototype.request.isCancelled()) {
+                return missing;
+            }
+
+            for (Map.Entry<TileKey, short[]> entry : tiles.entrySet()) {
+                TileKey key = entry.getKey();
+                short[] tile = entry.getValue();
+                cache.put(key, tile);
+
+                // the part of the tile inside the image
+                long left = Math.max(gx0, key.tileX * tileSize);
+                long right = Math.min(gx0 + width, (key.tileX + 1) * tileSize);
+                long top = Math.max(gy0, key.tileY * tileSize);
+                long bottom = Math.min(gy0 + height, (key.tileY + 1) * tileSize);
+
+                for (long gy = top; gy < bottom; gy++) {
+                    System.arraycopy(tile, (int) ((gy - key.tileY * tileSize) * tileSize + left - key.tileX * tileSize),
+                            prototype.data, (int) ((gy - gy0) * width + left - gx0), (int) (right - left));
+                }
+            }
+
+            return missing;
+        }
+
+        /**
+         * Computes the image pixel by pixel and prints out the number of
+         * pixels in which it differs from the specified <tt>data</tt> produced
+         * by the {@linkplain Scheduler#SUBDIVISION} scheduler or by the
+         * symmetry of the roots.
+         *
+         * @param reMin minimum value of the real part of a complex number
+         * @param reMax maximum value of the real part of a complex number
+         * @param imMin minimum value of the imaginary part of a complex number
+         * @param imMax maximum value of the imaginary part of a complex number
+         * @param width width of the image
+         * @param height height of the image
+         * @param data array with the color index data to be verified
+         * @param request request whose cancellation stops the jobs
+         */
+        private void verifyImage(double reMin, double reMax, double imMin, double imMax,
+                int width, int height, short[] data, Request request) {
+
+            short[] expected = new short[width * height];
+            produceTiles(new Job(reMin, reMax, imMin, imMax, width, height, 0, width, 0, height, expected, request));
+            if (request.isCancelled()) {
+                return;
+            }
+
+            int differences = 0;
+            for (int i = 0; i < data.length; i++) {
+                if (data[i] != expected[i]) {
+                    differences++;
+                }
+            }
+
+            System.out.println("Image differs from brute force in "
+                    + differences + " of " + data.length + " pixels.");
+        }
+
+        /**
+         * Prints out the number of pixels that ended their iteration through
+         * each of the {@linkplain Exit exits}, summed over all specified jobs.
+         *
+         * @param jobs jobs whose exits are to be printed out
+         */
+        private static void printExits(Collection<Job> jobs) {
+            long[] total = new long[Exit.values().length];
+            for (Job job : jobs) {
+                for (int i = 0; i < total.length; i++) {
+                    total[i] += job.exits[i];
+                }
             }
 
+            StringBuilder sb = new StringBuilder("Iteration exits:");
+            for (Exit exit : Exit.values()) {
+                sb.append(' ').append(exit).append('=').append(total[exit.ordinal()]);
+            }
+            System.out.println(sb);
         }
 
+        /**
+         * This class tracks a single call of the {@linkplain #produce} method.
+         * When a request is cancelled, its jobs stop at the start of the next
+         * row and its result is never delivered to the observer.
+         *
+         * @author Mario Bobic
+         */
+        static class Request {
+            /** Number of this request. */
+            private final long requestNo;
+            /** Indicates whether this request has been cancelled. */
+            private volatile boolean cancelled;
+
+            /**
+             * Constructs an instance of <tt>Request</tt> with the specified
+             * request number.
+             *
+             * @param requestNo number of this request
+             */
+            public Request(long requestNo) {
+                this.requestNo = requestNo;
+            }
+
+            /**
+             * Cancels this request.
+             */
+            public void cancel() {
+                cancelled = true;
+            }
+
+            /**
+             * Returns true if this request has been cancelled.
+             *
+             * @return true if this request has been cancelled
+             */
+            public boolean isCancelled() {
+                return cancelled;
+            }
+        }
+
+        /**
+         * This class holds an image delivered to the observer, together with
+         * the part of the complex plane it shows.
+         *
+         * @author Mario Bobic
+         */
+        static class Frame {
+            /** Minimum value of the real part of a complex number. */
+            private final double reMin;
+            /** Maximum value of the real part of a complex number. */
+            private final double reMax;
+            /** Minimum value of the imaginary part of a complex number. */
+            private final double imMin;
+            /** Maximum value of the imaginary part of a complex number. */
+            private final double imMax;
+            /** Width of the image. */
+            private final int width;
+            /** Height of the image. */
+            private final int height;
+            /** Color index data of the image, which must not be modified. */
+            private final short[] data;
+
+            /**
+             * Constructs an instance of <tt>Frame</tt> with the specified
+             * parameters.
+             *
+             * @param reMin minimum value of the real part of a complex number
+             * @param reMax maximum value of the real part of a complex number
+             * @param imMin minimum value of the imaginary part of a complex number
+             * @param imMax maximum value of the imaginary part of a complex number
+             * @param width width of the image
+             * @param height height of the image
+             * @param data color index data of the image
+             */
+            public Frame(double reMin, double reMax, double imMin, double imMax,
+                    int width, int height, short[] data) {
+                this.reMin = reMin;
+                this.reMax = reMax;
+                this.imMin = imMin;
+                this.imMax = imMax;
+                this.width = width;
+                this.height = height;
+                this.data = data;
+            }
+
+            /**
+             * Returns the shift <tt>{shiftX, shiftY}</tt> in pixels, such
+             * that the pixel <tt>(x, y)</tt> of the image with the specified
+             * parameters is the pixel <tt>(x + shiftX, y + shiftY)</tt> of
+             * this frame. Returns <tt>null</tt> if the image is not this frame
+             * moved by whole pixels, up to <tt>phaseThreshold</tt>, or if they
+             * do not overlap.
+             *
+             * @param reMin minimum value of the real part of a complex number
+             * @param reMax maximum value of the real part of a complex number
+             * @param imMin minimum value of the imaginary part of a complex number
+             * @param imMax maximum value of the imaginary part of a complex number
+             * @param width width of the image
+             * @param height height of the image
+             * @return the shift in pixels, or <tt>null</tt>
+             */
+            public int[] shiftTo(double reMin, double reMax, double imMin, double imMax,
+                    int width, int height) {
+                if (width != this.width || height != this.height) {
+                    return null;
+                }
+
+                double spacingRe = (this.reMax - this.reMin) / (width - 1.0);
+                double spacingIm = (this.imMax - this.imMin) / (height - 1.0);
+                double shiftX = (reMin - this.reMin) / spacingRe;
+                double shiftY = (this.imMax - imMax) / spacingIm;
+                long x = Math.round(shiftX);
+                long y = Math.round(shiftY);
+
+                // any comparison with NaN is false, so NaN is regarded as not aligned
+                boolean aligned =
+                        Math.abs((reMax - reMin) / spacingRe - (width - 1)) <= phaseThreshold
+                        && Math.abs((imMax - imMin) / spacingIm - (height - 1)) <= phaseThreshold
+                        && Math.abs(shiftX - x) <= phaseThreshold
+                        && Math.abs(shiftY - y) <= phaseThreshold;
+
+                if (!aligned || Math.abs(x) >= width || Math.abs(y) >= height) {
+                    return null;
+                }
+                return new int[] {(int) x, (int) y};
+            }
+        }
+
+        /**
+         * This class is the key of a tile in the tile cache. A tile is
+         * identified by the spacing of the pixel grid it belongs to, the
+         * fraction of a pixel the grid is shifted by and its coordinates in
+         * the grid. The shift is compared with the precision of
+         * <tt>phaseThreshold</tt> and the spacing without its lowest
+         * <tt>SPACING_BITS</tt> mantissa bits, so that the rounding errors of
+         * the image bounds do not matter.
+         * <p>
+         * Every producer caches the tiles of its own roots and kernel only,
+         * so these are not a part of the key.
+         *
+         * @author Mario Bobic
+         */
+        static class TileKey {
+            /** Bits of the distance between the pixels along the real axis. */
+            private final long spacingRe;
+            /** Bits of the distance between the pixels along the imaginary axis. */
+            private final long spacingIm;
+            /** Shift of the grid along the real axis, in units of phaseThreshold. */
+            private final long phaseRe;
+            /** Shift of the grid along the imaginary axis, in units of phaseThreshold. */
+            private final long phaseIm;
+            /** The x coordinate of the tile in the grid. */
+            private final long tileX;
+            /** The y coordinate of the tile in the grid. */
+            private final long tileY;
+
+            /**
+             * Constructs an instance of <tt>TileKey</tt> with the specified
+             * parameters.
+             *
+             * @param spacingRe distance between the pixels along the real axis
+             * @param spacingIm distance between the pixels along the imaginary axis
+             * @param phaseRe shift of the grid along the real axis, in pixels
+             * @param phaseIm shift of the grid along the imaginary axis, in pixels
+             * @param tileX the x coordinate of the tile in the grid
+             * @param tileY the y coordinate of the tile in the grid
+             */
+            public TileKey(double spacingRe, double spacingIm, double phaseRe, double phaseIm,
+                    long tileX, long tileY) {
+                this.spacingRe = Double.doubleToLongBits(spacingRe) >>> SPACING_BITS;
+                this.spacingIm = Double.doubleToLongBits(spacingIm) >>> SPACING_BITS;
+                this.phaseRe = Math.round(phaseRe / phaseThreshold);
+                this.phaseIm = Math.round(phaseIm / phaseThreshold);
+                this.tileX = tileX;
+                this.tileY = tileY;
+            }
+
+            @Override
+            public int hashCode() {
+                final int prime = 31;
+                int result = 1;
+                result = prime * result + (int) (spacingRe ^ (spacingRe >>> 32));
+                result = prime * result + (int) (spacingIm ^ (spacingIm >>> 32));
+                result = prime * result + (int) (phaseRe ^ (phaseRe >>> 32));
+                result = prime * result + (int) (phaseIm ^ (phaseIm >>> 32));
+                result = prime * result + (int) (tileX ^ (tileX >>> 32));
+                result = prime * result + (int) (tileY ^ (tileY >>> 32));
+                return result;
+            }
+
+            @Override
+            public boolean equals(Object obj) {
+                if (this == obj)
+                    return true;
+                if (obj == null)
+                    return false;
+                if (!(obj instanceof TileKey))
+                    return false;
+                TileKey other = (TileKey) obj;
+                if (spacingRe != other.spacingRe || spacingIm != other.spacingIm)
+                    return false;
+                if (phaseRe != other.phaseRe || phaseIm != other.phaseIm)
+                    return false;
+                if (tileX != other.tileX || tileY != other.tileY)
+                    return false;
+                return true;
+            }
+        }
+
+        /**
+         * Ways in which the iteration of a pixel may end. Only the
+         * {@linkplain Kernel#ROOTED}, {@linkplain Kernel#LANES} and
+         * {@linkplain Kernel#DOUBLE_DOUBLE} kernels record their exits.
+         *
+         * @author Mario Bobic
+         */
+        enum Exit {
+            /** The step became smaller than the convergence threshold. */
+            CONVERGED,
+            /** The point entered a guaranteed convergence disk. */
+            DISK,
+            /** The maximum number of iterations was reached. */
+            MAX_ITERS,
+            /** The orbit returned to a previously saved point. */
+            CYCLE,
+            /** The point got too far to return to any of the roots. */
+            DIVERGED,
+            /** The derivative vanished. */
+            DERIVATIVE
+        }
+
+        /**
+         * This class implements the {@linkplain Callable} interface and
+         * represents a job that fills the array of <tt>short</tt> integers with
+         * color indexes until it reached a predefined number of iterations or
+         * until the convergence threshold becomes adequately small.
+         *
+         * @author Mario Bobic
+         */
+        class Job implements Callable<Void> {
+            /** Minimum value of the real part of a complex number. */
+            private double reMin;
+            /** Maximum value of the real part of a complex number. */
+            private double reMax;
+            /** Minimum value of the imaginary part of a complex number. */
+            private double imMin;
+            /** Maximum value of the imaginary part of a complex number. */
+            private double imMax;
+
+            /** Width of the image where this job produces fractals. */
+            private int width;
+            /** Height of the image where this job produces fractals. */
+            private int height;
+            /** The starting x coordinate of producing. */
+            private int xmin;
+            /** The ending x coordinate of producing. */
+            private int xmax;
+            /** The starting y coordinate of producing. */
+            private int ymin;
+            /** The ending y coordinate of producing. */
+            private int ymax;
+
+            /** Array that contains color index data. */
+            private short[] data;
+            /** Request whose cancellation stops this job. */
+            private Request request;
+            /** Distance between the computed pixels. */
+            private int step;
+            /** Distance between the pixels computed by the previous pass, or 0. */
+            private int previousStep;
+            /** Symmetries that map the pixels, see {@linkplain #findGridSymmetries()}. */
+            private int[][] gridSymmetries;
+            /** Indicates whether the pixels are mapped rather than computed. */
+            private boolean fill;
+            /** Indicates whether the {@linkplain Kernel#DOUBLE_DOUBLE} kernel is used. */
+            private final boolean deep;
+            /** Indicates whether the pixels are placed on a grid, see {@linkplain #onGrid}. */
+            private boolean gridded;
+            /** Grid x coordinate of the pixel column 0. */
+            private long gridX;
+            /** Grid y coordinate of the pixel row 0. */
+            private long gridY;
+            /** Shift of the grid along the real axis, in pixels. */
+            private double phaseRe;
+            /** Shift of the grid along the imaginary axis, in pixels. */
+            private double phaseIm;
+            /** Distance between the pixels of the grid along the real axis. */
+            private double spacingRe;
+            /** Distance between the pixels of the grid along the imaginary axis. */
+            private double spacingIm;
+
+            /** Reusable storage for the polynomial value. */
+            private final double[] numerator = new double[2];
+            /** Reusable storage for the derivative value. */
+            private final double[] denominator = new double[2];
+            /** Reusable storage for the polynomial and derivative values or the step. */
+            private final double[] values = new double[4];
+            /** Reusable point of the {@linkplain Kernel#MUTABLE} kernel. */
+            private final MutableComplex point = new MutableComplex();
+            /** Reusable polynomial value of the {@linkplain Kernel#MUTABLE} kernel. */
+            private final MutableComplex value = new MutableComplex();
+            /** Reusable derivative value of the {@linkplain Kernel#MUTABLE} kernel. */
+            private final MutableComplex derivative = new MutableComplex();
+            /** Number of pixels per {@linkplain Exit exit}, indexed by ordinal. */
+            private final long[] exits = new long[Exit.values().length];
+            /**
+             * Point, saved point, step module, step and distance to the
+             * closest root of each lane, see {@linkplain #computeLanes}.
+             */
+            private final double[][] laneValues;
+            /**
+             * Index of the closest root, pixel, iteration and checkpoint of
+             * each lane, see {@linkplain #computeLanes}.
+             */
+            private final int[][] laneIndexes;
+
+            /**
+             * Constructs an instance of a <tt>Job</tt> object with the
+             * specified parameters.
+             *
+             * @param reMin minimum value of the real part of a complex number
+             * @param reMax maximum value of the real part of a complex number
+             * @param imMin minimum value of the imaginary part of a complex number
+             * @param imMax maximum value of the imaginary part of a complex number
+             * @param width width of the image where this job produces fractals
+             * @param height height of the image where this job produces fractals
+             * @param xmin the starting x coordinate of producing
+             * @param xmax the ending x coordinate of producing
+             * @param ymin the starting y coordinate of producing
+             * @param ymax the ending y coordinate of producing
+             * @param data array where the color index data will be stored
+             * @param request request whose cancellation stops this job
+             */
+            public Job(double reMin, double reMax, double imMin, double imMax,
+                    int width, int height, int xmin, int xmax, int ymin, int ymax,
+                    short[] data, Request request) {
+                this(reMin, reMax, imMin, imMax, width, height, xmin, xmax, ymin, ymax, data, request, 1, 0);
+            }
+
+            /**
+             * Constructs an instance of a <tt>Job</tt> object that computes only
+             * every <tt>step</tt>-th pixel in both directions and fills the
+             * rest of its <tt>step</tt> by <tt>step</tt> block with the same
+             * color index. Pixels at multiples of <tt>previousStep</tt> were
+             * already computed by a coarser pass, so they are skipped.
+             *
+             * @param reMin minimum value of the real part of a complex number
+             * @param reMax maximum value of the real part of a complex number
+             * @param imMin minimum value of the imaginary part of a complex number
+             * @param imMax maximum value of the imaginary part of a complex number
+             * @param width width of the image where this job produces fractals
+             * @param height height of the image where this job produces fractals
+             * @param xmin the starting x coordinate of producing
+             * @param xmax the ending x coordinate of producing
+             * @param ymin the starting y coordinate of producing
+             * @param ymax the ending y coordinate of producing
+             * @param data array where the color index data will be stored
+             * @param request request whose cancellation stops this job
+             * @param step distance between the computed pixels
+             * @param previousStep distance between the pixels computed by the
+             *        previous pass, or 0 if there was none
+             */
+            public Job(double reMin, double reMax, double imMin, double imMax,
+                    int width, int height, int xmin, int xmax, int ymin, int ymax,
+                    short[] data, Request request, int step, int previousStep) {
+                this.reMin = reMin;
+                this.reMax = reMax;
+                this.imMin = imMin;
+                this.imMax = imMax;
+                this.width = width;
+                this.height = height;
+                this.xmin = xmin;
+                this.xmax = xmax;
+                this.ymin = ymin;
+                this.ymax = ymax;
+                this.data = data;
+                this.request = request;
+                this.step = step;
+                this.previousStep = previousStep;
+                this.deep = isDeepZoom(reMin, reMax, imMin, imMax, width, height);
+
+                int laneCount = kernel == Kernel.LANES ? lanes : 0;
+                this.laneValues = new double[8][laneCount];
+                this.laneIndexes = new int[4][laneCount];
+            }
+
+            /**
+             * Returns a new job with the same parameters as this one, which
+             * produces the specified part of the image.
+             *
+             * @param xmin the starting x coordinate of producing
+             * @param xmax the ending x coordinate of producing
+             * @param ymin the starting y coordinate of producing
+             * @param ymax the ending y coordinate of producing
+             * @return a job that produces the specified part of the image
+             */
+            private Job region(int xmin, int xmax, int ymin, int ymax) {
+                Job job = new Job(reMin, reMax, imMin, imMax, width, height, xmin, xmax, ymin, ymax,
+                        data, request, step, previousStep);
+                job.gridSymmetries = gridSymmetries;
+                job.fill = fill;
+                return job;
+            }
+
+            /**
+             * Places the pixels of this job on a grid that covers the whole
+             * complex plane, where the pixel <tt>(x, y)</tt> of this job is
+             * at the point <tt>((gridX + x + phaseRe) * spacingRe,
+             * -(gridY + y + phaseIm) * spacingIm)</tt>, instead of spreading
+             * them evenly between the bounds of this job. Returns this job.
+             * <p>
+             * The tile cache computes its tiles on such a grid, so that a
+             * tile has the same points whichever image it is computed for,
+             * and a tile of a single pixel still has a point.
+             *
+             * @param gridX grid x coordinate of the pixel column 0
+             * @param gridY grid y coordinate of the pixel row 0
+             * @param phaseRe shift of the grid along the real axis, in pixels
+             * @param phaseIm shift of the grid along the imaginary axis, in pixels
+             * @param spacingRe distance between the pixels along the real axis
+             * @param spacingIm distance between the pixels along the imaginary axis
+             * @return this job
+             */
+            private Job onGrid(long gridX, long gridY, double phaseRe, double phaseIm,
+                    double spacingRe, double spacingIm) {
+                this.gridded = true;
+                this.gridX = gridX;
+                this.gridY = gridY;
+                this.phaseRe = phaseRe;
+                this.phaseIm = phaseIm;
+                this.spacingRe = spacingRe;
+                this.spacingIm = spacingIm;
+                return this;
+            }
+
+            /**
+             * Returns a new job with the same parameters as this one, which
+             * uses the specified symmetries of the pixel grid. If <tt>fill</tt>
+             * is false, the job computes only the pixels that can not be
+             * mapped from other pixels, otherwise it maps the remaining ones
+             * from the pixels computed before.
+             *
+             * @param gridSymmetries symmetries of the pixel grid
+             * @param fill true if the pixels are to be mapped
+             * @return a job that uses the specified symmetries
+             */
+            private Job withSymmetries(int[][] gridSymmetries, boolean fill) {
+                Job job = region(xmin, xmax, ymin, ymax);
+                job.gridSymmetries = gridSymmetries;
+                job.fill = fill;
+                return job;
+            }
+
+            /**
+             * Finds the elements of the {@linkplain #symmetry symmetry of the
+             * roots} that map every pixel of the image exactly onto a pixel,
+             * which happens for reflections over the pixel rows and columns
+             * and for rotations by multiples of <tt>&pi;/2</tt>, if the image
+             * is centered accordingly. Other elements would map pixels between
+             * pixels, where the color index may differ on the boundaries of
+             * the basins, so they are not used.
+             * <p>
+             * Each element is returned as an array <tt>{inverse, a, b, e, c,
+             * d, f}</tt>, where the element maps the pixel <tt>(x, y)</tt> to
+             * the pixel <tt>(ax + by + e, cx + dy + f)</tt> and
+             * <tt>inverse</tt> is the index of its inverse element.
+             *
+             * @return symmetries of the pixel grid
+             */
+            private int[][] findGridSymmetries() {
+                List<int[]> maps = new ArrayList<>();
+
+                for (int element = 1; element < symmetry.size(); element++) {
+                    double[] origin = transformPixel(element, 0, 0);
+                    double[] right = transformPixel(element, 1, 0);
+                    double[] down = transformPixel(element, 0, 1);
+
+                    double[] coefficients = {
+                        right[0] - origin[0], down[0] - origin[0], origin[0],
+                        right[1] - origin[1], down[1] - origin[1], origin[1]
+                    };
+                    int[] map = new int[7];
+                    map[0] = symmetry.inverse(element);
+                    for (int i = 0; i < coefficients.length; i++) {
+                        map[i+1] = (int) Math.round(coefficients[i]);
+                    }
+
+                    // the error of an affine map is the greatest in a corner
+                    boolean exact = true;
+                    for (int corner = 0; corner < 4 && exact; corner++) {
+                        int x = corner % 2 * (width - 1);
+                        int y = corner / 2 * (height - 1);
+                        for (int i = 0; i < 6; i += 3) {
+                            double error = (coefficients[i] - map[i+1]) * x
+                                    + (coefficients[i+1] - map[i+2]) * y
+                                    + (coefficients[i+2] - map[i+3]);
+                            exact &= Math.abs(error) <= gridThreshold;
+                        }
+                    }
+
+                    if (exact) {
+                        maps.add(map);
+                    }
+                }
+
+                return maps.toArray(new int[maps.size()][]);
+            }
+
+            /**
+             * Applies the specified <tt>element</tt> of the
+             * {@linkplain #symmetry symmetry of the roots} to the point of the
+             * pixel <tt>(x, y)</tt> and returns the pixel coordinates of the
+             * transformed point, which are not necessarily integers.
+             *
+             * @param element index of the element
+             * @param x x coordinate of the pixel
+             * @param y y coordinate of the pixel
+             * @return pixel coordinates of the transformed point
+             */
+            private double[] transformPixel(int element, int x, int y) {
+                double[] point = new double[2];
+                symmetry.apply(element, toRe(x), toIm(y), point);
+
+                return new double[] {
+                    (point[0] - reMin) * (width - 1.0) / (reMax - reMin),
+                    height - 1.0 - (point[1] - imMin) * (height - 1.0) / (imMax - imMin)
+                };
+            }
+
+            @Override
+            public Void call() {
+                if (gridSymmetries != null) {
+                    callSymmetric();
+                    return null;
+                }
+
+                if (step == 1 && previousStep == 0) {
+                    for (int y = ymin; y < ymax; y++) {
+                        if (request.isCancelled()) {
+                            return null;
+                        }
+
+                        int offset = y * width + xmin;
+
+                        if (kernel == Kernel.LANES && !deep) {
+                            computeLanes(y, offset);
+                            continue;
+                        }
+
+                        for (int x = xmin; x < xmax; x++) {
+                            data[offset++] = computePixel(x, y);
+                        }
+                    }
+                    return null;
+                }
+
+                // first multiples of step within this job
+                int xstart = (xmin + step - 1) / step * step;
+                int ystart = (ymin + step - 1) / step * step;
+
+                for (int y = ystart; y < ymax; y += step) {
+                    if (request.isCancelled()) {
+                        return null;
+                    }
+
+                    for (int x = xstart; x < xmax; x += step) {
+                        if (previousStep != 0 && x % previousStep == 0 && y % previousStep == 0) {
+                            continue; // computed by the previous pass
+                        }
+
+                        short value = computePixel(x, y);
+
+                        // the block may stick out of this job, but it belongs to this pixel only
+                        int blockWidth = Math.min(step, width - x);
+                        int blockHeight = Math.min(step, height - y);
+                        for (int by = 0; by < blockHeight; by++) {
+                            int offset = (y + by) * width + x;
+                            Arrays.fill(data, offset, offset + blockWidth, value);
+                        }
+                    }
+                }
+
+                return null;
+            }
+
+            /**
+             * Fills the pixels of this job using the symmetries of the pixel
+             * grid. Every pixel is transformed by each of the symmetries, and
+             * the one with the lowest offset among the transformed pixels
+             * that are in the image is the one whose color index is computed.
+             * The color indexes of other pixels are mapped from it, with the
+             * root index permuted accordingly.
+             */
+            private void callSymmetric() {
+                for (int y = ymin; y < ymax; y++) {
+                    if (request.isCancelled()) {
+                        return;
+                    }
+
+                    int offset = y * width + xmin;
+
+                    for (int x = xmin; x < xmax; x++, offset++) {
+                        int source = offset;
+                        int inverse = 0;
+
+                        for (int[] map : gridSymmetries) {
+                            int sx = map[1]*x + map[2]*y + map[3];
+                            int sy = map[4]*x + map[5]*y + map[6];
+                            if (sx < 0 || sx >= width || sy < 0 || sy >= height) continue;
+
+                            if (sy * width + sx < source) {
+                                source = sy * width + sx;
+                                inverse = map[0];
+                            }
+                        }
+
+                        if (source == offset) {
+                            if (!fill) {
+                                data[offset] = computePixel(x, y);
+                            }
+                        } else if (fill) {
+                            data[offset] = (short) (symmetry.mapIndex(inverse, data[source] - 1) + 1);
+                        }
+                    }
+                }
+            }
+
+            /**
+             * Returns the real part of the point of the pixel column <tt>x</tt>.
+             *
+             * @param x x coordinate of the pixel
+             * @return the real part of the point
+             */
+            private double toRe(int x) {
+                if (gridded) {
+                    return (gridX + x + phaseRe) * spacingRe;
+                }
+                return x * (reMax - reMin) / (width - 1.0) + reMin;
+            }
+
+            /**
+             * Returns the imaginary part of the point of the pixel row <tt>y</tt>.
+             *
+             * @param y y coordinate of the pixel
+             * @return the imaginary part of the point
+             */
+            private double toIm(int y) {
+                if (gridded) {
+                    return -(gridY + y + phaseIm) * spacingIm;
+                }
+                return (height - 1.0 - y) * (imMax - imMin) / (height - 1) + imMin;
+            }
+
+            /**
+             * Computes and returns the color index of the pixel at the
+             * specified coordinates, which is the index of the root the
+             * iteration converged to plus one, or <tt>0</tt> if there is none.
+             *
+             * @param x x coordinate of the pixel
+             * @param y y coordinate of the pixel
+             * @return the color index of the pixel
+             */
+            private short computePixel(int x, int y) {
+                if (deep) {
+                    return (short) (computeDoubleDouble(x, y) + 1);
+                }
+
+                double cre = toRe(x);
+                double cim = toIm(y);
+
+                short index;
+                switch (kernel) {
+                case ROOTED:
+                case LANES:
+                    index = computeRooted(cre, cim);
+                    break;
+                case HORNER:
+                    index = computeHorner(cre, cim);
+                    break;
+                case PRIMITIVE:
+                    index = computePrimitive(cre, cim);
+                    break;
+                case MUTABLE:
+                    index = computeMutable(cre, cim);
+                    break;
+                default:
+                    index = computeComplex(cre, cim);
+                }
+                return (short) (index + 1);
+            }
+
+            /**
+             * Iterates from the point <tt>cre + cim*i</tt> using immutable
+             * {@linkplain Complex} objects and returns the index of the root
+             * the iteration converged to, or <tt>-1</tt> if there is none.
+             *
+             * @param cre real part of the starting point
+             * @param cim imaginary part of the starting point
+             * @return index of the closest root, or <tt>-1</tt>
+             */
+            private short computeComplex(double cre, double cim) {
+                Complex zn = new Complex(cre, cim);
+
+                int i = 0;
+                double module;
+                Complex zn1;
+                do {
+                    Complex numerator = polynomial.apply(zn);
+                    Complex denominator = derived.apply(zn);
+                    Complex fraction = numerator.divide(denominator);
+                    zn1 = zn.sub(fraction);
+                    module = zn1.sub(zn).module();
+                    zn = zn1;
+                    i++;
+                } while (module > convergenceThreshold && i < MAX_ITERS);
+
+                return (short) rootedPolynomial.indexOfClosestRootFor(zn1, rootThreshold);
+            }
+
+            /**
+             * Iterates from the point <tt>cre + cim*i</tt> using primitive
+             * <tt>double</tt> values only and returns the index of the root
+             * the iteration converged to, or <tt>-1</tt> if there is none.
+             * <p>
+             * The floating-point operations are the same as the ones done by
+             * {@linkplain #computeComplex(double, double)}, so the results are
+             * identical. The only exception is a vanishing derivative, where
+             * this method returns <tt>-1</tt> instead of throwing an
+             * {@linkplain ArithmeticException}.
+             *
+             * @param cre real part of the starting point
+             * @param cim imaginary part of the starting point
+             * @return index of the closest root, or <tt>-1</tt>
+             */
+            private short computePrimitive(double cre, double cim) {
+                double znRe = cre;
+                double znIm = cim;
+
+                int i = 0;
+                double module;
+                do {
+                    polynomial.apply(znRe, znIm, numerator);
+                    derived.apply(znRe, znIm, denominator);
+
+                    // numerator / denominator, same as Complex.divide
+                    double denominatorRe = denominator[0];
+                    double denominatorIm = denominator[1];
+                    double divisor = denominatorRe*denominatorRe - denominatorIm*(-denominatorIm);
+                    if (Math.abs(divisor) < ZERO_LIMIT) {
+                        return -1;
+                    }
+                    double fractionRe = (numerator[0]*denominatorRe - numerator[1]*(-denominatorIm)) / divisor;
+                    double fractionIm = (numerator[1]*denominatorRe + numerator[0]*(-denominatorIm)) / divisor;
+
+                    double zn1Re = znRe - fractionRe;
+                    double zn1Im = znIm - fractionIm;
+                    module = Math.hypot(zn1Re - znRe, zn1Im - znIm);
+                    znRe = zn1Re;
+                    znIm = zn1Im;
+                    i++;
+                } while (module > convergenceThreshold && i < MAX_ITERS);
+
+                return (short) rootedPolynomial.indexOfClosestRootFor(znRe, znIm, rootThreshold);
+            }
+
+            /**
+             * Iterates from the point <tt>cre + cim*i</tt> using the
+             * {@linkplain CompiledComplexPolynomial compiled polynomial}, which
+             * evaluates the polynomial and its derivative in a single pass,
+             * and returns the index of the root the iteration converged to,
+             * or <tt>-1</tt> if there is none.
+             *
+             * @param cre real part of the starting point
+             * @param cim imaginary part of the starting point
+             * @return index of the closest root, or <tt>-1</tt>
+             */
+            private short computeHorner(double cre, double cim) {
+                double znRe = cre;
+                double znIm = cim;
+
+                int i = 0;
+                double module;
+                do {
+                    compiled.apply(znRe, znIm, values);
+
+                    double divisor = values[2]*values[2] + values[3]*values[3];
+                    if (divisor < ZERO_LIMIT) {
+                        return -1;
+                    }
+                    double fractionRe = (values[0]*values[2] + values[1]*values[3]) / divisor;
+                    double fractionIm = (values[1]*values[2] - values[0]*values[3]) / divisor;
+
+                    znRe -= fractionRe;
+                    znIm -= fractionIm;
+                    module = Math.hypot(fractionRe, fractionIm);
+                    i++;
+                } while (module > convergenceThreshold && i < MAX_ITERS);
+
+                return (short) rootedPolynomial.indexOfClosestRootFor(znRe, znIm, rootThreshold);
+            }
+
+            /**
+             * Iterates from the point <tt>cre + cim*i</tt> the same way as the
+             * {@linkplain #computeHorner(double, double)} method, but using
+             * the {@linkplain MutableComplex} objects of this job, so no
+             * objects are created, and returns the index of the root the
+             * iteration converged to, or <tt>-1</tt> if there is none.
+             *
+             * @param cre real part of the starting point
+             * @param cim imaginary part of the starting point
+             * @return index of the closest root, or <tt>-1</tt>
+             */
+            private short computeMutable(double cre, double cim) {
+                MutableComplex zn = point.set(cre, cim);
+
+                int i = 0;
+                double module;
+                do {
+                    polynomial.apply(zn, value, derivative);
+
+                    try {
+                        value.divInPlace(derivative);
+                    } catch (ArithmeticException e) {
+                        return -1;
+                    }
+
+                    zn.subInPlace(value);
+                    module = value.module();
+                    i++;
+                } while (module > convergenceThreshold && i < MAX_ITERS);
+
+                return (short) rootedPolynomial.indexOfClosestRootFor(zn.getReal(), zn.getImag(), rootThreshold);
+            }
+
+            /**
+             * Iterates from the point <tt>cre + cim*i</tt> using the
+             * Newton-Raphson step computed directly from the roots of the
+             * {@linkplain ComplexRootedPolynomial}, and returns the index of
+             * the root the iteration converged to, or <tt>-1</tt> if there is
+             * none.
+             * <p>
+             * The step at the last point also yields the closest root and its
+             * distance, so no separate search for the closest root is needed.
+             * The iteration stops as soon as the point enters a guaranteed
+             * convergence disk of its closest root, so a pixel that starts
+             * inside such a disk is classified without iterating.
+             * <p>
+             * Orbits that can not end in a root are cut short and get the index
+             * <tt>-1</tt>. These are the orbits that return to a point saved
+             * at an iteration that is a power of two (Brent's cycle
+             * detection), that get outside of the
+             * {@linkplain #computeEscapeRadii() escape radius} or that hit a
+             * vanishing derivative.
+             *
+             * @param cre real part of the starting point
+             * @param cim imaginary part of the starting point
+             * @return index of the closest root, or <tt>-1</tt>
+             */
+            private short computeRooted(double cre, double cim) {
+                double znRe = cre;
+                double znIm = cim;
+                double savedRe = znRe;
+                double savedIm = znIm;
+                int checkpoint = 2;
+
+                int i = 0;
+                double module = Double.POSITIVE_INFINITY;
+                while (true) {
+                    // negated comparison, so that NaN is regarded as diverged
+                    if (!(Math.max(Math.abs(znRe), Math.abs(znIm)) <= escapeRadii[i])) {
+                        return exit(Exit.DIVERGED, -1);
+                    }
+
+                    int index = rootedPolynomial.newtonStep(znRe, znIm, values);
+
+                    if (values[2] < rootedPolynomial.convergenceRadius(index)) {
+                        return exit(Exit.DISK, index);
+                    }
+                    if (module <= convergenceThreshold) {
+                        return exit(Exit.CONVERGED, values[2] > rootThreshold ? -1 : index);
+                    }
+                    if (i >= MAX_ITERS) {
+                        return exit(Exit.MAX_ITERS, values[2] > rootThreshold ? -1 : index);
+                    }
+                    if (Double.isInfinite(values[0])) {
+                        return exit(Exit.DERIVATIVE, -1);
+                    }
+
+                    if (i > 0 && Math.abs(znRe - savedRe) + Math.abs(znIm - savedIm) < cycleThreshold) {
+                        return exit(Exit.CYCLE, -1);
+                    }
+                    if (i == checkpoint) {
+                        savedRe = znRe;
+                        savedIm = znIm;
+                        checkpoint <<= 1;
+                    }
+
+                    znRe -= values[0];
+                    znIm -= values[1];
+                    module = Math.hypot(values[0], values[1]);
+                    i++;
+                }
+            }
+
+            /**
+             * Iterates from the point of the pixel at the specified coordinates
+             * the same way as the {@linkplain #computeRooted(double, double)}
+             * method, but with the point and the step in double-double
+             * precision. The point is still compared to the roots in
+             * <tt>double</tt> precision, which is enough for the thresholds.
+             *
+             * @param x x coordinate of the pixel
+             * @param y y coordinate of the pixel
+             * @return index of the closest root, or <tt>-1</tt>
+             */
+            private short computeDoubleDouble(int x, int y) {
+                DoubleDoubleComplex zn = toDoubleDouble(x, y);
+                double savedRe = zn.getReal();
+                double savedIm = zn.getImag();
+                int checkpoint = 2;
+
+                int i = 0;
+                double module = Double.POSITIVE_INFINITY;
+                while (true) {
+                    double znRe = zn.getReal();
+                    double znIm = zn.getImag();
+
+                    // negated comparison, so that NaN is regarded as diverged
+                    if (!(Math.max(Math.abs(znRe), Math.abs(znIm)) <= escapeRadii[i])) {
+                        return exit(Exit.DIVERGED, -1);
+                    }
+
+                    int index = rootedPolynomial.newtonStep(znRe, znIm, values);
+
+                    if (values[2] < rootedPolynomial.convergenceRadius(index)) {
+                        return exit(Exit.DISK, index);
+                    }
+                    if (module <= convergenceThreshold) {
+                        return exit(Exit.CONVERGED, values[2] > rootThreshold ? -1 : index);
+                    }
+                    if (i >= MAX_ITERS) {
+                        return exit(Exit.MAX_ITERS, values[2] > rootThreshold ? -1 : index);
+                    }
+
+                    DoubleDoubleComplex step = rootedPolynomial.newtonStep(zn);
+                    if (step == null) {
+                        return exit(Exit.DERIVATIVE, -1);
+                    }
+
+                    if (i > 0 && Math.abs(znRe - savedRe) + Math.abs(znIm - savedIm) < cycleThreshold) {
+                        return exit(Exit.CYCLE, -1);
+                    }
+                    if (i == checkpoint) {
+                        savedRe = znRe;
+                        savedIm = znIm;
+                        checkpoint <<= 1;
+                    }
+
+                    zn = zn.sub(step);
+                    module = step.module();
+                    i++;
+                }
+            }
+
+            /**
+             * Returns the point of the pixel at the specified coordinates in
+             * double-double precision, so that the points of neighbouring
+             * pixels differ even when their <tt>double</tt> values would not.
+             *
+             * @param x x coordinate of the pixel
+             * @param y y coordinate of the pixel
+             * @return the point of the pixel
+             */
+            private DoubleDoubleComplex toDoubleDouble(int x, int y) {
+                // the differences of the bounds are exact
+                DoubleDoubleComplex re = new DoubleDoubleComplex(reMax, -reMin, 0, 0)
+                        .multiply(x).divide(width - 1.0).add(new DoubleDoubleComplex(reMin, 0));
+                DoubleDoubleComplex im = new DoubleDoubleComplex(imMax, -imMin, 0, 0)
+                        .multiply(height - 1.0 - y).divide(height - 1.0).add(new DoubleDoubleComplex(imMin, 0));
+
+                return new DoubleDoubleComplex(re.getReal(), re.getRealLow(), im.getReal(), im.getRealLow());
+            }
+
+            /**
+             * Computes the color indexes of the pixels of row <tt>y</tt> from
+             * <tt>xmin</tt> to <tt>xmax</tt> and stores them starting at the
+             * specified <tt>offset</tt>. The pixels are iterated in the same
+             * way as by the {@linkplain #computeRooted(double, double)} method,
+             * but {@linkplain #LANES} of them at once, so that the steps of all
+             * of them are computed by a single call of the
+             * {@linkplain ComplexRootedPolynomial#newtonSteps newtonSteps}
+             * method. When the iteration of a lane ends, the lane continues
+             * with the next pixel of the row, so the lanes are kept busy until
+             * the row runs out of pixels.
+             * <p>
+             * The module of the step is computed as a plain square root rather
+             * than by <tt>Math.hypot</tt>, which may differ in the last bit.
+             *
+             * @param y y coordinate of the row
+             * @param offset offset of the pixel <tt>xmin</tt> in the data
+             */
+            private void computeLanes(int y, int offset) {
+                double[] znRe = laneValues[0];
+                double[] znIm = laneValues[1];
+                double[] savedRe = laneValues[2];
+                double[] savedIm = laneValues[3];
+                double[] modules = laneValues[4];
+                double[] stepRe = laneValues[5];
+                double[] stepIm = laneValues[6];
+                double[] distances = laneValues[7];
+                int[] indexes = laneIndexes[0];
+                int[] pixels = laneIndexes[1];
+                int[] iterations = laneIndexes[2];
+                int[] checkpoints = laneIndexes[3];
+
+                double cim = toIm(y);
+                int next = xmin;
+                int active = 0;
+                while (active < lanes && next < xmax) {
+                    startLane(active++, next++, cim);
+                }
+
+                while (active > 0) {
+                    rootedPolynomial.newtonSteps(znRe, znIm, active, stepRe, stepIm, distances, indexes);
+
+                    // backwards, so that a lane moved from the end is not iterated twice
+                    for (int l = active - 1; l >= 0; l--) {
+                        int i = iterations[l];
+                        int index = indexes[l];
+                        short result;
+
+                        if (!(Math.max(Math.abs(znRe[l]), Math.abs(znIm[l])) <= escapeRadii[i])) {
+                            result = exit(Exit.DIVERGED, -1);
+                        } else if (distances[l] < rootedPolynomial.convergenceRadius(index)) {
+                            result = exit(Exit.DISK, index);
+                        } else if (modules[l] <= convergenceThreshold) {
+                            result = exit(Exit.CONVERGED, distances[l] > rootThreshold ? -1 : index);
+                        } else if (i >= MAX_ITERS) {
+                            result = exit(Exit.MAX_ITERS, distances[l] > rootThreshold ? -1 : index);
+                        } else if (Double.isInfinite(stepRe[l])) {
+                            result = exit(Exit.DERIVATIVE, -1);
+                        } else if (i > 0 && Math.abs(znRe[l] - savedRe[l]) + Math.abs(znIm[l] - savedIm[l]) < cycleThreshold) {
+                            result = exit(Exit.CYCLE, -1);
+                        } else {
+                            if (i == checkpoints[l]) {
+                                savedRe[l] = znRe[l];
+                                savedIm[l] = znIm[l];
+                                checkpoints[l] <<= 1;
+                            }
+
+                            znRe[l] -= stepRe[l];
+                            znIm[l] -= stepIm[l];
+                            modules[l] = Math.sqrt(stepRe[l]*stepRe[l] + stepIm[l]*stepIm[l]);
+                            iterations[l] = i + 1;
+                            continue;
+                        }
+
+                        data[offset + pixels[l] - xmin] = (short) (result + 1);
+
+                        if (next < xmax) {
+                            startLane(l, next++, cim);
+                        } else {
+                            moveLane(--active, l);
+                        }
+                    }
+                }
+            }
+
+            /**
+             * Starts the iteration of pixel <tt>x</tt> of the row whose
+             * imaginary part is <tt>cim</tt> in the specified <tt>lane</tt>.
+             *
+             * @param lane lane where the iteration is started
+             * @param x x coordinate of the pixel
+             * @param cim imaginary part of the row
+             */
+            private void startLane(int lane, int x, double cim) {
+                double cre = toRe(x);
+                laneValues[0][lane] = cre;
+                laneValues[1][lane] = cim;
+                laneValues[2][lane] = cre;
+                laneValues[3][lane] = cim;
+                laneValues[4][lane] = Double.POSITIVE_INFINITY;
+                laneIndexes[1][lane] = x;
+                laneIndexes[2][lane] = 0;
+                laneIndexes[3][lane] = 2;
+            }
+
+            /**
+             * Moves the state of lane <tt>from</tt>, including its computed
+             * step, to lane <tt>to</tt>.
+             *
+             * @param from lane that is moved
+             * @param to lane where it is moved to
+             */
+            private void moveLane(int from, int to) {
+                for (double[] values : laneValues) {
+                    values[to] = values[from];
+                }
+                for (int[] values : laneIndexes) {
+                    values[to] = values[from];
+                }
+            }
+
+            /**
+             * Records the specified <tt>exit</tt> and returns the specified
+             * root <tt>index</tt>.
+             *
+             * @param exit the way the iteration ended
+             * @param index index of the root, or <tt>-1</tt>
+             * @return the specified index
+             */
+            private short exit(Exit exit, int index) {
+                exits[exit.ordinal()]++;
+                return (short) index;
+            }
+
+        }
+
+        /**
+         * This class implements the {@linkplain ThreadFactory} interface and
+         * represents an object that creates new daemon threads on demand.
+         * <p>
+         * The daemon threads are used so that the program running them can be
+         * terminated completely, without waiting for these threads to finish.
+         *
+         * @author Mario Bobic
+         */
+        static class DaemonicThreadFactory implements ThreadFactory {
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable);
+                thread.setDaemon(true);
+                return thread;
+            }
+
+        }
+
+    }
+
+    /**
+     * This class holds the settings of a producer of the fractal images. A new
+     * instance takes the values of the system properties named at its fields,
+     * which may then be changed before the producer is created.
+     *
+     * @author Mario Bobic
+     */
+    static class Settings {
+        /**
+         * The kernel used for computing color indexes, selected by the
+         * <tt>newton.kernel</tt> system property. Defaults to
+         * {@linkplain Kernel#ROOTED}.
+         */
+        Kernel kernel =
+                Kernel.valueOf(System.getProperty("newton.kernel", "rooted").toUpperCase());
+        /**
+         * Number of pixels iterated at once by the {@linkplain Kernel#LANES}
+         * kernel, set by the <tt>newton.lanes</tt> system property, but at
+         * least 1. Defaults to 32.
+         */
+        int lanes = Integer.getInteger("newton.lanes", 32);
+        /**
+         * The scheduler used for splitting the image into jobs, selected by the
+         * <tt>newton.scheduler</tt> system property. Defaults to
+         * {@linkplain Scheduler#TILES}.
+         */
+        Scheduler scheduler =
+                Scheduler.valueOf(System.getProperty("newton.scheduler", "tiles").toUpperCase());
+        /**
+         * Maximum width and height of a tile computed as a single job, set by
+         * the <tt>newton.tileSize</tt> system property, but at least 1. Defaults
+         * to 32.
+         */
+        int tileSize = Integer.getInteger("newton.tileSize", 32);
+        /**
+         * Indicates whether the image should be delivered progressively, first
+         * at 1/16 and then at 1/4 of the resolution, set by the
+         * <tt>newton.progressive</tt> system property.
+         */
+        boolean progressive = Boolean.getBoolean("newton.progressive");
+        /**
+         * Indicates whether the pixels that a symmetry of the roots maps from
+         * other pixels should be mapped instead of computed, set by the
+         * <tt>newton.symmetry</tt> system property. It is not used with
+         * progressive passes or with the {@linkplain Scheduler#SUBDIVISION}
+         * scheduler.
+         */
+        boolean symmetric = Boolean.getBoolean("newton.symmetry");
+        /**
+         * Capacity of the tile cache in megabytes, set by the
+         * <tt>newton.cacheSize</tt> system property. Defaults to 0, which
+         * disables the cache.
+         */
+        int cacheSize = Integer.getInteger("newton.cacheSize", 0);
+        /**
+         * Indicates whether the pixels of the previous image should be reused
+         * when the image is only moved, set by the <tt>newton.reuse</tt>
+         * system property. Defaults to true.
+         */
+        boolean reuse = Boolean.parseBoolean(System.getProperty("newton.reuse", "true"));
+    }
+
+    /**
+     * Kernels that may be used for computing the color index of a pixel.
+     * The {@linkplain #COMPLEX} and {@linkplain #PRIMITIVE} kernels produce
+     * identical color indexes.
+     *
+     * @author Mario Bobic
+     */
+    enum Kernel {
+        /** Iterates using immutable {@linkplain Complex} objects. */
+        COMPLEX,
+        /** Iterates using primitive <tt>double</tt> values only. */
+        PRIMITIVE,
+        /** Iterates using the compiled polynomial and Horner's method. */
+        HORNER,
+        /**
+         * Iterates using reused {@linkplain MutableComplex} objects and
+         * Horner's method, producing the same color indexes as the
+         * {@linkplain #HORNER} kernel.
+         */
+        MUTABLE,
+        /** Iterates using the Newton-Raphson step computed from the roots. */
+        ROOTED,
+        /**
+         * Iterates a group of pixels of a row at once using the
+         * {@linkplain #ROOTED} steps. Single pixels, such as the ones of
+         * the progressive passes, are computed by the {@linkplain #ROOTED}
+         * kernel.
+         */
+        LANES,
+        /**
+         * Iterates using the {@linkplain #ROOTED} steps computed in
+         * double-double precision by the {@linkplain DoubleDoubleComplex}.
+         * Used automatically when the view is zoomed too deep for the
+         * other kernels, see {@linkplain FractalProducerImpl#isDeepZoom}.
+         */
+        DOUBLE_DOUBLE
+    }
+
+    /**
+     * Schedulers that may be used for splitting the image into jobs.
+     *
+     * @author Mario Bobic
+     */
+    enum Scheduler {
+        /** Fixed horizontal stripes on a fixed thread pool. */
+        STRIPES,
+        /** Recursively split tiles on a work-stealing pool. */
+        TILES,
+        /** Mariani-Silver rectangle subdivision on a work-stealing pool. */
+        SUBDIVISION
     }
 
 }
@@ -23,6 +23,9 @@ import hr.fer.zemris.java.fractals.viewer.IFractalResultObserver;
  * <p>
  * Second, it creates new daemon threads used for running the jobs of fractal
  * image calculation and then the fractal image is finally shown to the user.
+ * For every image, the program prints the number of {@linkplain Complex}
+ * instances created by each job and in total, counted by the
+ * {@linkplain InstanceCounter} which this program enables.
  *
  * @author Mario Bobic
  */
@@ -40,6 +43,9 @@ public class NewtonStatistics {
      * @throws IOException if an unrecoverable reading error occurs
      */
     public static void main(String[] args) throws IOException {
+        // must be set before the first complex number is created
+        System.setProperty("complex.countInstances", "true");
+
         System.out.println("Welcome to Newton-Raphson iteration-based fractal viewer.");
         System.out.println("Please enter at least two roots, one root per line. Enter 'done' when done.");
 
@@ -142,7 +148,7 @@ public class NewtonStatistics {
         public void produce(double reMin, double reMax, double imMin, double imMax,
                 int width, int height, long requestNo, IFractalResultObserver observer) {
 
-            long before = Complex.instanceCounter;
+            long before = Complex.instanceCounter.total();
             long t0 = System.nanoTime();
 
             // Initialize settings
@@ -171,11 +177,11 @@ public class NewtonStatistics {
             }
 
             long t1 = System.nanoTime();
-            long after = Complex.instanceCounter;
+            long after = Complex.instanceCounter.total();
 
             long total = after - before;
             double time = (t1 - t0) / 1E9;
-            System.out.println("Napravljeno je " + total + " primjeraka Complex-a, ukupno: " + Complex.instanceCounter);
+            System.out.println("Napravljeno je " + total + " primjeraka Complex-a, ukupno: " + after);
             System.out.println("Proteklo vrijeme: " + time + " sekundi.");
 
             observer.acceptResult(data, (short)(polynomial.order() + 1), requestNo);
@@ -240,7 +246,7 @@ public class NewtonStatistics {
 
             @Override
             public Void call() {
-                long before = Complex.instanceCounter;
+                long before = Complex.instanceCounter.ofCurrentThread();
 
                 int offset = ymin * width;
 
@@ -268,7 +274,7 @@ public class NewtonStatistics {
                     }
                 }
 
-                long after = Complex.instanceCounter;
+                long after = Complex.instanceCounter.ofCurrentThread();
 
                 System.out.println(Thread.currentThread() + ": " + (after-before) + " primjeraka Complex-a.");
                 return null;
@@ -0,0 +1,570 @@
+package hr.fer.zemris.java.fractals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * This class loads large numbers of polynomial roots or factors from a file,
+ * without any interaction with the user. Two file formats are supported:
+ * <ul>
+ * <li>a text file with one complex number per line, in the same syntax as
+ * accepted by the {@linkplain Complex#parse(String)} method, where blank lines
+ * are ignored, and
+ * <li>a binary file that starts with the {@linkplain #MAGIC} number and the
+ * number of values as a 32-bit integer, followed by the real and the
+ * imaginary part of each value as 64-bit floating-point numbers, all in the
+ * big-endian byte order. Such a file is written by the
+ * {@linkplain #writeBinary(Path, ComplexArray)} method.
+ * </ul>
+ * The format is recognized by the first four bytes of the file. The file is
+ * mapped into memory, and a text file is split into chunks of whole lines
+ * that are parsed in parallel by the common {@linkplain ForkJoinPool}. The
+ * lines are parsed directly from the mapped bytes, creating no objects per
+ * line. Numbers with more than 15 significant digits, more than 22 decimal
+ * places or in a form other than plain decimal notation are passed to the
+ * {@linkplain Double#parseDouble(String)} method, so every number gets
+ * exactly the same value as by the {@linkplain Complex#parse(String)} method.
+ *
+ * @author Mario Bobic
+ */
+public class PolynomialLoader {
+
+    /** Magic number at the start of a binary file, ASCII characters <tt>NWTC</tt>. */
+    public static final int MAGIC = 0x4E575443;
+
+    /** Size of the binary file header, the magic number and the count. */
+    private static final int HEADER_SIZE = 8;
+    /** Minimum size of a chunk of a text file parsed by one task. */
+    private static final int MIN_CHUNK_SIZE = 1 << 16;
+    /** Size of the buffer used for writing a binary file. */
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+    /** Greatest number of significant digits parsed without rounding. */
+    private static final int MAX_DIGITS = 15;
+    /** Powers of ten that are exactly representable as doubles. */
+    private static final double[] POWERS_OF_TEN = {
+        1E0, 1E1, 1E2, 1E3, 1E4, 1E5, 1E6, 1E7, 1E8, 1E9, 1E10, 1E11,
+        1E12, 1E13, 1E14, 1E15, 1E16, 1E17, 1E18, 1E19, 1E20, 1E21, 1E22
+    };
+
+    /**
+     * Disable instantiation or inheritance.
+     */
+    private PolynomialLoader() {
+    }
+
+    /**
+     * Loads the roots from the file at the specified <tt>path</tt> and returns
+     * the rooted polynomial of these roots.
+     *
+     * @param path path of the file
+     * @return the rooted polynomial of the loaded roots
+     * @throws IOException if an I/O error occurs or the binary file is corrupted
+     * @throws NumberFormatException if a line of a text file cannot be parsed
+     * @throws IllegalArgumentException if the file contains no roots
+     */
+    public static ComplexRootedPolynomial loadRoots(Path path) throws IOException {
+        return new ComplexRootedPolynomial(load(path));
+    }
+
+    /**
+     * Loads the factors from the file at the specified <tt>path</tt> and
+     * returns the polynomial with these factors, where the first loaded factor
+     * is by z<sup>0</sup>.
+     *
+     * @param path path of the file
+     * @return the polynomial with the loaded factors
+     * @throws IOException if an I/O error occurs or the binary file is corrupted
+     * @throws NumberFormatException if a line of a text file cannot be parsed
+     * @throws IllegalArgumentException if the file contains no factors
+     */
+    public static ComplexPolynomial loadFactors(Path path) throws IOException {
+        ComplexArray values = load(path);
+
+        Complex[] factors = new Complex[values.length()];
+        for (int i = 0; i < factors.length; i++) {
+            factors[i] = values.get(i);
+        }
+
+        return new ComplexPolynomial(factors);
+    }
+
+    /**
+     * Loads the complex numbers from the file at the specified <tt>path</tt>,
+     * in the order they appear in the file.
+     *
+     * @param path path of the file
+     * @return array of the loaded complex numbers
+     * @throws IOException if an I/O error occurs or the binary file is corrupted
+     * @throws NumberFormatException if a line of a text file cannot be parsed
+     */
+    public static ComplexArray load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File is too large to be loaded: " + size + " bytes");
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (size >= HEADER_SIZE && buffer.getInt(0) == MAGIC) {
+                return loadBinary(buffer);
+            } else {
+                return loadText(buffer);
+            }
+        }
+    }
+
+    /**
+     * Writes the specified complex numbers into the file at the specified
+     * <tt>path</tt> in the binary format, replacing the file if it exists.
+     *
+     * @param path path of the file
+     * @param values complex numbers to be written
+     * @throws IOException if an I/O error occurs
+     */
+    public static void writeBinary(Path path, ComplexArray values) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+            buffer.putInt(MAGIC).putInt(values.length());
+
+            for (int i = 0; i < values.length(); i++) {
+                if (buffer.remaining() < 16) {
+                    write(channel, buffer);
+                }
+                buffer.putDouble(values.re[i]).putDouble(values.im[i]);
+            }
+            write(channel, buffer);
+        }
+    }
+
+    /**
+     * Writes the contents of the specified <tt>buffer</tt> to the channel and
+     * clears the buffer.
+     *
+     * @param channel channel to write to
+     * @param buffer buffer whose contents are written
+     * @throws IOException if an I/O error occurs
+     */
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Reads the complex numbers from the specified mapped binary file.
+     *
+     * @param buffer the mapped file
+     * @return array of the read complex numbers
+     * @throws IOException if the file size does not match the count
+     */
+    private static ComplexArray loadBinary(ByteBuffer buffer) throws IOException {
+        int count = buffer.getInt(4);
+        if (count < 0 || buffer.capacity() != HEADER_SIZE + 16L*count) {
+            throw new IOException("Corrupted binary file: " + count + " values in "
+                    + buffer.capacity() + " bytes");
+        }
+
+        buffer.position(HEADER_SIZE);
+        DoubleBuffer doubles = buffer.slice().asDoubleBuffer();
+
+        ComplexArray values = new ComplexArray(count);
+        for (int i = 0; i < count; i++) {
+            values.re[i] = doubles.get(2*i);
+            values.im[i] = doubles.get(2*i + 1);
+        }
+        return values;
+    }
+
+    /**
+     * Parses the complex numbers from the specified mapped text file. The file
+     * is split into chunks of whole lines. The lines and values of each chunk
+     * are counted in parallel first, and then each chunk is parsed in
+     * parallel into its own part of the resulting array.
+     *
+     * @param buffer the mapped file
+     * @return array of the parsed complex numbers
+     * @throws NumberFormatException if a line cannot be parsed
+     */
+    private static ComplexArray loadText(ByteBuffer buffer) {
+        int size = buffer.capacity();
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int chunkCount = Math.max(1, Math.min(size / MIN_CHUNK_SIZE, 4 * pool.getParallelism()));
+
+        // chunk boundaries just after a line feed
+        List<Chunk> chunks = new ArrayList<>();
+        int from = 0;
+        for (int c = 1; c <= chunkCount; c++) {
+            int to = (int) ((long) size * c / chunkCount);
+            while (to < size && buffer.get(to - 1) != '\n') {
+                to++;
+            }
+            if (to > from) {
+                chunks.add(new Chunk(buffer, from, to));
+                from = to;
+            }
+        }
+
+        List<Callable<Void>> counting = new ArrayList<>();
+        for (final Chunk chunk : chunks) {
+            counting.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    chunk.count();
+                    return null;
+                }
+            });
+        }
+        invokeAll(pool, counting);
+
+        int count = 0;
+        int lines = 0;
+        for (Chunk chunk : chunks) {
+            chunk.offset = count;
+            chunk.firstLine = lines + 1;
+            count += chunk.valueCount;
+            lines += chunk.lineCount;
+        }
+
+        final ComplexArray values = new ComplexArray(count);
+        List<Callable<Void>> parsing = new ArrayList<>();
+        for (final Chunk chunk : chunks) {
+            parsing.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    chunk.parse(values);
+                    return null;
+                }
+            });
+        }
+        invokeAll(pool, parsing);
+
+        return values;
+    }
+
+    /**
+     * Runs the specified tasks in the specified pool and waits for them to
+     * finish, rethrowing the unchecked exception of the first failed task.
+     *
+     * @param pool pool that runs the tasks
+     * @param tasks tasks to be run
+     */
+    private static void invokeAll(ForkJoinPool pool, List<Callable<Void>> tasks) {
+        for (Future<Void> future : pool.invokeAll(tasks)) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                // the pool rethrows a copy of an exception thrown by another thread
+                if (cause.getCause() != null && cause.getCause().getClass() == cause.getClass()) {
+                    cause = cause.getCause();
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IllegalStateException(cause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Returns true if the specified byte is a whitespace character, the same
+     * as matched by the <tt>\s</tt> regular expression.
+     *
+     * @param b byte to be checked
+     * @return true if the byte is a whitespace character
+     */
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == 0x0B || b == '\f' || b == '\r';
+    }
+
+    /**
+     * This class is a chunk of whole lines of a mapped text file. It counts
+     * its lines and values and then parses the values directly from the
+     * mapped bytes, following the rules of the
+     * {@linkplain Complex#parse(String)} method: all whitespace is ignored,
+     * commas are decimal points, and the number is split into two parts at
+     * the first plus or minus sign that is not the first character.
+     *
+     * @author Mario Bobic
+     */
+    private static class Chunk {
+        /** The mapped file. */
+        private final ByteBuffer buffer;
+        /** Index of the first byte of this chunk, inclusive. */
+        private final int from;
+        /** Index of the last byte of this chunk, exclusive. */
+        private final int to;
+
+        /** Number of lines of this chunk. */
+        private int lineCount;
+        /** Number of values of this chunk. */
+        private int valueCount;
+        /** Number of the first line of this chunk, counted from 1. */
+        private int firstLine;
+        /** Index in the resulting array of the first value of this chunk. */
+        private int offset;
+
+        /** Real and imaginary part of the last parsed part of a number. */
+        private final double[] part = new double[2];
+
+        /**
+         * Constructs an instance of <tt>Chunk</tt> with the specified range
+         * of the mapped file.
+         *
+         * @param buffer the mapped file
+         * @param from index of the first byte, inclusive
+         * @param to index of the last byte, exclusive
+         */
+        public Chunk(ByteBuffer buffer, int from, int to) {
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Counts the lines and the lines that are not blank.
+         */
+        public void count() {
+            boolean blank = true;
+            for (int p = from; p < to; p++) {
+                byte b = buffer.get(p);
+                if (b == '\n') {
+                    lineCount++;
+                    if (!blank) valueCount++;
+                    blank = true;
+                } else if (!isWhitespace(b)) {
+                    blank = false;
+                }
+            }
+            if (!blank) valueCount++;
+        }
+
+        /**
+         * Parses the lines that are not blank into the specified array,
+         * starting at the offset of this chunk.
+         *
+         * @param values array where the parsed values are stored
+         * @throws NumberFormatException if a line cannot be parsed
+         */
+        public void parse(ComplexArray values) {
+            int index = offset;
+            int line = firstLine;
+
+            for (int start = from; start < to; line++) {
+                int end = start;
+                while (end < to && buffer.get(end) != '\n') {
+                    end++;
+                }
+
+                int first = start;
+                while (first < end && isWhitespace(buffer.get(first))) {
+                    first++;
+                }
+                if (first < end) {
+                    parseLine(first, end, line, values, index++);
+                }
+
+                start = end + 1;
+            }
+        }
+
+        /**
+         * Parses the line from <tt>first</tt> to <tt>end</tt> into the
+         * specified array at the specified <tt>index</tt>.
+         *
+         * @param first index of the first byte that is not whitespace
+         * @param end index of the end of the line, exclusive
+         * @param line number of the line
+         * @param values array where the parsed value is stored
+         * @param index index where the parsed value is stored
+         * @throws NumberFormatException if the line cannot be parsed
+         */
+        private void parseLine(int first, int end, int line, ComplexArray values, int index) {
+            int split = -1;
+            for (int p = first + 1; p < end; p++) {
+                byte b = buffer.get(p);
+                if (b == '+' || b == '-') {
+                    split = p;
+                    break;
+                }
+            }
+
+            try {
+                if (split < 0) {
+                    parsePart(first, end);
+                    values.re[index] = part[0];
+                    values.im[index] = part[1];
+                } else {
+                    parsePart(first, split);
+                    double re = part[0];
+                    double im = part[1];
+                    parsePart(split + 1, end);
+                    if (buffer.get(split) == '-') {
+                        values.re[index] = re - part[0];
+                        values.im[index] = im - part[1];
+                    } else {
+                        values.re[index] = re + part[0];
+                        values.im[index] = im + part[1];
+                    }
+                }
+            } catch (NumberFormatException e) {
+                byte[] bytes = new byte[end - first];
+                for (int p = first; p < end; p++) {
+                    bytes[p - first] = buffer.get(p);
+                }
+                String text = new String(bytes, StandardCharsets.UTF_8).trim();
+                throw new NumberFormatException(
+                        "Cannot parse \"" + text + "\" at line " + line + " as a complex number.");
+            }
+        }
+
+        /**
+         * Parses one part of a complex number, real or imaginary, from
+         * <tt>start</tt> to <tt>end</tt> and stores its real and imaginary
+         * part into the <tt>part</tt> array.
+         *
+         * @param start index of the first byte, inclusive
+         * @param end index of the last byte, exclusive
+         * @throws NumberFormatException if the part cannot be parsed
+         */
+        private void parsePart(int start, int end) {
+            // the first two and the last character that are not whitespace
+            int length = 0;
+            byte first = 0, second = 0, last = 0;
+            for (int p = start; p < end; p++) {
+                byte b = buffer.get(p);
+                if (isWhitespace(b)) continue;
+                if (length == 0) first = b;
+                if (length == 1) second = b;
+                last = b;
+                length++;
+            }
+
+            boolean signed = first == '+' || first == '-';
+            if (length == 1 && first == 'i' || length == 2 && first == '+' && second == 'i') {
+                part[0] = 0;
+                part[1] = 1;
+            } else if (length == 2 && first == '-' && second == 'i') {
+                part[0] = 0;
+                part[1] = -1;
+            } else if (first == 'i' || last == 'i' || signed && second == 'i') {
+                part[0] = 0.0;
+                part[1] = parseNumber(start, end, true);
+            } else {
+                part[0] = parseNumber(start, end, false);
+                part[1] = 0.0;
+            }
+        }
+
+        /**
+         * Parses a decimal number from <tt>start</tt> to <tt>end</tt>,
+         * ignoring whitespace and the first <tt>i</tt> character if
+         * <tt>skipImaginary</tt> is true. Numbers that are not in plain
+         * decimal notation or can not be computed exactly from their digits
+         * are parsed by the {@linkplain Double#parseDouble(String)} method.
+         *
+         * @param start index of the first byte, inclusive
+         * @param end index of the last byte, exclusive
+         * @param skipImaginary true if the first <tt>i</tt> is ignored
+         * @return the parsed number
+         * @throws NumberFormatException if the number cannot be parsed
+         */
+        private double parseNumber(int start, int end, boolean skipImaginary) {
+            boolean skip = skipImaginary;
+            boolean negative = false;
+            boolean point = false;
+            boolean digit = false;
+            int length = 0;
+            long mantissa = 0;
+            int significant = 0;
+            int decimals = 0;
+
+            for (int p = start; p < end; p++) {
+                byte b = buffer.get(p);
+                if (isWhitespace(b)) continue;
+                if (skip && b == 'i') {
+                    skip = false;
+                    continue;
+                }
+
+                if (b >= '0' && b <= '9') {
+                    digit = true;
+                    if (mantissa != 0 || b != '0') {
+                        significant++;
+                    }
+                    if (point) {
+                        decimals++;
+                    }
+                    if (significant > MAX_DIGITS || decimals >= POWERS_OF_TEN.length) {
+                        return parseDouble(start, end, skipImaginary);
+                    }
+                    mantissa = 10*mantissa + (b - '0');
+                } else if ((b == '.' || b == ',') && !point) {
+                    point = true;
+                } else if ((b == '+' || b == '-') && length == 0) {
+                    negative = b == '-';
+                } else {
+                    return parseDouble(start, end, skipImaginary);
+                }
+                length++;
+            }
+
+            if (!digit) {
+                return parseDouble(start, end, skipImaginary);
+            }
+
+            // both are exact, so the quotient is correctly rounded
+            double value = mantissa / POWERS_OF_TEN[decimals];
+            return negative ? -value : value;
+        }
+
+        /**
+         * Parses a number from <tt>start</tt> to <tt>end</tt> by the
+         * {@linkplain Double#parseDouble(String)} method, after removing the
+         * whitespace and the first <tt>i</tt> character if
+         * <tt>skipImaginary</tt> is true, and replacing commas with dots.
+         *
+         * @param start index of the first byte, inclusive
+         * @param end index of the last byte, exclusive
+         * @param skipImaginary true if the first <tt>i</tt> is removed
+         * @return the parsed number
+         * @throws NumberFormatException if the number cannot be parsed
+         */
+        private double parseDouble(int start, int end, boolean skipImaginary) {
+            boolean skip = skipImaginary;
+            StringBuilder sb = new StringBuilder(end - start);
+
+            for (int p = start; p < end; p++) {
+                byte b = buffer.get(p);
+                if (isWhitespace(b)) continue;
+                if (skip && b == 'i') {
+                    skip = false;
+                    continue;
+                }
+                sb.append(b == ',' ? '.' : (char) (b & 0xFF));
+            }
+
+            return Double.parseDouble(sb.toString());
+        }
+
+    }
+
+}
@@ -0,0 +1,369 @@
+package hr.fer.zemris.java.fractals;
+
+/**
+ * This class is a uniform grid over a set of polynomial roots, used to find
+ * the closest root to a point that is within a fixed threshold without
+ * computing the distance to every root.
+ * <p>
+ * The cells of the grid are at least as large as the threshold, so every root
+ * within the threshold of a point lies in the cell of the point or in one of
+ * its eight neighbours. The roots of these cells are first filtered by their
+ * squared distances, which are compared with a small margin, and only the
+ * distances of the remaining roots are computed by the {@linkplain Math#hypot}
+ * method. Therefore the {@linkplain #indexOfClosestRootFor(double, double)}
+ * method returns exactly the same index as the linear scan of the
+ * {@linkplain ComplexRootedPolynomial#indexOfClosestRootFor(double, double, double)}
+ * method, including the lowest index of equally distant roots, for all finite
+ * points.
+ * <p>
+ * This class is immutable and therefore thread-safe.
+ *
+ * @author Mario Bobic
+ */
+public class RootGrid {
+
+    /** Smallest supported threshold. */
+    static final double MIN_THRESHOLD = 1E-150;
+    /** Greatest supported threshold. */
+    static final double MAX_THRESHOLD = 1E150;
+    /** Relative margin of the squared distance comparisons. */
+    private static final double MARGIN = 1E-9;
+
+    /** Real parts of the roots. */
+    private final double[] rootsRe;
+    /** Imaginary parts of the roots. */
+    private final double[] rootsIm;
+    /** The maximum allowed distance. */
+    private final double threshold;
+    /** Squared distance under which a root is surely within the threshold. */
+    private final double innerLimit;
+    /** Squared distance above which a root is surely not within the threshold. */
+    private final double outerLimit;
+
+    /** Real part of the lower left corner of the grid. */
+    private final double minRe;
+    /** Imaginary part of the lower left corner of the grid. */
+    private final double minIm;
+    /** Width and height of a cell. */
+    private final double cellSize;
+    /** Number of columns of the grid. */
+    private final int columns;
+    /** Number of rows of the grid. */
+    private final int rows;
+    /** Index into <tt>cellRoots</tt> of the first root of each cell. */
+    private final int[] cellStart;
+    /** Root indexes of the cells, ordered by cell and then by index. */
+    private final int[] cellRoots;
+
+    /**
+     * Constructs an instance of RootGrid over the specified roots, for
+     * lookups with the specified <tt>threshold</tt>.
+     *
+     * @param rootsRe real parts of the roots
+     * @param rootsIm imaginary parts of the roots
+     * @param threshold the maximum allowed distance
+     * @throws IllegalArgumentException if the roots or the threshold are not
+     *         supported
+     * @throws NullPointerException if <tt>rootsRe</tt> or <tt>rootsIm</tt> is <tt>null</tt>
+     * @see #isSupported(double[], double[], double)
+     */
+    public RootGrid(double[] rootsRe, double[] rootsIm, double threshold) {
+        if (!isSupported(rootsRe, rootsIm, threshold)) {
+            throw new IllegalArgumentException("Roots or threshold are not supported: " + threshold);
+        }
+
+        this.rootsRe = rootsRe;
+        this.rootsIm = rootsIm;
+        this.threshold = threshold;
+        innerLimit = threshold*threshold * (1 - MARGIN);
+        outerLimit = threshold*threshold * (1 + MARGIN);
+
+        int n = rootsRe.length;
+        double maxRe = rootsRe[0], maxIm = rootsIm[0];
+        double lowRe = maxRe, lowIm = maxIm;
+        for (int i = 0; i < n; i++) {
+            lowRe = Math.min(lowRe, rootsRe[i]);
+            lowIm = Math.min(lowIm, rootsIm[i]);
+            maxRe = Math.max(maxRe, rootsRe[i]);
+            maxIm = Math.max(maxIm, rootsIm[i]);
+        }
+        minRe = lowRe;
+        minIm = lowIm;
+
+        // about one root per cell, also for roots on a line, but never
+        // smaller than the threshold
+        double widthRe = maxRe - minRe;
+        double widthIm = maxIm - minIm;
+        double size = Math.max(Math.sqrt(widthRe) * Math.sqrt(widthIm / n), Math.max(widthRe, widthIm) / n);
+        cellSize = Math.max(threshold * (1 + 1E-6), size);
+        columns = cellIndex(maxRe - minRe, Integer.MAX_VALUE) + 1;
+        rows = cellIndex(maxIm - minIm, Integer.MAX_VALUE) + 1;
+
+        // counting sort of the roots by cell, keeping the order of indexes
+        int[] cells = new int[n];
+        cellStart = new int[columns*rows + 1];
+        for (int i = 0; i < n; i++) {
+            int column = cellIndex(rootsRe[i] - minRe, columns - 1);
+            int row = cellIndex(rootsIm[i] - minIm, rows - 1);
+            cells[i] = row*columns + column;
+            cellStart[cells[i] + 1]++;
+        }
+        for (int c = 0; c < columns*rows; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        cellRoots = new int[n];
+        int[] next = cellStart.clone();
+        for (int i = 0; i < n; i++) {
+            cellRoots[next[cells[i]]++] = i;
+        }
+    }
+
+    /**
+     * Returns true if a grid may be constructed over the specified roots for
+     * the specified <tt>threshold</tt>. There must be at least one root, the
+     * roots must be finite and their differences must not overflow. The square
+     * of the threshold must be a positive normal number, since smaller and
+     * larger thresholds lose precision when squared.
+     *
+     * @param rootsRe real parts of the roots
+     * @param rootsIm imaginary parts of the roots
+     * @param threshold the maximum allowed distance
+     * @return true if a grid may be constructed
+     * @throws NullPointerException if <tt>rootsRe</tt> or <tt>rootsIm</tt> is <tt>null</tt>
+     */
+    public static boolean isSupported(double[] rootsRe, double[] rootsIm, double threshold) {
+        if (!(threshold >= MIN_THRESHOLD && threshold <= MAX_THRESHOLD)) {
+            return false;
+        }
+        if (rootsRe.length == 0 || rootsIm.length != rootsRe.length) {
+            return false;
+        }
+
+        for (int i = 0; i < rootsRe.length; i++) {
+            if (Math.abs(rootsRe[i]) > 1E300 || Math.abs(rootsIm[i]) > 1E300
+                    || Double.isNaN(rootsRe[i]) || Double.isNaN(rootsIm[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the threshold of this grid.
+     *
+     * @return the maximum allowed distance
+     */
+    public double getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Finds and returns the index of closest root to the point
+     * <tt>re + im*i</tt> that is within the threshold of this grid. If there
+     * is no such root, <tt>-1</tt> is returned.
+     *
+     * @param re real part of the point, must be finite
+     * @param im imaginary part of the point, must be finite
+     * @return the index of closest root to the point
+     */
+    public int indexOfClosestRootFor(double re, double im) {
+        double x = (re - minRe) / cellSize;
+        double y = (im - minIm) / cellSize;
+        if (!(x > -2 && x < columns + 1 && y > -2 && y < rows + 1)) {
+            return -1;
+        }
+
+        int column = (int) Math.floor(x);
+        int row = (int) Math.floor(y);
+        int firstColumn = Math.max(column - 1, 0);
+        int lastColumn = Math.min(column + 1, columns - 1);
+        int firstRow = Math.max(row - 1, 0);
+        int lastRow = Math.min(row + 1, rows - 1);
+
+        // filter by squared distances
+        int count = 0;
+        int candidate = -1;
+        boolean inner = false;
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = r*columns + firstColumn; c <= r*columns + lastColumn; c++) {
+                for (int k = cellStart[c]; k < cellStart[c + 1]; k++) {
+                    int i = cellRoots[k];
+                    double diffRe = re - rootsRe[i];
+                    double diffIm = im - rootsIm[i];
+                    double distanceSquared = diffRe*diffRe + diffIm*diffIm;
+                    if (distanceSquared <= outerLimit) {
+                        count++;
+                        candidate = i;
+                        inner = distanceSquared <= innerLimit;
+                    }
+                }
+            }
+        }
+
+        if (count == 0) {
+            return -1;
+        }
+        if (count == 1 && inner) {
+            return candidate;
+        }
+
+        // decide between the candidates the same way as the linear scan
+        double minDistance = Double.POSITIVE_INFINITY;
+        int index = -1;
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = r*columns + firstColumn; c <= r*columns + lastColumn; c++) {
+                for (int k = cellStart[c]; k < cellStart[c + 1]; k++) {
+                    int i = cellRoots[k];
+                    double distance = Math.hypot(re - rootsRe[i], im - rootsIm[i]);
+                    if (distance < minDistance || distance == minDistance && i < index) {
+                        minDistance = distance;
+                        index = i;
+                    }
+                }
+            }
+        }
+
+        return minDistance > threshold ? -1 : index;
+    }
+
+    /**
+     * Returns the distance from each of the specified roots to its nearest
+     * other root, or infinity if there is only one root. The distances are
+     * computed by the {@linkplain Math#hypot} method, so they are exactly the
+     * same as the minimums over all pairs of roots, but only the roots in the
+     * rings of cells around each root are visited, until the nearest distance
+     * found is smaller than the distance to the next ring.
+     *
+     * @param rootsRe real parts of the roots
+     * @param rootsIm imaginary parts of the roots
+     * @return the distance from each root to its nearest other root
+     * @throws IllegalArgumentException if the roots are not supported
+     * @see #isSupported(double[], double[], double)
+     */
+    static double[] nearestDistances(double[] rootsRe, double[] rootsIm) {
+        RootGrid grid = new RootGrid(rootsRe, rootsIm, MIN_THRESHOLD);
+
+        double[] distances = new double[rootsRe.length];
+        for (int i = 0; i < distances.length; i++) {
+            distances[i] = grid.nearestDistance(i);
+        }
+        return distances;
+    }
+
+    /**
+     * Returns the distance from the root at the specified <tt>index</tt> to
+     * its nearest other root, or infinity if there is only one root.
+     * <p>
+     * The rings of cells around the root are searched by squared distances
+     * until the nearest one is closer than the edge of the searched cells.
+     * Then the distances of the roots whose squared distances are within a
+     * small margin of the nearest one are computed by the
+     * {@linkplain Math#hypot} method.
+     *
+     * @param index index of the root
+     * @return the distance to the nearest other root
+     */
+    private double nearestDistance(int index) {
+        double re = rootsRe[index];
+        double im = rootsIm[index];
+        int column = cellIndex(re - minRe, columns - 1);
+        int row = cellIndex(im - minIm, rows - 1);
+
+        double nearestSquared = Double.POSITIVE_INFINITY;
+        int ring = 0;
+        for (; ring <= Math.max(columns, rows); ring++) {
+            if (ring > 0) {
+                double edge = edgeDistance(re, im, column, row, ring);
+                if (nearestSquared < edge*edge) {
+                    break;
+                }
+            }
+
+            int firstRow = Math.max(row - ring, 0);
+            int lastRow = Math.min(row + ring, rows - 1);
+            for (int r = firstRow; r <= lastRow; r++) {
+                int step = r == row - ring || r == row + ring ? 1 : 2*ring;
+                for (int c = column - ring; c <= column + ring; c += step) {
+                    if (c < 0 || c >= columns) continue;
+
+                    int cell = r*columns + c;
+                    for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                        int i = cellRoots[k];
+                        if (i == index) continue;
+                        double diffRe = re - rootsRe[i];
+                        double diffIm = im - rootsIm[i];
+                        nearestSquared = Math.min(nearestSquared, diffRe*diffRe + diffIm*diffIm);
+                    }
+                }
+            }
+        }
+
+        // the same rings, now only for the candidates
+        double limit = nearestSquared * (1 + MARGIN);
+        double nearest = Double.POSITIVE_INFINITY;
+        int firstRow = Math.max(row - ring + 1, 0);
+        int lastRow = Math.min(row + ring - 1, rows - 1);
+        int firstColumn = Math.max(column - ring + 1, 0);
+        int lastColumn = Math.min(column + ring - 1, columns - 1);
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = r*columns + firstColumn; c <= r*columns + lastColumn; c++) {
+                for (int k = cellStart[c]; k < cellStart[c + 1]; k++) {
+                    int i = cellRoots[k];
+                    if (i == index) continue;
+                    double diffRe = re - rootsRe[i];
+                    double diffIm = im - rootsIm[i];
+                    if (diffRe*diffRe + diffIm*diffIm <= limit) {
+                        nearest = Math.min(nearest, Math.hypot(diffRe, diffIm));
+                    }
+                }
+            }
+        }
+
+        return nearest;
+    }
+
+    /**
+     * Returns a lower bound of the distance from the point
+     * <tt>re + im*i</tt> in the specified cell to any root outside of the
+     * square of cells that are less than <tt>ring</tt> cells away from it.
+     * Sides of the square at the border of the grid have no roots outside.
+     *
+     * @param re real part of the point
+     * @param im imaginary part of the point
+     * @param column column of the cell of the point
+     * @param row row of the cell of the point
+     * @param ring number of the first ring outside of the square
+     * @return a lower bound of the distance to the roots outside
+     */
+    private double edgeDistance(double re, double im, int column, int row, int ring) {
+        double distance = Double.POSITIVE_INFINITY;
+        if (column - ring >= 0) {
+            distance = Math.min(distance, re - (minRe + (column - ring + 1) * cellSize));
+        }
+        if (column + ring < columns) {
+            distance = Math.min(distance, minRe + (column + ring) * cellSize - re);
+        }
+        if (row - ring >= 0) {
+            distance = Math.min(distance, im - (minIm + (row - ring + 1) * cellSize));
+        }
+        if (row + ring < rows) {
+            distance = Math.min(distance, minIm + (row + ring) * cellSize - im);
+        }
+
+        // leaves room for the rounding of the cell indexes
+        return Math.max(distance - cellSize * 1E-6, 0);
+    }
+
+    /**
+     * Returns the index of the cell along one axis for the specified
+     * <tt>offset</tt> from the lower left corner, limited to <tt>max</tt>.
+     *
+     * @param offset offset from the lower left corner
+     * @param max the greatest index
+     * @return the index of the cell
+     */
+    private int cellIndex(double offset, int max) {
+        return (int) Math.min(Math.floor(offset / cellSize), max);
+    }
+
+}
@@ -0,0 +1,358 @@
+package hr.fer.zemris.java.fractals;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * This class represents the symmetry group of a set of polynomial roots. The
+ * group is generated by the rotation by <tt>2&pi;/k</tt> around the centroid
+ * of the roots and, if the roots are mirror-symmetric, by the reflection over
+ * an axis through the centroid.
+ * <p>
+ * The Newton-Raphson iteration commutes with every such transformation
+ * <tt>T</tt> that maps the roots onto themselves, so a point <tt>T(z)</tt>
+ * converges to the root <tt>T(r)</tt> whenever the point <tt>z</tt> converges
+ * to the root <tt>r</tt>. The elements of the group are indexed from
+ * <tt>0</tt>, which is the identity, to <tt>size() - 1</tt>. Each of them
+ * may be applied to a point by the
+ * {@linkplain #apply(int, double, double, double[])} method and to a root
+ * index by the {@linkplain #mapIndex(int, int)} method.
+ * <p>
+ * This class is immutable and therefore thread-safe.
+ *
+ * @author Mario Bobic
+ */
+public class RootSymmetry {
+
+    /** The greatest rotation order that is looked for. */
+    public static final int MAX_ORDER = 12;
+    /** Distance under which a transformed root is equal to a root. */
+    private static final double SYMMETRY_LIMIT = 1E-6;
+
+    /** Real part of the center of symmetry. */
+    private final double centerRe;
+    /** Imaginary part of the center of symmetry. */
+    private final double centerIm;
+    /** Order of the rotational symmetry, 1 if there is none. */
+    private final int order;
+    /** Indicates whether the roots are mirror-symmetric. */
+    private final boolean mirror;
+
+    /** Cosine of the rotation angle of each element. */
+    private final double[] cos;
+    /** Sine of the rotation angle of each element. */
+    private final double[] sin;
+    /** Indicates whether each element conjugates before the rotation. */
+    private final boolean[] reflected;
+    /** Root index permutation of each element. */
+    private final int[][] permutations;
+    /** Index of the inverse of each element. */
+    private final int[] inverses;
+
+    /**
+     * Constructs an instance of RootSymmetry with the specified parameters
+     * and computes the root index permutation of each element.
+     * <p>
+     * The element <tt>s</tt> is the rotation by <tt>s</tt> times
+     * <tt>2&pi;/order</tt>. If the roots are mirror-symmetric, elements
+     * <tt>2s</tt> are these rotations and elements <tt>2s + 1</tt> are
+     * reflections over the mirror axis followed by these rotations.
+     *
+     * @param matcher matcher of the roots around the center of symmetry
+     * @param centerRe real part of the center of symmetry
+     * @param centerIm imaginary part of the center of symmetry
+     * @param order order of the rotational symmetry
+     * @param mirror true if the roots are mirror-symmetric
+     * @param axisAngle angle of the mirror axis
+     */
+    private RootSymmetry(Matcher matcher, double centerRe, double centerIm,
+            int order, boolean mirror, double axisAngle) {
+        this.centerRe = centerRe;
+        this.centerIm = centerIm;
+        this.order = order;
+        this.mirror = mirror;
+
+        int size = mirror ? 2 * order : order;
+        cos = new double[size];
+        sin = new double[size];
+        reflected = new boolean[size];
+        permutations = new int[size][];
+        inverses = new int[size];
+
+        for (int element = 0; element < size; element++) {
+            int s = mirror ? element / 2 : element;
+            reflected[element] = mirror && element % 2 == 1;
+
+            // a reflection over the axis at angle a is conjugation followed by rotation by 2a
+            double angle = 2 * Math.PI * s / order + (reflected[element] ? 2 * axisAngle : 0);
+            cos[element] = Math.cos(angle);
+            sin[element] = Math.sin(angle);
+            permutations[element] = matcher.match(angle, reflected[element]);
+
+            // reflections are their own inverses
+            int inverse = reflected[element] ? s : (order - s) % order;
+            inverses[element] = reflected[element] ? element : (mirror ? 2 * inverse : inverse);
+        }
+    }
+
+    /**
+     * Finds the symmetry group of the specified roots. Returns <tt>null</tt>
+     * if the roots have no symmetry other than the identity, or if all of
+     * them are equal.
+     *
+     * @param rootsRe real parts of the roots
+     * @param rootsIm imaginary parts of the roots
+     * @return the symmetry group of the roots, or <tt>null</tt>
+     */
+    static RootSymmetry find(double[] rootsRe, double[] rootsIm) {
+        int n = rootsRe.length;
+
+        double centerRe = 0;
+        double centerIm = 0;
+        for (int i = 0; i < n; i++) {
+            centerRe += rootsRe[i];
+            centerIm += rootsIm[i];
+        }
+        centerRe /= n;
+        centerIm /= n;
+
+        int farthest = 0;
+        double farthestDistance = 0;
+        for (int i = 0; i < n; i++) {
+            double distance = Math.hypot(rootsRe[i] - centerRe, rootsIm[i] - centerIm);
+            if (distance > farthestDistance) {
+                farthestDistance = distance;
+                farthest = i;
+            }
+        }
+
+        double tolerance = SYMMETRY_LIMIT * Math.max(1, farthestDistance);
+        if (farthestDistance <= tolerance) {
+            return null;
+        }
+
+        Matcher matcher = new Matcher(rootsRe, rootsIm, tolerance, centerRe, centerIm);
+
+        int order = 1;
+        for (int k = Math.min(MAX_ORDER, n); k >= 2; k--) {
+            if (matcher.match(2 * Math.PI / k, false) != null) {
+                order = k;
+                break;
+            }
+        }
+
+        // a mirror axis maps the farthest root to a root at the same distance
+        double farthestAngle = Math.atan2(rootsIm[farthest] - centerIm, rootsRe[farthest] - centerRe);
+        boolean mirror = false;
+        double axisAngle = 0;
+        for (int j = 0; j < n && !mirror; j++) {
+            double distance = Math.hypot(rootsRe[j] - centerRe, rootsIm[j] - centerIm);
+            if (Math.abs(distance - farthestDistance) > tolerance) continue;
+
+            double angle = (farthestAngle + Math.atan2(rootsIm[j] - centerIm, rootsRe[j] - centerRe)) / 2;
+            if (matcher.match(2 * angle, true) != null) {
+                mirror = true;
+                axisAngle = angle;
+            }
+        }
+
+        if (order == 1 && !mirror) {
+            return null;
+        }
+
+        return new RootSymmetry(matcher, centerRe, centerIm, order, mirror, axisAngle);
+    }
+
+    /**
+     * Returns the order of the rotational symmetry, which is <tt>1</tt> if
+     * the roots are not rotationally symmetric.
+     *
+     * @return the order of the rotational symmetry
+     */
+    public int order() {
+        return order;
+    }
+
+    /**
+     * Returns true if the roots are mirror-symmetric.
+     *
+     * @return true if the roots are mirror-symmetric
+     */
+    public boolean isMirror() {
+        return mirror;
+    }
+
+    /**
+     * Returns the number of elements of this symmetry group.
+     *
+     * @return the number of elements of this symmetry group
+     */
+    public int size() {
+        return permutations.length;
+    }
+
+    /**
+     * Returns the index of the inverse of the specified <tt>element</tt>.
+     *
+     * @param element index of the element
+     * @return index of the inverse element
+     * @throws IndexOutOfBoundsException if there is no such element
+     */
+    public int inverse(int element) {
+        return inverses[element];
+    }
+
+    /**
+     * Applies the specified <tt>element</tt> to the point <tt>re + im*i</tt>
+     * and stores the real part of the transformed point to
+     * <tt>result[0]</tt> and the imaginary part to <tt>result[1]</tt>.
+     *
+     * @param element index of the element
+     * @param re real part of the point
+     * @param im imaginary part of the point
+     * @param result array of at least two elements where the point is stored
+     * @throws IndexOutOfBoundsException if there is no such element
+     * @throws NullPointerException if <tt>result == null</tt>
+     */
+    public void apply(int element, double re, double im, double[] result) {
+        double wRe = re - centerRe;
+        double wIm = reflected[element] ? centerIm - im : im - centerIm;
+
+        result[0] = centerRe + wRe*cos[element] - wIm*sin[element];
+        result[1] = centerIm + wRe*sin[element] + wIm*cos[element];
+    }
+
+    /**
+     * Returns the index of the root that the specified <tt>element</tt> maps
+     * the root at the specified <tt>index</tt> to. The index <tt>-1</tt>,
+     * which stands for no root, is returned unchanged.
+     *
+     * @param element index of the element
+     * @param index index of the root, or <tt>-1</tt>
+     * @return index of the transformed root, or <tt>-1</tt>
+     * @throws IndexOutOfBoundsException if there is no such element or root
+     */
+    public int mapIndex(int element, int index) {
+        return index < 0 ? index : permutations[element][index];
+    }
+
+    /**
+     * This class matches roots transformed around a center to the original
+     * ones. Roots are looked up by a binary search over their real parts, so
+     * that a transformation that does not map the roots onto themselves is
+     * usually rejected after the first few roots.
+     *
+     * @author Mario Bobic
+     */
+    private static class Matcher {
+        /** Real parts of the roots. */
+        private final double[] rootsRe;
+        /** Imaginary parts of the roots. */
+        private final double[] rootsIm;
+        /** Root indexes sorted by real part. */
+        private final Integer[] sorted;
+        /** Distance under which the roots are equal. */
+        private final double tolerance;
+        /** Real part of the center of the transformation. */
+        private final double centerRe;
+        /** Imaginary part of the center of the transformation. */
+        private final double centerIm;
+
+        /**
+         * Constructs an instance of Matcher with the specified parameters.
+         *
+         * @param rootsRe real parts of the roots
+         * @param rootsIm imaginary parts of the roots
+         * @param tolerance distance under which the roots are equal
+         * @param centerRe real part of the center of the transformation
+         * @param centerIm imaginary part of the center of the transformation
+         */
+        public Matcher(final double[] rootsRe, double[] rootsIm, double tolerance,
+                double centerRe, double centerIm) {
+            this.rootsRe = rootsRe;
+            this.rootsIm = rootsIm;
+            this.tolerance = tolerance;
+            this.centerRe = centerRe;
+            this.centerIm = centerIm;
+
+            sorted = new Integer[rootsRe.length];
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = i;
+            }
+            Arrays.sort(sorted, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer i, Integer j) {
+                    return Double.compare(rootsRe[i], rootsRe[j]);
+                }
+            });
+        }
+
+        /**
+         * Rotates every root around the center by the specified
+         * <tt>angle</tt>, after conjugating it around the center if
+         * <tt>reflected</tt> is true. Returns the array whose element at
+         * index <tt>i</tt> is the index of the root equal to the transformed
+         * root <tt>i</tt>, or <tt>null</tt> if some transformed root is not
+         * equal to any of the roots that are not matched yet.
+         *
+         * @param angle the angle of rotation
+         * @param reflected true if the roots are conjugated first
+         * @return the permutation of root indexes, or <tt>null</tt>
+         */
+        public int[] match(double angle, boolean reflected) {
+            double cos = Math.cos(angle);
+            double sin = Math.sin(angle);
+
+            int n = rootsRe.length;
+            int[] permutation = new int[n];
+            boolean[] used = new boolean[n];
+
+            for (int i = 0; i < n; i++) {
+                double wRe = rootsRe[i] - centerRe;
+                double wIm = reflected ? centerIm - rootsIm[i] : rootsIm[i] - centerIm;
+
+                int j = find(centerRe + wRe*cos - wIm*sin, centerIm + wRe*sin + wIm*cos, used);
+                if (j < 0) {
+                    return null;
+                }
+                used[j] = true;
+                permutation[i] = j;
+            }
+
+            return permutation;
+        }
+
+        /**
+         * Returns the index of a root that is not used yet and is equal to
+         * the point <tt>re + im*i</tt>, or <tt>-1</tt> if there is none.
+         *
+         * @param re real part of the point
+         * @param im imaginary part of the point
+         * @param used flags of the roots that are already matched
+         * @return index of an equal root, or <tt>-1</tt>
+         */
+        private int find(double re, double im, boolean[] used) {
+            // first sorted position whose real part is not below re - tolerance
+            int low = 0;
+            int high = sorted.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (rootsRe[sorted[mid]] < re - tolerance) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+
+            for (int k = low; k < sorted.length && rootsRe[sorted[k]] <= re + tolerance; k++) {
+                int j = sorted[k];
+                if (!used[j] && Math.hypot(rootsRe[j] - re, rootsIm[j] - im) <= tolerance) {
+                    return j;
+                }
+            }
+
+            return -1;
+        }
+    }
+
+}
@@ -0,0 +1,172 @@
+package hr.fer.zemris.java.fractals;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * This class is a cache of image tiles, which are arrays of <tt>short</tt>
+ * color indexes, mapped by keys of type <tt>K</tt>. The total size of the
+ * cached tiles is limited by the capacity given in bytes. When a new tile
+ * would exceed it, the least recently used tiles are evicted.
+ * <p>
+ * The cache counts the number of hits and misses of the
+ * {@linkplain #get(Object)} method and the number of evicted tiles. Tiles
+ * are stored and returned as they are, so they must not be modified once
+ * they are put into the cache.
+ * <p>
+ * All methods of this class are synchronized, so it may be used by multiple
+ * threads.
+ *
+ * @param <K> type of the keys
+ * @author Mario Bobic
+ */
+public class TileCache<K> {
+
+    /** Maximum total size of the tiles in bytes. */
+    private final long capacity;
+    /** Tiles mapped by their keys, in the order of access. */
+    private final Map<K, short[]> tiles = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Total size of the tiles in bytes. */
+    private long size;
+    /** Number of tiles that were found. */
+    private long hits;
+    /** Number of tiles that were not found. */
+    private long misses;
+    /** Number of tiles that were evicted. */
+    private long evictions;
+
+    /**
+     * Constructs an instance of TileCache with the specified
+     * <tt>capacity</tt> in bytes.
+     *
+     * @param capacity maximum total size of the tiles in bytes
+     * @throws IllegalArgumentException if <tt>capacity &lt; 0</tt>
+     */
+    public TileCache(long capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+        }
+
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the tile mapped by the specified <tt>key</tt>, or
+     * <tt>null</tt> if there is none, and counts it as a hit or a miss.
+     *
+     * @param key key of the tile
+     * @return the tile mapped by the key, or <tt>null</tt>
+     */
+    public synchronized short[] get(K key) {
+        short[] tile = tiles.get(key);
+        if (tile == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return tile;
+    }
+
+    /**
+     * Maps the specified <tt>tile</tt> by the specified <tt>key</tt> and
+     * evicts the least recently used tiles until the total size is within the
+     * capacity. A tile that is larger than the whole capacity is not cached.
+     *
+     * @param key key of the tile
+     * @param tile the tile to be cached
+     * @throws NullPointerException if <tt>key</tt> or <tt>tile</tt> is <tt>null</tt>
+     */
+    public synchronized void put(K key, short[] tile) {
+        Objects.requireNonNull(key, "Key must not be null.");
+        Objects.requireNonNull(tile, "Tile must not be null.");
+
+        if (sizeOf(tile) > capacity) {
+            return;
+        }
+
+        short[] old = tiles.put(key, tile);
+        if (old != null) {
+            size -= sizeOf(old);
+        }
+        size += sizeOf(tile);
+
+        // the new tile is the most recently used one, so it is never reached
+        Iterator<short[]> iterator = tiles.values().iterator();
+        while (size > capacity) {
+            size -= sizeOf(iterator.next());
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Returns the number of cached tiles.
+     *
+     * @return the number of cached tiles
+     */
+    public synchronized int count() {
+        return tiles.size();
+    }
+
+    /**
+     * Returns the total size of the cached tiles in bytes.
+     *
+     * @return the total size of the cached tiles in bytes
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of calls of the {@linkplain #get(Object)} method
+     * that found a tile.
+     *
+     * @return the number of hits
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of calls of the {@linkplain #get(Object)} method
+     * that did not find a tile.
+     *
+     * @return the number of misses
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of tiles that were evicted to stay within the
+     * capacity.
+     *
+     * @return the number of evictions
+     */
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the size of the specified <tt>tile</tt> in bytes.
+     *
+     * @param tile tile whose size is to be returned
+     * @return size of the tile in bytes
+     */
+    private static long sizeOf(short[] tile) {
+        return (long) tile.length * Short.BYTES;
+    }
+
+    /**
+     * Returns a string representation of the cache statistics.
+     */
+    @Override
+    public synchronized String toString() {
+        return "hits=" + hits + " misses=" + misses + " evictions=" + evictions
+                + " tiles=" + tiles.size() + " bytes=" + size;
+    }
+
+}
@@ -20,6 +20,14 @@ public class RayCaster {
     /** Ambient light color. */
     private static final short[] COLOR_AMBIENT = {15, 15, 15};
 
+    /**
+     * Type of the structure used for finding the intersections of rays with
+     * the objects of a scene, selected by the <tt>raytracer.accelerator</tt>
+     * system property. Defaults to {@linkplain AcceleratorType#BVH}.
+     */
+    private static final AcceleratorType acceleratorType =
+            AcceleratorType.valueOf(System.getProperty("raytracer.accelerator", "bvh").toUpperCase());
+
     /**
      * Program entry point.
      *
@@ -42,6 +50,9 @@ public class RayCaster {
     private static IRayTracerProducer getIRayTracerProducer() {
         return new IRayTracerProducer() {
 
+            /** The scene that is rendered, compiled once for all frames. */
+            private final Scene scene = RayTracerViewer.createPredefinedScene();
+
             @Override
             public void produce(Point3D eye, Point3D view, Point3D viewUp,
                     double horizontal, double vertical, int width, int height,
@@ -65,9 +76,10 @@ public class RayCaster {
                 // upper-left corner
                 Point3D screenCorner = determineScreenCorner(view, xAxis, yAxis, horizontal, vertical);
 
-                Scene scene = RayTracerViewer.createPredefinedScene();
+                CompiledScene compiled = CompiledScene.of(scene, acceleratorType);
 
                 short[] rgb = new short[3];
+                HitRecord hit = new HitRecord();
                 int offset = 0;
                 for (int y = 0; y < height; y++) {
                     for (int x = 0; x < width; x++) {
@@ -76,7 +88,7 @@ public class RayCaster {
                         );
                         Ray ray = Ray.fromPoints(eye, screenPoint);
 
-                        tracer(scene, ray, rgb);
+                        tracer(compiled, ray, rgb, hit);
 
                         red[offset] = rgb[0] > 255 ? 255 : rgb[0];
                         green[offset] = rgb[1] > 255 ? 255 : rgb[1];
@@ -194,45 +206,22 @@ public class RayCaster {
      * Traces the whole scene with the specified <tt>ray</tt> and fills the
      * <tt>rgb</tt> array of <tt>short</tt> integers with result colors.
      *
-     * @param scene scene to be traced
+     * @param scene compiled scene to be traced
      * @param ray ray which is used for tracing
      * @param rgb array to which the traced colors will be stored
+     * @param hit record reused for finding the closest intersection
      */
-    private static void tracer(Scene scene, Ray ray, short[] rgb) {
-        RayIntersection intersection = getClosestIntersection(scene, ray);
+    private static void tracer(CompiledScene scene, Ray ray, short[] rgb, HitRecord hit) {
+        hit.reset();
+        scene.getAccelerator().findClosestHit(ray, hit);
 
-        if (intersection == null) {
+        if (!hit.isHit()) {
             setColor(COLOR_EMPTY, rgb);
         } else {
-            setColor(determineSceneColor(scene, ray, intersection), rgb);
+            setColor(determineSceneColor(scene, ray, hit.toRayIntersection()), rgb);
         }
     }
 
-    /**
-     * Returns the closest intersection of the specified <tt>ray</tt> with an
-     * object in the specified <tt>scene</tt>.
-     *
-     * @param scene scene in which the lights and objects are located
-     * @param ray ray for which the closest intersection is to be returned
-     * @return the closest intersection of the ray with an object in scene
-     */
-    private static RayIntersection getClosestIntersection(Scene scene, Ray ray) {
-        RayIntersection closest = null;
-
-        for (GraphicalObject go : scene.getObjects()) {
-            RayIntersection intersection = go.findClosestRayIntersection(ray);
-            if (intersection == null) {
-                continue;
-            }
-
-            if (closest == null || intersection.getDistance() < closest.getDistance()) {
-                closest = intersection;
-            }
-        }
-
-        return closest;
-    }
-
     /**
      * Copies the data from the specified <tt>source</tt> array to the specified
      * <tt>destination</tt> array. The specified arrays must be of the same
@@ -254,34 +243,26 @@ public class RayCaster {
      * Determines the scene color depending on the specified ray intersection
      * with the object.
      *
-     * @param scene scene in which the lights and objects are located
+     * @param scene compiled scene in which the lights and objects are located
      * @param fromEye ray that comes from the eye
      * @param intersection intersection for which the color is to be determined
      * @return an array of colors determined from the scene
      */
-    private static short[] determineSceneColor(Scene scene, Ray fromEye, RayIntersection intersection) {
+    private static short[] determineSceneColor(CompiledScene scene, Ray fromEye, RayIntersection intersection) {
         short[] color = COLOR_AMBIENT.clone();
+        IntersectionAccelerator accelerator = scene.getAccelerator();
 
-        for (LightSource lightSource : scene.getLights()) {
+        for (int i = 0, n = scene.getLightCount(); i < n; i++) {
+            LightSource lightSource = scene.getLight(i);
             Ray fromSource = Ray.fromPoints(
                 lightSource.getPoint(),
                 intersection.getPoint()
             );
 
-            RayIntersection closestIntersection = getClosestIntersection(
-                scene, fromSource
-            );
-
-            // if the intersection does not exist
-            if (closestIntersection == null) {
-                continue;
-            }
-
-            double closestDistance = lightSource.getPoint().sub(closestIntersection.getPoint()).norm();
             double targetDistance = lightSource.getPoint().sub(intersection.getPoint()).norm();
 
-            // If closest object is not closest to the light (it is covered)
-            if (Math.abs(closestDistance - targetDistance) > LIMIT) {
+            // If any object is closer to the light (it is covered)
+            if (accelerator.isOccluded(fromSource, targetDistance - LIMIT)) {
                 continue;
             }
 
@@ -23,6 +23,22 @@ public class RayCasterParallel {
     /** Ambient light color. */
     private static final short[] COLOR_AMBIENT = {15, 15, 15};
 
+    /**
+     * Type of the structure used for finding the intersections of rays with
+     * the objects of a scene, selected by the <tt>raytracer.accelerator</tt>
+     * system property. Defaults to {@linkplain AcceleratorType#BVH}.
+     */
+    private static final AcceleratorType acceleratorType =
+            AcceleratorType.valueOf(System.getProperty("raytracer.accelerator", "bvh").toUpperCase());
+
+    /**
+     * Number of threads of the pool that renders the images, set by the
+     * <tt>raytracer.threads</tt> system property. Defaults to the number of
+     * processors available to the Java virtual machine.
+     */
+    private static final int threads = Math.max(1,
+            Integer.getInteger("raytracer.threads", Runtime.getRuntime().availableProcessors()));
+
     /**
      * Program entry point.
      *
@@ -38,18 +54,34 @@ public class RayCasterParallel {
 
     /**
      * Returns an implementation of the {@link IRayTracerProducer ray tracer
-     * producer}.
+     * producer}. The producer renders every request on the same pool of
+     * threads and stops rendering a request as soon as a newer one arrives,
+     * whose result is then the only one delivered to the observer.
      *
      * @return an implementation of the ray tracer producer
      */
     private static IRayTracerProducer getIRayTracerProducer() {
         return new IRayTracerProducer() {
 
+            /** Work-stealing pool shared by all requests, with daemon threads. */
+            private final ForkJoinPool pool = new ForkJoinPool(threads);
+
+            /** The most recent request, whose result is still to be delivered. */
+            private Request currentRequest;
+
+            /** The scene that is rendered, compiled once for all frames. */
+            private final Scene scene = RayTracerViewer.createPredefinedScene();
+
             @Override
             public void produce(Point3D eye, Point3D view, Point3D viewUp,
                     double horizontal, double vertical, int width, int height,
                     long requestNo, IRayTracerResultObserver observer) {
 
+                Request request = startRequest(requestNo);
+                if (request == null) {
+                    return; // a newer request has already started
+                }
+
                 System.out.println("Započinjem izračune...");
 
                 short[] red = new short[width * height];
@@ -68,7 +100,7 @@ public class RayCasterParallel {
                 // upper-left corner
                 Point3D screenCorner = determineScreenCorner(view, xAxis, yAxis, horizontal, vertical);
 
-                Scene scene = RayTracerViewer.createPredefinedScene();
+                CompiledScene compiled = CompiledScene.of(scene, acceleratorType);
 
                 /**
                  * This class is an implementation of {@linkplain RecursiveAction}
@@ -104,6 +136,10 @@ public class RayCasterParallel {
 
                     @Override
                     public void compute() {
+                        if (request.isCancelled()) {
+                            return;
+                        }
+
                         if (ymax - ymin <= LINE_TRESHOLD) {
                             computeDirect();
                             return;
@@ -121,16 +157,21 @@ public class RayCasterParallel {
                      */
                     private void computeDirect() {
                         short[] rgb = new short[3];
+                        HitRecord hit = new HitRecord();
                         int offset = ymin * width;
 
                         for(int y = ymin; y < ymax; y++) {
+                            if (request.isCancelled()) {
+                                return;
+                            }
+
                             for(int x = 0; x < width; x++) {
                                 Point3D screenPoint = determineScreenPoint(
                                     screenCorner, x, y, xAxis, yAxis, width, height, horizontal, vertical
                                 );
                                 Ray ray = Ray.fromPoints(eye, screenPoint);
 
-                                tracer(scene, ray, rgb);
+                                tracer(compiled, ray, rgb, hit);
 
                                 red[offset] = rgb[0] > 255 ? 255 : rgb[0];
                                 green[offset] = rgb[1] > 255 ? 255 : rgb[1];
@@ -143,13 +184,40 @@ public class RayCasterParallel {
 
                 };
 
-                ForkJoinPool pool = new ForkJoinPool();
                 pool.invoke(new CalculationAction(0, height));
-                pool.shutdown();
 
-                System.out.println("Izračuni gotovi...");
-                observer.acceptResult(red, green, blue, requestNo);
-                System.out.println("Dojava gotova...");
+                synchronized (this) {
+                    if (request.isCancelled()) {
+                        System.out.println("Izračuni prekinuti...");
+                        return; // superseded while computing
+                    }
+
+                    System.out.println("Izračuni gotovi...");
+                    observer.acceptResult(red, green, blue, requestNo);
+                    System.out.println("Dojava gotova...");
+                }
+            }
+
+            /**
+             * Starts tracking a new request with the specified
+             * <tt>requestNo</tt> and cancels the rendering of the previous
+             * request. Returns <tt>null</tt> if a request with a greater number
+             * has already been started, as the specified one is then superseded
+             * before it even began.
+             *
+             * @param requestNo number of the request
+             * @return the started request, or <tt>null</tt> if it is superseded
+             */
+            private synchronized Request startRequest(long requestNo) {
+                if (currentRequest != null) {
+                    if (currentRequest.requestNo > requestNo) {
+                        return null;
+                    }
+                    currentRequest.cancel();
+                }
+
+                currentRequest = new Request(requestNo);
+                return currentRequest;
             }
 
             /**
@@ -255,45 +323,22 @@ public class RayCasterParallel {
      * Traces the whole scene with the specified <tt>ray</tt> and fills the
      * <tt>rgb</tt> array of <tt>short</tt> integers with result colors.
      *
-     * @param scene scene to be traced
+     * @param scene compiled scene to be traced
      * @param ray ray which is used for tracing
      * @param rgb array to which the traced colors will be stored
+     * @param hit record reused for finding the closest intersection
      */
-    private static void tracer(Scene scene, Ray ray, short[] rgb) {
-        RayIntersection intersection = getClosestIntersection(scene, ray);
+    private static void tracer(CompiledScene scene, Ray ray, short[] rgb, HitRecord hit) {
+        hit.reset();
+        scene.getAccelerator().findClosestHit(ray, hit);
 
-        if (intersection == null) {
+        if (!hit.isHit()) {
             setColor(COLOR_EMPTY, rgb);
         } else {
-            setColor(determineSceneColor(scene, ray, intersection), rgb);
+            setColor(determineSceneColor(scene, ray, hit.toRayIntersection()), rgb);
         }
     }
 
-    /**
-     * Returns the closest intersection of the specified <tt>ray</tt> with an
-     * object in the specified <tt>scene</tt>.
-     *
-     * @param scene scene in which the lights and objects are located
-     * @param ray ray for which the closest intersection is to be returned
-     * @return the closest intersection of the ray with an object in scene
-     */
-    private static RayIntersection getClosestIntersection(Scene scene, Ray ray) {
-        RayIntersection closest = null;
-
-        for (GraphicalObject go : scene.getObjects()) {
-            RayIntersection intersection = go.findClosestRayIntersection(ray);
-            if (intersection == null) {
-                continue;
-            }
-
-            if (closest == null || intersection.getDistance() < closest.getDistance()) {
-                closest = intersection;
-            }
-        }
-
-        return closest;
-    }
-
     /**
      * Copies the data from the specified <tt>source</tt> array to the specified
      * <tt>destination</tt> array. The specified arrays must be of the same
@@ -315,34 +360,26 @@ public class RayCasterParallel {
      * Determines the scene color depending on the specified ray intersection
      * with the object.
      *
-     * @param scene scene in which the lights and objects are located
+     * @param scene compiled scene in which the lights and objects are located
      * @param fromEye ray that comes from the eye
      * @param intersection intersection for which the color is to be determined
      * @return an array of colors determined from the scene
      */
-    private static short[] determineSceneColor(Scene scene, Ray fromEye, RayIntersection intersection) {
+    private static short[] determineSceneColor(CompiledScene scene, Ray fromEye, RayIntersection intersection) {
         short[] color = COLOR_AMBIENT.clone();
+        IntersectionAccelerator accelerator = scene.getAccelerator();
 
-        for (LightSource lightSource : scene.getLights()) {
+        for (int i = 0, n = scene.getLightCount(); i < n; i++) {
+            LightSource lightSource = scene.getLight(i);
             Ray fromSource = Ray.fromPoints(
                 lightSource.getPoint(),
                 intersection.getPoint()
             );
 
-            RayIntersection closestIntersection = getClosestIntersection(
-                scene, fromSource
-            );
-
-            // if the intersection does not exist
-            if (closestIntersection == null) {
-                continue;
-            }
-
-            double closestDistance = lightSource.getPoint().sub(closestIntersection.getPoint()).norm();
             double targetDistance = lightSource.getPoint().sub(intersection.getPoint()).norm();
 
-            // If closest object is not closest to the light (it is covered)
-            if (Math.abs(closestDistance - targetDistance) > LIMIT) {
+            // If any object is closer to the light (it is covered)
+            if (accelerator.isOccluded(fromSource, targetDistance - LIMIT)) {
                 continue;
             }
 
@@ -393,4 +430,45 @@ public class RayCasterParallel {
         return new short[] {r, g, b};
     }
 
+    /**
+     * This class tracks a single call of the
+     * {@linkplain IRayTracerProducer#produce produce} method. When a request
+     * is cancelled, its rendering stops at the start of the next row and its
+     * result is never delivered to the observer.
+     *
+     * @author Mario Bobic
+     */
+    static class Request {
+        /** Number of this request. */
+        private final long requestNo;
+        /** Indicates whether this request has been cancelled. */
+        private volatile boolean cancelled;
+
+        /**
+         * Constructs an instance of <tt>Request</tt> with the specified
+         * request number.
+         *
+         * @param requestNo number of this request
+         */
+        public Request(long requestNo) {
+            this.requestNo = requestNo;
+        }
+
+        /**
+         * Cancels this request.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * Returns true if this request has been cancelled.
+         *
+         * @return true if this request has been cancelled
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
 }
@@ -0,0 +1,34 @@
+package hr.fer.zemris.java.raytracer.model;
+
+import java.util.List;
+
+/**
+ * Types of the {@linkplain IntersectionAccelerator} that may be built from
+ * the objects of a scene.
+ *
+ * @author Mario Bobic
+ */
+public enum AcceleratorType {
+    /** Tests every object, see {@linkplain BruteForceAccelerator}. */
+    BRUTE_FORCE,
+    /** Traverses a {@linkplain BoundingVolumeHierarchy}. */
+    BVH;
+
+    /**
+     * Builds an accelerator of this type from the specified objects.
+     *
+     * @param objects objects in the order of the scene
+     * @return an accelerator of this type
+     */
+    public IntersectionAccelerator create(List<GraphicalObject> objects) {
+        switch (this) {
+        case BRUTE_FORCE:
+            return new BruteForceAccelerator(objects);
+        case BVH:
+            return new BoundingVolumeHierarchy(objects);
+        default:
+            throw new IllegalStateException("Unknown accelerator type: " + this);
+        }
+    }
+
+}
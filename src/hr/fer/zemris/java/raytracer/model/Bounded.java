@@ -0,0 +1,31 @@
+package hr.fer.zemris.java.raytracer.model;
+
+/**
+ * This interface is implemented by graphical objects that are enclosed by an
+ * axis-aligned bounding box, which allows them to be organized in an
+ * {@linkplain IntersectionAccelerator} such as the
+ * {@linkplain BoundingVolumeHierarchy}.
+ *
+ * @author Mario Bobic
+ */
+public interface Bounded {
+
+    /**
+     * Returns the corner of the bounding box with the lowest coordinates.
+     * Every point of the object must have coordinates greater than or equal
+     * to the coordinates of this corner.
+     *
+     * @return the corner of the bounding box with the lowest coordinates
+     */
+    Point3D getMinimum();
+
+    /**
+     * Returns the corner of the bounding box with the highest coordinates.
+     * Every point of the object must have coordinates less than or equal to
+     * the coordinates of this corner.
+     *
+     * @return the corner of the bounding box with the highest coordinates
+     */
+    Point3D getMaximum();
+
+}
@@ -0,0 +1,586 @@
+package hr.fer.zemris.java.raytracer.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An {@linkplain IntersectionAccelerator} that organizes the
+ * {@linkplain Bounded} objects of a scene into a binary tree of axis-aligned
+ * bounding boxes. A ray is tested only against the objects of the boxes it
+ * passes through, nearer boxes first, and boxes that are farther than the
+ * closest intersection found so far are skipped, so that an intersection is
+ * found in roughly logarithmic time of the number of objects.
+ * <p>
+ * The tree is built top-down by the surface area heuristic: objects are
+ * sorted into bins by their centroids and each node is split at the bin
+ * boundary that minimizes the expected cost of tracing a ray through the
+ * children. Objects that are not bounded are tested for every ray.
+ * <p>
+ * Bounding boxes are padded by a tiny fraction of the extent of the scene, so
+ * that rounding errors of the slab test never skip an object that the object
+ * itself would report as intersected. Equally distant intersections are
+ * resolved in favor of the object that comes first in the scene, producing
+ * the same result as the {@linkplain BruteForceAccelerator}.
+ *
+ * @author Mario Bobic
+ */
+public class BoundingVolumeHierarchy implements IntersectionAccelerator {
+
+    /** Number of objects in a node that is never split. */
+    static final int MIN_SPLIT_SIZE = 3;
+    /** Number of objects in a node that is always split. */
+    static final int MAX_LEAF_SIZE = 16;
+    /** Number of bins into which the centroids are sorted when splitting a node. */
+    static final int BINS = 16;
+    /** Cost of traversing a node, relative to the cost of testing an object. */
+    static final double TRAVERSAL_COST = 1;
+    /** Depth from which nodes are split in halves, without the heuristic. */
+    static final int MAX_HEURISTIC_DEPTH = 64;
+    /** Padding of the bounding boxes, relative to the extent of the scene. */
+    static final double PADDING = 1E-9;
+
+    /** Objects in the order of the scene. */
+    private final GraphicalObject[] objects;
+    /** Scene indexes of the objects that are not bounded. */
+    private final int[] unbounded;
+    /** Scene indexes of the bounded objects, grouped by leaves. */
+    private final int[] order;
+
+    /** Bounding boxes of the nodes, as minimum x, y, z and maximum x, y, z. */
+    private double[] bounds;
+    /** First object index in the order of a leaf, or the second child of a node. */
+    private int[] offsets;
+    /** Number of objects of a leaf, or 0 for an inner node. */
+    private int[] counts;
+    /** Number of nodes, where the root is node 0 and a first child follows its parent. */
+    private int nodeCount;
+    /** Number of inner nodes on the longest path from the root to a leaf. */
+    private int depth;
+
+    /** Traversal stack of each thread, so that tracing a ray creates no objects. */
+    private final ThreadLocal<TraversalStack> stacks = new ThreadLocal<TraversalStack>() {
+        @Override
+        protected TraversalStack initialValue() {
+            return new TraversalStack(depth + 1);
+        }
+    };
+
+    /** Padded bounding boxes of the objects while building, by scene index. */
+    private double[] objectBounds;
+    /** Centroids of the objects while building, by scene index. */
+    private double[] centroids;
+
+    /**
+     * Constructs an instance of <tt>BoundingVolumeHierarchy</tt> built from
+     * the specified objects.
+     *
+     * @param objects objects in the order of the scene
+     */
+    public BoundingVolumeHierarchy(List<GraphicalObject> objects) {
+        this.objects = objects.toArray(new GraphicalObject[objects.size()]);
+
+        int n = this.objects.length;
+        objectBounds = new double[6*n];
+        centroids = new double[3*n];
+        int[] bounded = new int[n];
+        int[] unbounded = new int[n];
+        int boundedCount = 0;
+        int unboundedCount = 0;
+        double scale = 0;
+
+        for (int i = 0; i < n; i++) {
+            if (!collectBounds(i)) {
+                unbounded[unboundedCount++] = i;
+                continue;
+            }
+            bounded[boundedCount++] = i;
+            for (int k = 0; k < 6; k++) {
+                scale = Math.max(scale, Math.abs(objectBounds[6*i + k]));
+            }
+        }
+
+        double padding = Math.max(scale * PADDING, Double.MIN_NORMAL);
+        for (int c = 0; c < boundedCount; c++) {
+            int i = bounded[c];
+            for (int k = 0; k < 3; k++) {
+                objectBounds[6*i + k] -= padding;
+                objectBounds[6*i + k + 3] += padding;
+                centroids[3*i + k] = (objectBounds[6*i + k] + objectBounds[6*i + k + 3]) / 2;
+            }
+        }
+
+        this.unbounded = Arrays.copyOf(unbounded, unboundedCount);
+        this.order = Arrays.copyOf(bounded, boundedCount);
+
+        int capacity = Math.max(2*boundedCount - 1, 0);
+        bounds = new double[6*capacity];
+        offsets = new int[capacity];
+        counts = new int[capacity];
+        if (boundedCount > 0) {
+            build(0, boundedCount, 0);
+        }
+
+        bounds = Arrays.copyOf(bounds, 6*nodeCount);
+        offsets = Arrays.copyOf(offsets, nodeCount);
+        counts = Arrays.copyOf(counts, nodeCount);
+        objectBounds = null;
+        centroids = null;
+    }
+
+    /**
+     * Stores the bounding box of the object with the specified scene index,
+     * if it is bounded by finite coordinates.
+     *
+     * @param i scene index of the object
+     * @return true if the object is bounded, false otherwise
+     */
+    private boolean collectBounds(int i) {
+        if (!(objects[i] instanceof Bounded)) {
+            return false;
+        }
+
+        Bounded object = (Bounded) objects[i];
+        Point3D min = object.getMinimum();
+        Point3D max = object.getMaximum();
+        double[] box = {min.x, min.y, min.z, max.x, max.y, max.z};
+        for (int k = 0; k < 3; k++) {
+            if (!Double.isFinite(box[k]) || !Double.isFinite(box[k + 3]) || box[k] > box[k + 3]) {
+                return false;
+            }
+        }
+
+        System.arraycopy(box, 0, objectBounds, 6*i, 6);
+        return true;
+    }
+
+    /**
+     * Builds the node for the objects of the order from <tt>start</tt> to
+     * <tt>end</tt>, followed by its children.
+     *
+     * @param start index of the first object in the order, inclusive
+     * @param end index of the last object in the order, exclusive
+     * @param level number of ancestors of the node
+     */
+    private void build(int start, int end, int level) {
+        int node = nodeCount++;
+        int count = end - start;
+        depth = Math.max(depth, level);
+
+        // bounds of the node and of the centroids
+        double[] centroidBounds = new double[6];
+        Arrays.fill(bounds, 6*node, 6*node + 3, Double.POSITIVE_INFINITY);
+        Arrays.fill(bounds, 6*node + 3, 6*node + 6, Double.NEGATIVE_INFINITY);
+        Arrays.fill(centroidBounds, 0, 3, Double.POSITIVE_INFINITY);
+        Arrays.fill(centroidBounds, 3, 6, Double.NEGATIVE_INFINITY);
+        for (int p = start; p < end; p++) {
+            int i = order[p];
+            for (int k = 0; k < 3; k++) {
+                bounds[6*node + k] = Math.min(bounds[6*node + k], objectBounds[6*i + k]);
+                bounds[6*node + k + 3] = Math.max(bounds[6*node + k + 3], objectBounds[6*i + k + 3]);
+                centroidBounds[k] = Math.min(centroidBounds[k], centroids[3*i + k]);
+                centroidBounds[k + 3] = Math.max(centroidBounds[k + 3], centroids[3*i + k]);
+            }
+        }
+
+        if (count < MIN_SPLIT_SIZE) {
+            makeLeaf(node, start, count);
+            return;
+        }
+
+        boolean leafAllowed = count <= MAX_LEAF_SIZE;
+        int mid = level < MAX_HEURISTIC_DEPTH ? split(node, start, end, centroidBounds, leafAllowed) : -1;
+        if (mid < 0) {
+            if (leafAllowed) {
+                makeLeaf(node, start, count);
+                return;
+            }
+            // all centroids coincide, the order is as good as any other
+            mid = (start + end) >>> 1;
+        }
+
+        build(start, mid, level + 1);
+        offsets[node] = nodeCount;
+        counts[node] = 0;
+        build(mid, end, level + 1);
+    }
+
+    /**
+     * Makes the specified node a leaf with the specified objects.
+     *
+     * @param node index of the node
+     * @param start index of the first object in the order
+     * @param count number of objects
+     */
+    private void makeLeaf(int node, int start, int count) {
+        offsets[node] = start;
+        counts[node] = count;
+    }
+
+    /**
+     * Partitions the objects of the order from <tt>start</tt> to
+     * <tt>end</tt> by the split with the lowest cost estimated by the surface
+     * area heuristic and returns the index where the second part begins, or
+     * returns <tt>-1</tt> if the centroids can not be split or if a leaf is
+     * allowed and splitting the node costs more than testing all of its
+     * objects, in which case the order is not changed.
+     *
+     * @param node index of the node
+     * @param start index of the first object in the order, inclusive
+     * @param end index of the last object in the order, exclusive
+     * @param centroidBounds bounds of the centroids of the objects
+     * @param leafAllowed true if the node may be a leaf
+     * @return the index where the second part begins, or <tt>-1</tt>
+     */
+    private int split(int node, int start, int end, double[] centroidBounds, boolean leafAllowed) {
+        int count = end - start;
+        double bestCost = leafAllowed ? count : Double.POSITIVE_INFINITY;
+        int bestAxis = -1;
+        int bestBin = -1;
+
+        int[] binCounts = new int[BINS];
+        double[] binBounds = new double[6*BINS];
+        double[] rightAreas = new double[BINS];
+        double[] box = new double[6];
+        double area = area(bounds, 6*node);
+
+        for (int axis = 0; axis < 3; axis++) {
+            double min = centroidBounds[axis];
+            double extent = centroidBounds[axis + 3] - min;
+            if (!(extent > 0)) {
+                continue;
+            }
+
+            Arrays.fill(binCounts, 0);
+            for (int b = 0; b < BINS; b++) {
+                resetBox(binBounds, 6*b);
+            }
+            for (int p = start; p < end; p++) {
+                int i = order[p];
+                int b = bin(centroids[3*i + axis], min, extent);
+                binCounts[b]++;
+                extendBox(binBounds, 6*b, objectBounds, 6*i);
+            }
+
+            // areas of the bins from the right
+            resetBox(box, 0);
+            for (int b = BINS - 1; b > 0; b--) {
+                extendBox(box, 0, binBounds, 6*b);
+                rightAreas[b] = area(box, 0);
+            }
+
+            // sweep from the left, splitting after bin b
+            resetBox(box, 0);
+            int leftCount = 0;
+            for (int b = 0; b < BINS - 1; b++) {
+                extendBox(box, 0, binBounds, 6*b);
+                leftCount += binCounts[b];
+                int rightCount = count - leftCount;
+                if (leftCount == 0 || rightCount == 0) {
+                    continue;
+                }
+
+                double cost = TRAVERSAL_COST + (area(box, 0)*leftCount + rightAreas[b + 1]*rightCount) / area;
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestBin = b;
+                }
+            }
+        }
+
+        if (bestAxis < 0) {
+            return -1;
+        }
+
+        // partition by the bin of the centroid
+        double min = centroidBounds[bestAxis];
+        double extent = centroidBounds[bestAxis + 3] - min;
+        int left = start;
+        int right = end - 1;
+        while (left <= right) {
+            if (bin(centroids[3*order[left] + bestAxis], min, extent) <= bestBin) {
+                left++;
+            } else {
+                int temp = order[left];
+                order[left] = order[right];
+                order[right] = temp;
+                right--;
+            }
+        }
+        return left;
+    }
+
+    /**
+     * Returns the bin of the specified centroid coordinate.
+     *
+     * @param coordinate the centroid coordinate
+     * @param min the lowest centroid coordinate
+     * @param extent difference of the highest and lowest centroid coordinate
+     * @return the bin of the centroid coordinate
+     */
+    private static int bin(double coordinate, double min, double extent) {
+        int b = (int) ((coordinate - min) / extent * BINS);
+        return Math.min(b, BINS - 1);
+    }
+
+    /**
+     * Resets the box at the specified offset to an empty box.
+     *
+     * @param boxes array of boxes
+     * @param offset offset of the box
+     */
+    private static void resetBox(double[] boxes, int offset) {
+        Arrays.fill(boxes, offset, offset + 3, Double.POSITIVE_INFINITY);
+        Arrays.fill(boxes, offset + 3, offset + 6, Double.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * Extends the box at the specified offset to enclose another box.
+     *
+     * @param boxes array of the box that is extended
+     * @param offset offset of the box that is extended
+     * @param other array of the enclosed box
+     * @param otherOffset offset of the enclosed box
+     */
+    private static void extendBox(double[] boxes, int offset, double[] other, int otherOffset) {
+        for (int k = 0; k < 3; k++) {
+            boxes[offset + k] = Math.min(boxes[offset + k], other[otherOffset + k]);
+            boxes[offset + k + 3] = Math.max(boxes[offset + k + 3], other[otherOffset + k + 3]);
+        }
+    }
+
+    /**
+     * Returns half of the surface area of the box at the specified offset,
+     * or 0 for an empty box.
+     *
+     * @param boxes array of boxes
+     * @param offset offset of the box
+     * @return half of the surface area of the box
+     */
+    private static double area(double[] boxes, int offset) {
+        double dx = boxes[offset + 3] - boxes[offset];
+        double dy = boxes[offset + 4] - boxes[offset + 1];
+        double dz = boxes[offset + 5] - boxes[offset + 2];
+        if (!(dx >= 0)) {
+            return 0;
+        }
+        return dx*dy + dy*dz + dz*dx;
+    }
+
+    @Override
+    public boolean findClosestHit(Ray ray, HitRecord hit) {
+        int closestIndex = -1;
+
+        for (int index : unbounded) {
+            if (intersect(index, ray, hit, closestIndex)) {
+                closestIndex = index;
+            }
+        }
+
+        if (nodeCount == 0) {
+            return closestIndex >= 0;
+        }
+
+        double ox = ray.start.x;
+        double oy = ray.start.y;
+        double oz = ray.start.z;
+        // adding zero turns -0.0 into 0.0, so that the inverse is positive
+        double invX = 1 / (ray.direction.x + 0.0);
+        double invY = 1 / (ray.direction.y + 0.0);
+        double invZ = 1 / (ray.direction.z + 0.0);
+
+        TraversalStack traversal = stacks.get();
+        int[] stack = traversal.nodes;
+        double[] entries = traversal.entries;
+        int top = 0;
+        int node = 0;
+        if (Double.isNaN(entry(node, ox, oy, oz, invX, invY, invZ))) {
+            return closestIndex >= 0;
+        }
+
+        while (true) {
+            double limit = hit.distance;
+
+            if (counts[node] > 0) {
+                for (int p = offsets[node], end = p + counts[node]; p < end; p++) {
+                    int index = order[p];
+                    if (intersect(index, ray, hit, closestIndex)) {
+                        closestIndex = index;
+                    }
+                }
+            } else {
+                int first = node + 1;
+                int second = offsets[node];
+                double firstEntry = entry(first, ox, oy, oz, invX, invY, invZ);
+                double secondEntry = entry(second, ox, oy, oz, invX, invY, invZ);
+
+                if (firstEntry <= limit && secondEntry <= limit) {
+                    if (secondEntry < firstEntry) {
+                        stack[top] = first;
+                        entries[top++] = firstEntry;
+                        node = second;
+                    } else {
+                        stack[top] = second;
+                        entries[top++] = secondEntry;
+                        node = first;
+                    }
+                    continue;
+                } else if (firstEntry <= limit) {
+                    node = first;
+                    continue;
+                } else if (secondEntry <= limit) {
+                    node = second;
+                    continue;
+                }
+            }
+
+            // continue with the nearest postponed node that may still be closer
+            limit = hit.distance;
+            node = -1;
+            while (top > 0) {
+                top--;
+                if (entries[top] <= limit) {
+                    node = stack[top];
+                    break;
+                }
+            }
+            if (node < 0) {
+                return closestIndex >= 0;
+            }
+        }
+    }
+
+    @Override
+    public boolean isOccluded(Ray ray, double maxDistance) {
+        for (int index : unbounded) {
+            if (BruteForceAccelerator.occludes(objects[index], ray, maxDistance)) {
+                return true;
+            }
+        }
+
+        if (nodeCount == 0) {
+            return false;
+        }
+
+        double ox = ray.start.x;
+        double oy = ray.start.y;
+        double oz = ray.start.z;
+        double invX = 1 / (ray.direction.x + 0.0);
+        double invY = 1 / (ray.direction.y + 0.0);
+        double invZ = 1 / (ray.direction.z + 0.0);
+
+        // any blocker will do, so the nodes are visited in the tree order
+        int[] stack = stacks.get().nodes;
+        int top = 0;
+        stack[top++] = 0;
+
+        while (top > 0) {
+            int node = stack[--top];
+            if (!(entry(node, ox, oy, oz, invX, invY, invZ) < maxDistance)) {
+                continue;
+            }
+
+            if (counts[node] > 0) {
+                for (int p = offsets[node], end = p + counts[node]; p < end; p++) {
+                    if (BruteForceAccelerator.occludes(objects[order[p]], ray, maxDistance)) {
+                        return true;
+                    }
+                }
+            } else {
+                stack[top++] = offsets[node];
+                stack[top++] = node + 1;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the distance along the ray at which it enters the box of the
+     * specified node, 0 if the ray starts inside the box, or <tt>NaN</tt>
+     * if the ray does not intersect the box, so that comparing a missed box
+     * with any distance is false.
+     *
+     * @param node index of the node
+     * @param ox x coordinate of the ray start
+     * @param oy y coordinate of the ray start
+     * @param oz z coordinate of the ray start
+     * @param invX inverse of the x component of the ray direction
+     * @param invY inverse of the y component of the ray direction
+     * @param invZ inverse of the z component of the ray direction
+     * @return the distance at which the ray enters the box
+     */
+    private double entry(int node, double ox, double oy, double oz, double invX, double invY, double invZ) {
+        int b = 6*node;
+        double near = 0;
+        double far = Double.POSITIVE_INFINITY;
+
+        // NaN distances of rays parallel to a face are ignored by the comparisons
+        double t0 = ((invX < 0 ? bounds[b + 3] : bounds[b]) - ox) * invX;
+        double t1 = ((invX < 0 ? bounds[b] : bounds[b + 3]) - ox) * invX;
+        if (t0 > near) near = t0;
+        if (t1 < far) far = t1;
+
+        t0 = ((invY < 0 ? bounds[b + 4] : bounds[b + 1]) - oy) * invY;
+        t1 = ((invY < 0 ? bounds[b + 1] : bounds[b + 4]) - oy) * invY;
+        if (t0 > near) near = t0;
+        if (t1 < far) far = t1;
+
+        t0 = ((invZ < 0 ? bounds[b + 5] : bounds[b + 2]) - oz) * invZ;
+        t1 = ((invZ < 0 ? bounds[b + 2] : bounds[b + 5]) - oz) * invZ;
+        if (t0 > near) near = t0;
+        if (t1 < far) far = t1;
+
+        return near <= far && near < Double.POSITIVE_INFINITY ? near : Double.NaN;
+    }
+
+    /**
+     * Writes the closest intersection of the ray with the object of the
+     * specified scene index into the record if it is closer than the recorded
+     * one, or equally distant and the object comes first in the scene.
+     *
+     * @param index scene index of the object
+     * @param ray ray for which the intersection is searched
+     * @param hit record of the closest intersection found so far
+     * @param closestIndex scene index of the object of the recorded intersection
+     * @return true if the record was overwritten, false otherwise
+     */
+    private boolean intersect(int index, Ray ray, HitRecord hit, int closestIndex) {
+        double distance = hit.distance;
+        if (index < closestIndex) {
+            // the next greater distance lets an equally distant intersection win
+            hit.distance = Math.nextUp(distance);
+        }
+
+        if (BruteForceAccelerator.intersect(objects[index], ray, hit)) {
+            return true;
+        }
+        hit.distance = distance;
+        return false;
+    }
+
+    /**
+     * Stack of the nodes postponed while traversing the tree, along with the
+     * distances at which the ray enters them.
+     *
+     * @author Mario Bobic
+     */
+    private static class TraversalStack {
+        /** Indexes of the postponed nodes. */
+        final int[] nodes;
+        /** Distances at which the ray enters the postponed nodes. */
+        final double[] entries;
+
+        /**
+         * Constructs an instance of <tt>TraversalStack</tt> with the
+         * specified capacity.
+         *
+         * @param capacity maximum number of postponed nodes
+         */
+        TraversalStack(int capacity) {
+            nodes = new int[capacity];
+            entries = new double[capacity];
+        }
+    }
+
+}
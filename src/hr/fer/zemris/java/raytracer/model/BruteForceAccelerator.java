@@ -0,0 +1,92 @@
+package hr.fer.zemris.java.raytracer.model;
+
+import java.util.List;
+
+/**
+ * An {@linkplain IntersectionAccelerator} that tests every object for every
+ * ray. It is slow for scenes with many objects, but is useful for checking
+ * the results of other accelerators.
+ *
+ * @author Mario Bobic
+ */
+public class BruteForceAccelerator implements IntersectionAccelerator {
+
+    /** Objects in the order of the scene. */
+    private final GraphicalObject[] objects;
+
+    /**
+     * Constructs an instance of <tt>BruteForceAccelerator</tt> with the
+     * specified objects.
+     *
+     * @param objects objects in the order of the scene
+     */
+    public BruteForceAccelerator(List<GraphicalObject> objects) {
+        this.objects = objects.toArray(new GraphicalObject[objects.size()]);
+    }
+
+    @Override
+    public boolean findClosestHit(Ray ray, HitRecord hit) {
+        boolean found = false;
+
+        for (GraphicalObject go : objects) {
+            found |= intersect(go, ray, hit);
+        }
+
+        return found;
+    }
+
+    @Override
+    public boolean isOccluded(Ray ray, double maxDistance) {
+        for (GraphicalObject go : objects) {
+            if (occludes(go, ray, maxDistance)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Writes the closest intersection of the specified <tt>ray</tt> with the
+     * specified object into the record if it is closer than the recorded one,
+     * asking the object if it is {@linkplain Intersectable}.
+     *
+     * @param object the graphical object
+     * @param ray ray for which the intersection is searched
+     * @param hit record of the closest intersection found so far
+     * @return true if the record was overwritten, false otherwise
+     */
+    static boolean intersect(GraphicalObject object, Ray ray, HitRecord hit) {
+        if (object instanceof Intersectable) {
+            return ((Intersectable) object).intersect(ray, hit);
+        }
+
+        RayIntersection intersection = object.findClosestRayIntersection(ray);
+        if (intersection == null || !(intersection.getDistance() < hit.distance)) {
+            return false;
+        }
+        hit.set(intersection);
+        return true;
+    }
+
+    /**
+     * Returns true if the closest intersection of the specified <tt>ray</tt>
+     * with the specified object is at a distance less than
+     * <tt>maxDistance</tt>, asking the object if it is an
+     * {@linkplain Occluder}.
+     *
+     * @param object the graphical object
+     * @param ray ray for which the intersection is tested
+     * @param maxDistance distance from the ray start, exclusive
+     * @return true if the object intersects the ray before the distance
+     */
+    static boolean occludes(GraphicalObject object, Ray ray, double maxDistance) {
+        if (object instanceof Occluder) {
+            return ((Occluder) object).occludes(ray, maxDistance);
+        }
+
+        RayIntersection intersection = object.findClosestRayIntersection(ray);
+        return intersection != null && intersection.getDistance() < maxDistance;
+    }
+
+}
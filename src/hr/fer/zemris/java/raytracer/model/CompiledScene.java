@@ -0,0 +1,122 @@
+package hr.fer.zemris.java.raytracer.model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * This class is a render-ready form of a {@linkplain Scene}: its objects are
+ * organized in an {@linkplain IntersectionAccelerator} and its light sources
+ * are copied into an array. The compiled form does not change when the scene
+ * does, so it may be shared by any number of threads and frames.
+ * <p>
+ * The {@linkplain #of(Scene, AcceleratorType)} method caches the compiled
+ * form of each scene, so that rendering the same scene from another camera
+ * position reuses it. A cached form is compiled again if objects or light
+ * sources have been added to the scene since; replacing an object in the list
+ * of the scene is not detected.
+ *
+ * @author Mario Bobic
+ */
+public class CompiledScene {
+
+    /**
+     * Compiled forms of the scenes. A scene does not override the
+     * <tt>equals</tt> method, so the scenes are compared by identity, and
+     * the entry of a scene is removed once the scene itself is not used.
+     */
+    private static final Map<Scene, CompiledScene> cache = new WeakHashMap<>();
+
+    /** Type of the accelerator. */
+    private final AcceleratorType type;
+    /** Number of the objects of the scene when it was compiled. */
+    private final int objectCount;
+    /** Structure built from the objects of the scene. */
+    private final IntersectionAccelerator accelerator;
+    /** Copies of the light sources of the scene. */
+    private final LightSource[] lights;
+
+    /**
+     * Constructs an instance of <tt>CompiledScene</tt> by compiling the
+     * specified scene, building an accelerator of the specified type.
+     *
+     * @param scene scene to be compiled
+     * @param type type of the accelerator
+     */
+    public CompiledScene(Scene scene, AcceleratorType type) {
+        List<GraphicalObject> objects = scene.getObjects();
+        List<LightSource> sceneLights = scene.getLights();
+
+        this.type = type;
+        this.objectCount = objects.size();
+        this.accelerator = type.create(objects);
+        this.lights = new LightSource[sceneLights.size()];
+        for (int i = 0; i < lights.length; i++) {
+            LightSource light = sceneLights.get(i);
+            lights[i] = new LightSource(light.getPoint().copy(), light.getR(), light.getG(), light.getB());
+        }
+    }
+
+    /**
+     * Returns the compiled form of the specified scene with an accelerator of
+     * the specified type, compiling the scene only if it has not been
+     * compiled with that type or has changed since.
+     *
+     * @param scene scene to be compiled
+     * @param type type of the accelerator
+     * @return the compiled form of the scene
+     */
+    public static synchronized CompiledScene of(Scene scene, AcceleratorType type) {
+        CompiledScene compiled = cache.get(scene);
+        if (compiled == null || !compiled.isCompiledFrom(scene, type)) {
+            compiled = new CompiledScene(scene, type);
+            cache.put(scene, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Returns true if this compiled form is up to date with the specified
+     * scene and has an accelerator of the specified type.
+     *
+     * @param scene the scene
+     * @param type type of the accelerator
+     * @return true if this form is up to date with the scene
+     */
+    private boolean isCompiledFrom(Scene scene, AcceleratorType type) {
+        return this.type == type
+                && objectCount == scene.getObjects().size()
+                && lights.length == scene.getLights().size();
+    }
+
+    /**
+     * Returns the structure built from the objects of the scene.
+     *
+     * @return the structure built from the objects of the scene
+     */
+    public IntersectionAccelerator getAccelerator() {
+        return accelerator;
+    }
+
+    /**
+     * Returns the number of light sources.
+     *
+     * @return the number of light sources
+     */
+    public int getLightCount() {
+        return lights.length;
+    }
+
+    /**
+     * Returns the light source at the specified index, in the order of the
+     * scene. The returned light source must not be modified.
+     *
+     * @param index index of the light source
+     * @return the light source at the specified index
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public LightSource getLight(int index) {
+        return lights[index];
+    }
+
+}
@@ -0,0 +1,139 @@
+package hr.fer.zemris.java.raytracer.model;
+
+/**
+ * This class is a mutable record of the closest intersection of a ray found
+ * so far, stored in primitive fields. An {@linkplain Intersectable} object
+ * overwrites the record only if it is intersected closer than the recorded
+ * {@linkplain #distance}, so one record can be passed to every object that a
+ * ray may hit without creating any objects. Only the final hit is turned
+ * into a {@linkplain RayIntersection} by the {@linkplain #toRayIntersection()}
+ * method.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Mario Bobic
+ */
+public class HitRecord {
+
+    /** Distance between the ray start and the intersection, infinite if there is none. */
+    public double distance = Double.POSITIVE_INFINITY;
+
+    /** The x coordinate of the intersection. */
+    public double x;
+    /** The y coordinate of the intersection. */
+    public double y;
+    /** The z coordinate of the intersection. */
+    public double z;
+
+    /** The x component of the normal to the surface at the intersection. */
+    public double normalX;
+    /** The y component of the normal to the surface at the intersection. */
+    public double normalY;
+    /** The z component of the normal to the surface at the intersection. */
+    public double normalZ;
+
+    /** Indicates whether the intersection is outer. */
+    public boolean outer;
+    /** Material of the intersected surface, <tt>null</tt> if there is no intersection. */
+    public Material material;
+
+    /**
+     * Resets this record to a state with no intersection.
+     */
+    public void reset() {
+        distance = Double.POSITIVE_INFINITY;
+        material = null;
+    }
+
+    /**
+     * Returns true if an intersection is recorded.
+     *
+     * @return true if an intersection is recorded
+     */
+    public boolean isHit() {
+        return material != null;
+    }
+
+    /**
+     * Records the specified intersection, copying its values.
+     *
+     * @param intersection intersection to be recorded
+     */
+    public void set(RayIntersection intersection) {
+        Point3D point = intersection.getPoint();
+        Point3D normal = intersection.getNormal();
+
+        distance = intersection.getDistance();
+        x = point.x;
+        y = point.y;
+        z = point.z;
+        normalX = normal.x;
+        normalY = normal.y;
+        normalZ = normal.z;
+        outer = intersection.isOuter();
+        material = new Material(
+                intersection.getKdr(), intersection.getKdg(), intersection.getKdb(),
+                intersection.getKrr(), intersection.getKrg(), intersection.getKrb(),
+                intersection.getKrn());
+    }
+
+    /**
+     * Returns the recorded intersection as a new {@linkplain RayIntersection}
+     * object, or <tt>null</tt> if no intersection is recorded.
+     *
+     * @return the recorded intersection, or <tt>null</tt>
+     */
+    public RayIntersection toRayIntersection() {
+        if (!isHit()) {
+            return null;
+        }
+
+        final Point3D normal = new Point3D(normalX, normalY, normalZ);
+        final Material material = this.material;
+
+        return new RayIntersection(new Point3D(x, y, z), distance, outer) {
+
+            @Override
+            public Point3D getNormal() {
+                return normal;
+            }
+
+            @Override
+            public double getKrr() {
+                return material.getKrr();
+            }
+
+            @Override
+            public double getKrn() {
+                return material.getKrn();
+            }
+
+            @Override
+            public double getKrg() {
+                return material.getKrg();
+            }
+
+            @Override
+            public double getKrb() {
+                return material.getKrb();
+            }
+
+            @Override
+            public double getKdr() {
+                return material.getKdr();
+            }
+
+            @Override
+            public double getKdg() {
+                return material.getKdg();
+            }
+
+            @Override
+            public double getKdb() {
+                return material.getKdb();
+            }
+
+        };
+    }
+
+}
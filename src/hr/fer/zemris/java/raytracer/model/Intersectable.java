@@ -0,0 +1,25 @@
+package hr.fer.zemris.java.raytracer.model;
+
+/**
+ * This interface is implemented by graphical objects that can write their
+ * closest intersection with a ray into a {@linkplain HitRecord} instead of
+ * creating a {@linkplain RayIntersection}.
+ *
+ * @author Mario Bobic
+ */
+public interface Intersectable {
+
+    /**
+     * Writes the closest intersection of the specified <tt>ray</tt> with this
+     * object, the same one that the
+     * {@linkplain GraphicalObject#findClosestRayIntersection(Ray)} method
+     * returns, into the specified record if it exists and is at a distance
+     * less than the recorded distance. Otherwise the record is not changed.
+     *
+     * @param ray ray for which the intersection is searched
+     * @param hit record of the closest intersection found so far
+     * @return true if the record was overwritten, false otherwise
+     */
+    boolean intersect(Ray ray, HitRecord hit);
+
+}
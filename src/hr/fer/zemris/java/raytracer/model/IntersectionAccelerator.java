@@ -0,0 +1,55 @@
+package hr.fer.zemris.java.raytracer.model;
+
+/**
+ * This interface represents a structure built from the graphical objects of
+ * a scene that finds the closest intersection of a ray with those objects.
+ * <p>
+ * Implementations must return the same intersection as testing every object
+ * in the order of the scene would, that is, the closest intersection and, of
+ * the equally distant ones, the intersection with the object that was added
+ * to the scene first.
+ *
+ * @author Mario Bobic
+ */
+public interface IntersectionAccelerator {
+
+    /**
+     * Writes the closest intersection of the specified <tt>ray</tt> with an
+     * object of this structure into the specified record if it is closer
+     * than the recorded one. Objects that are {@linkplain Intersectable} are
+     * tested without creating any objects, so a caller that reuses the
+     * record creates a {@linkplain RayIntersection} only for the final hit.
+     *
+     * @param ray ray for which the closest intersection is searched
+     * @param hit record of the closest intersection found so far
+     * @return true if the record was overwritten, false otherwise
+     */
+    boolean findClosestHit(Ray ray, HitRecord hit);
+
+    /**
+     * Returns the closest intersection of the specified <tt>ray</tt> with an
+     * object of this structure, or <tt>null</tt> if the ray does not
+     * intersect any object.
+     *
+     * @param ray ray for which the closest intersection is to be returned
+     * @return the closest intersection of the ray with an object
+     */
+    default RayIntersection findClosestIntersection(Ray ray) {
+        HitRecord hit = new HitRecord();
+        findClosestHit(ray, hit);
+        return hit.toRayIntersection();
+    }
+
+    /**
+     * Returns true if the closest intersection of the specified <tt>ray</tt>
+     * with any object of this structure is at a distance less than
+     * <tt>maxDistance</tt>. Unlike finding the closest intersection, this
+     * test may stop at the first such object.
+     *
+     * @param ray ray for which the intersections are tested
+     * @param maxDistance distance from the ray start, exclusive
+     * @return true if an object intersects the ray before the distance
+     */
+    boolean isOccluded(Ray ray, double maxDistance);
+
+}
@@ -0,0 +1,113 @@
+package hr.fer.zemris.java.raytracer.model;
+
+/**
+ * This class holds the coefficients of the lighting model of a surface, the
+ * same ones that a {@linkplain RayIntersection} returns. Instances of this
+ * class are immutable, so that a surface and the hits on it can share one.
+ *
+ * @author Mario Bobic
+ */
+public class Material {
+
+    /** Diffuse component red. */
+    private final double kdr;
+    /** Diffuse component green. */
+    private final double kdg;
+    /** Diffuse component blue. */
+    private final double kdb;
+
+    /** Reflective component red. */
+    private final double krr;
+    /** Reflective component green. */
+    private final double krg;
+    /** Reflective component blue. */
+    private final double krb;
+
+    /** Reflective material factor. */
+    private final double krn;
+
+    /**
+     * Constructs an instance of Material with the specified parameters.
+     *
+     * @param kdr diffuse component red
+     * @param kdg diffuse component green
+     * @param kdb diffuse component blue
+     * @param krr reflective component red
+     * @param krg reflective component green
+     * @param krb reflective component blue
+     * @param krn reflective material factor
+     */
+    public Material(double kdr, double kdg, double kdb, double krr, double krg, double krb, double krn) {
+        this.kdr = kdr;
+        this.kdg = kdg;
+        this.kdb = kdb;
+        this.krr = krr;
+        this.krg = krg;
+        this.krb = krb;
+        this.krn = krn;
+    }
+
+    /**
+     * Returns the diffuse component red.
+     *
+     * @return the diffuse component red
+     */
+    public double getKdr() {
+        return kdr;
+    }
+
+    /**
+     * Returns the diffuse component green.
+     *
+     * @return the diffuse component green
+     */
+    public double getKdg() {
+        return kdg;
+    }
+
+    /**
+     * Returns the diffuse component blue.
+     *
+     * @return the diffuse component blue
+     */
+    public double getKdb() {
+        return kdb;
+    }
+
+    /**
+     * Returns the reflective component red.
+     *
+     * @return the reflective component red
+     */
+    public double getKrr() {
+        return krr;
+    }
+
+    /**
+     * Returns the reflective component green.
+     *
+     * @return the reflective component green
+     */
+    public double getKrg() {
+        return krg;
+    }
+
+    /**
+     * Returns the reflective component blue.
+     *
+     * @return the reflective component blue
+     */
+    public double getKrb() {
+        return krb;
+    }
+
+    /**
+     * Returns the reflective material factor.
+     *
+     * @return the reflective material factor
+     */
+    public double getKrn() {
+        return krn;
+    }
+
+}
@@ -0,0 +1,24 @@
+package hr.fer.zemris.java.raytracer.model;
+
+/**
+ * This interface is implemented by graphical objects that can tell whether
+ * they block a ray without computing the intersection itself, which is all
+ * that a shadow ray needs to know.
+ *
+ * @author Mario Bobic
+ */
+public interface Occluder {
+
+    /**
+     * Returns true if the closest intersection of the specified <tt>ray</tt>
+     * with this object, as returned by the
+     * {@linkplain GraphicalObject#findClosestRayIntersection(Ray)} method,
+     * exists and is at a distance less than <tt>maxDistance</tt>.
+     *
+     * @param ray ray for which the intersection is tested
+     * @param maxDistance distance from the ray start, exclusive
+     * @return true if this object intersects the ray before the distance
+     */
+    boolean occludes(Ray ray, double maxDistance);
+
+}
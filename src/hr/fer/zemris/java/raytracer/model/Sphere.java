@@ -3,32 +3,23 @@ package hr.fer.zemris.java.raytracer.model;
 /**
  * This class extends the {@linkplain GraphicalObject} and provides
  * implementation for the {@linkplain #findClosestRayIntersection(Ray)} method.
+ * A sphere is {@linkplain Bounded bounded} by the cube around it, and as an
+ * {@linkplain Intersectable} and an {@linkplain Occluder} it tests rays using
+ * primitive values only, without creating any objects.
  *
  * @author Mario Bobic
  */
-public class Sphere extends GraphicalObject {
+public class Sphere extends GraphicalObject implements Bounded, Intersectable, Occluder {
 
     /** Sphere center. */
     private Point3D center;
     /** Sphere radius. */
     private double radius;
+    /** Square of the sphere radius. */
+    private double radiusSquared;
 
-    /** Diffuse component red. */
-    private double kdr;
-    /** Diffuse component green. */
-    private double kdg;
-    /** Diffuse component blue. */
-    private double kdb;
-
-    /** Reflective component red. */
-    private double krr;
-    /** Reflective component green. */
-    private double krg;
-    /** Reflective component blue. */
-    private double krb;
-
-    /** Reflective material factor. */
-    private double krn;
+    /** Material of the sphere surface. */
+    private Material material;
 
     /**
      * Constructs an instance of Sphere with the specified parameters.
@@ -47,22 +38,61 @@ public class Sphere extends GraphicalObject {
             double krr, double krg, double krb, double krn) {
         this.center = center;
         this.radius = radius;
-        this.kdr = kdr;
-        this.kdg = kdg;
-        this.kdb = kdb;
-        this.krr = krr;
-        this.krg = krg;
-        this.krb = krb;
-        this.krn = krn;
+        this.radiusSquared = radius * radius;
+        this.material = new Material(kdr, kdg, kdb, krr, krg, krb, krn);
     }
 
     @Override
-    public RayIntersection findClosestRayIntersection(Ray ray) {
-        Point3D startToCenter = ray.start.sub(center);
+    public Point3D getMinimum() {
+        double r = Math.abs(radius);
+        return center.sub(r, r, r);
+    }
+
+    @Override
+    public Point3D getMaximum() {
+        double r = Math.abs(radius);
+        return center.add(r, r, r);
+    }
+
+    @Override
+    public boolean occludes(Ray ray, double maxDistance) {
+        Point3D start = ray.start;
+        Point3D direction = ray.direction;
+        double sx = start.x - center.x;
+        double sy = start.y - center.y;
+        double sz = start.z - center.z;
+
+        double a = direction.x*direction.x + direction.y*direction.y + direction.z*direction.z; // always 1
+        double b = 2 * (direction.x*sx + direction.y*sy + direction.z*sz);
+        double c = sx*sx + sy*sy + sz*sz - radiusSquared;
+
+        double discriminant = b*b - 4*a*c;
+        if (discriminant < 0) {
+            return false;
+        }
+
+        // the same distance as the closest intersection
+        double sqrt = Math.sqrt(discriminant);
+        double s1 = (-b + sqrt) / (2*a);
+        double s2 = (-b - sqrt) / (2*a);
+        double near = Math.min(s1, s2);
+        double far = Math.max(s1, s2);
+
+        double distance = near >= 0 ? near : far;
+        return distance >= 0 && distance < maxDistance;
+    }
+
+    @Override
+    public boolean intersect(Ray ray, HitRecord hit) {
+        Point3D start = ray.start;
+        Point3D direction = ray.direction;
+        double sx = start.x - center.x;
+        double sy = start.y - center.y;
+        double sz = start.z - center.z;
 
-        double a = ray.direction.scalarProduct(ray.direction); // always 1
-        double b = 2 * ray.direction.scalarProduct(startToCenter);
-        double c = startToCenter.scalarProduct(startToCenter) - Math.pow(radius, 2);
+        double a = direction.x*direction.x + direction.y*direction.y + direction.z*direction.z; // always 1
+        double b = 2 * (direction.x*sx + direction.y*sy + direction.z*sz);
+        double c = sx*sx + sy*sy + sz*sz - radiusSquared;
 
         double discriminant = b*b - 4*a*c;
         double distance;
@@ -70,7 +100,7 @@ public class Sphere extends GraphicalObject {
 
         // No intersections
         if (discriminant < 0) {
-            return null;
+            return false;
         }
 
         double sqrt = Math.sqrt(discriminant);
@@ -83,7 +113,7 @@ public class Sphere extends GraphicalObject {
 
         // The sphere is behind the ray
         if (minDistance < 0 && maxDistance < 0) {
-            return null;
+            return false;
         }
 
         if (minDistance >= 0) {
@@ -94,51 +124,63 @@ public class Sphere extends GraphicalObject {
             outer = false;
         }
 
-        Point3D intersection = ray.start.add(ray.direction.scalarMultiply(distance));
-
-        return new RayIntersection(intersection, distance, outer) {
-
-            @Override
-            public Point3D getNormal() {
-                return intersection.sub(center).normalize();
-            }
-
-            @Override
-            public double getKrr() {
-                return krr;
-            }
-
-            @Override
-            public double getKrn() {
-                return krn;
-            }
-
-            @Override
-            public double getKrg() {
-                return krg;
-            }
-
-            @Override
-            public double getKrb() {
-                return krb;
-            }
+        // A closer intersection is already recorded
+        if (!(distance < hit.distance)) {
+            return false;
+        }
 
-            @Override
-            public double getKdr() {
-                return kdr;
-            }
+        record(ray, distance, outer, hit);
+        return true;
+    }
 
-            @Override
-            public double getKdg() {
-                return kdg;
-            }
+    /**
+     * Writes the intersection of the specified <tt>ray</tt> at the specified
+     * distance into the record. This is kept out of the
+     * {@linkplain #intersect(Ray, HitRecord)} method, so that the test of a
+     * sphere that is not hit stays small enough to be inlined.
+     *
+     * @param ray ray that intersects this sphere
+     * @param distance distance of the intersection from the ray start
+     * @param outer true if the intersection is outer
+     * @param hit record into which the intersection is written
+     */
+    private void record(Ray ray, double distance, boolean outer, HitRecord hit) {
+        Point3D start = ray.start;
+        Point3D direction = ray.direction;
+        double x = start.x + direction.x*distance;
+        double y = start.y + direction.y*distance;
+        double z = start.z + direction.z*distance;
+
+        // normalized the same way as Point3D does
+        double nx = x - center.x;
+        double ny = y - center.y;
+        double nz = z - center.z;
+        double norm = Math.sqrt(nx*nx + ny*ny + nz*nz);
+        if (norm < 1E-9) {
+            nx = 0;
+            ny = 0;
+            nz = 0;
+        } else {
+            nx /= norm;
+            ny /= norm;
+            nz /= norm;
+        }
 
-            @Override
-            public double getKdb() {
-                return kdb;
-            }
+        hit.distance = distance;
+        hit.x = x;
+        hit.y = y;
+        hit.z = z;
+        hit.normalX = nx;
+        hit.normalY = ny;
+        hit.normalZ = nz;
+        hit.outer = outer;
+        hit.material = material;
+    }
 
-        };
+    @Override
+    public RayIntersection findClosestRayIntersection(Ray ray) {
+        HitRecord hit = new HitRecord();
+        return intersect(ray, hit) ? hit.toRayIntersection() : null;
     }
 
 }
@@ -0,0 +1,113 @@
+package hr.fer.zemris.java.fractals;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class CompiledComplexPolynomialTests {
+
+    @Test
+    public void testOrder() {
+        // 0z^3 + 0z^2 + 2z + 1
+        Complex[] factors = parseFactors("1", "2", "0", "0");
+
+        assertEquals(1, new ComplexPolynomial(factors).compile().order());
+    }
+
+    @Test
+    public void testApply1() {
+        // (4 + i)z^4 + (2 - 3i)z^2 - z
+        Complex[] factors = parseFactors("0", "-1", "2-3i", "0", "4+i");
+        CompiledComplexPolynomial compiled = new ComplexPolynomial(factors).compile();
+
+        double[] actual = new double[4];
+        compiled.apply(-2, 5, actual);
+
+        // p(-2+5i) = -776 + 3419i
+        assertEquals(-776, actual[0], 1E-9);
+        assertEquals(3419, actual[1], 1E-9);
+
+        // p'(z) = (16 + 4i)z^3 + (4 - 6i)z - 1
+        Complex expected = new ComplexPolynomial(factors).derive().apply(new Complex(-2, 5));
+        assertEquals(expected.getReal(), actual[2], 1E-9);
+        assertEquals(expected.getImag(), actual[3], 1E-9);
+    }
+
+    @Test
+    public void testApply2() {
+        // constant polynomial 3 - i
+        CompiledComplexPolynomial compiled = new ComplexPolynomial(parseFactors("3-i")).compile();
+
+        double[] actual = new double[4];
+        compiled.apply(7, -2, actual);
+
+        assertArrayEquals(new double[] {3, -1, 0, 0}, actual, 0);
+    }
+
+    @Test
+    public void testApplyMatchesComplexPolynomial() {
+        Complex[] roots = parseFactors("1", "-1", "i", "-i", "2+i", "-0.5-0.3i", "0.7i", "-1.2");
+        ComplexPolynomial cp = new ComplexRootedPolynomial(roots).toComplexPolynom();
+        CompiledComplexPolynomial compiled = cp.compile();
+
+        Complex z = new Complex(0.31, -1.17);
+        Complex value = cp.apply(z);
+        Complex derived = cp.derive().apply(z);
+
+        double[] actual = new double[4];
+        compiled.apply(z.getReal(), z.getImag(), actual);
+
+        assertEquals(value.getReal(), actual[0], 1E-9);
+        assertEquals(value.getImag(), actual[1], 1E-9);
+        assertEquals(derived.getReal(), actual[2], 1E-9);
+        assertEquals(derived.getImag(), actual[3], 1E-9);
+    }
+
+    @Test
+    public void testApplyArray() {
+        Complex[] roots = parseFactors("1", "-1", "i", "-i", "2+i", "-0.5-0.3i", "0.7i", "-1.2");
+        CompiledComplexPolynomial compiled = new ComplexRootedPolynomial(roots).toComplexPolynom().compile();
+
+        ComplexArray z = new ComplexArray(new Complex(0.31, -1.17), new Complex(-2, 5), Complex.ONE);
+        ComplexArray value = new ComplexArray(3);
+        ComplexArray derivative = new ComplexArray(3);
+        compiled.apply(z, value, derivative);
+
+        // must be exactly the same as the primitive version
+        double[] expected = new double[4];
+        for (int i = 0; i < z.length(); i++) {
+            compiled.apply(z.getReal(i), z.getImag(i), expected);
+            assertArrayEquals(expected, new double[] {
+                value.getReal(i), value.getImag(i), derivative.getReal(i), derivative.getImag(i)
+            }, 0);
+        }
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testApplyArrayLengths() {
+        CompiledComplexPolynomial compiled = new ComplexPolynomial(parseFactors("1", "2")).compile();
+        // must throw
+        compiled.apply(new ComplexArray(2), new ComplexArray(2), new ComplexArray(3));
+    }
+
+
+    /* ------------------------------ Utility methods ------------------------------ */
+
+    /**
+     * Returns an array of complex factors, where index <tt>i</tt> of the returned
+     * array is a parsed string from the specified <tt>s</tt> at index <tt>i</tt>.
+     *
+     * @param s array of strings to be parsed
+     * @return an array of parsed complex factors
+     */
+    private static Complex[] parseFactors(String ...s) {
+        Complex[] factors = new Complex[s.length];
+
+        for (int i = 0; i < s.length; i++) {
+            factors[i] = Complex.parse(s[i]);
+        }
+
+        return factors;
+    }
+}
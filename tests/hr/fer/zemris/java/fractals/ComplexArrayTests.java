@@ -0,0 +1,99 @@
+package hr.fer.zemris.java.fractals;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class ComplexArrayTests {
+
+    private static final double DOUBLE_TOLERATION = 1E-12;
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorNegative() {
+        // must throw
+        new ComplexArray(-1);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testConstructorWhereOneComplexIsNull() {
+        // must throw
+        new ComplexArray(Complex.ONE, null);
+    }
+
+    @Test
+    public void testGetSet() {
+        ComplexArray array = new ComplexArray(new Complex(1, 2), Complex.IM);
+        array.set(0, -3, 0.5);
+
+        assertEquals(2, array.length());
+        assertEquals(new Complex(-3, 0.5), array.get(0));
+        assertEquals(0, array.getReal(1), 0);
+        assertEquals(1, array.getImag(1), 0);
+    }
+
+    @Test
+    public void testAddSub() {
+        ComplexArray array = new ComplexArray(new Complex(1, 2), new Complex(-1, 0.5));
+        array.add(new ComplexArray(new Complex(3, -1), Complex.IM));
+
+        assertEquals(new Complex(4, 1), array.get(0));
+        assertEquals(new Complex(-1, 1.5), array.get(1));
+
+        array.sub(new ComplexArray(new Complex(4, 1), Complex.ONE));
+        assertEquals(Complex.ZERO, array.get(0));
+        assertEquals(new Complex(-2, 1.5), array.get(1));
+    }
+
+    @Test
+    public void testMultiplyDivide() {
+        Complex[] values = {new Complex(-1, 0.5), new Complex(2.5, -3), new Complex(0.3, 0.7)};
+        Complex[] others = {new Complex(2, 3), new Complex(-0.5, -0.5), Complex.IM_NEG};
+
+        ComplexArray product = new ComplexArray(values);
+        product.multiply(new ComplexArray(others));
+        ComplexArray quotient = new ComplexArray(values);
+        quotient.divide(new ComplexArray(others));
+
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i].multiply(others[i]), product.get(i));
+            Complex expected = values[i].divide(others[i]);
+            assertEquals(expected.getReal(), quotient.getReal(i), DOUBLE_TOLERATION);
+            assertEquals(expected.getImag(), quotient.getImag(i), DOUBLE_TOLERATION);
+        }
+    }
+
+    @Test
+    public void testDivideZero() {
+        ComplexArray array = new ComplexArray(Complex.ONE);
+        array.divide(new ComplexArray(Complex.ZERO));
+
+        assertTrue(Double.isNaN(array.getReal(0)));
+        assertTrue(Double.isNaN(array.getImag(0)));
+    }
+
+    @Test
+    public void testModuleDistance() {
+        ComplexArray array = new ComplexArray(new Complex(3, 4), new Complex(-1, 2));
+        double[] result = new double[2];
+
+        array.module(result);
+        assertArrayEquals(new double[] {5, Math.sqrt(5)}, result, DOUBLE_TOLERATION);
+
+        array.distance(new ComplexArray(new Complex(3, 1), new Complex(-1, 2)), result);
+        assertArrayEquals(new double[] {3, 0}, result, DOUBLE_TOLERATION);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testLengthsDiffer() {
+        // must throw
+        new ComplexArray(2).add(new ComplexArray(3));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testResultTooShort() {
+        // must throw
+        new ComplexArray(2).module(new double[1]);
+    }
+
+}
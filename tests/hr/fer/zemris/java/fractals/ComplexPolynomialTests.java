@@ -122,6 +122,26 @@ public class ComplexPolynomialTests {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void testMultiplyTransform() {
+        int n = 2 * ComplexPolynomial.FFT_THRESHOLD;
+        Complex[] factors1 = new Complex[n];
+        Complex[] factors2 = new Complex[n];
+        for (int i = 0; i < n; i++) {
+            factors1[i] = new Complex(i % 7 - 3, i % 5 - 2);
+            factors2[i] = new Complex(i % 3 - 1, 1);
+        }
+        ComplexPolynomial cp1 = new ComplexPolynomial(factors1);
+        ComplexPolynomial cp2 = new ComplexPolynomial(factors2);
+
+        // schoolbook products of small integers are exact
+        ComplexPolynomial expected = cp1.multiplySchoolbook(cp2);
+
+        assertEquals(expected, cp1.multiplyTransform(cp2));
+        assertEquals(expected, cp1.multiply(cp2));
+        assertEquals(2*n - 2, cp1.multiply(cp2).order());
+    }
+
     @Test
     public void testApply1() {
         // (4 + i)z^4 + (2 - 3i)z^2 - z
@@ -150,6 +170,71 @@ public class ComplexPolynomialTests {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void testApplyPrimitive() {
+        // (4 + i)z^4 + (2 - 3i)z^2 - z
+        Complex[] factors = parseFactors("0", "-1", "2-3i", "0", "4+i");
+        ComplexPolynomial cp = new ComplexPolynomial(factors);
+
+        Complex z = new Complex(-0.37, 1.21);
+        double[] actual = new double[2];
+        cp.apply(z.getReal(), z.getImag(), actual);
+
+        // must be exactly the same as the complex version
+        Complex expected = cp.apply(z);
+        assertEquals(expected.getReal(), actual[0], 0);
+        assertEquals(expected.getImag(), actual[1], 0);
+    }
+
+    @Test
+    public void testApplyMutable() {
+        // (4 + i)z^4 + (2 - 3i)z^2 - z
+        Complex[] factors = parseFactors("0", "-1", "2-3i", "0", "4+i");
+        ComplexPolynomial cp = new ComplexPolynomial(factors);
+
+        MutableComplex value = new MutableComplex();
+        MutableComplex derivative = new MutableComplex();
+        cp.apply(new MutableComplex(-0.37, 1.21), value, derivative);
+
+        // must be exactly the same as the compiled version
+        double[] expected = new double[4];
+        cp.compile().apply(-0.37, 1.21, expected);
+        assertArrayEquals(expected, new double[] {
+            value.getReal(), value.getImag(), derivative.getReal(), derivative.getImag()
+        }, 0);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testApplyMutableSame() {
+        MutableComplex z = new MutableComplex(1, 1);
+        // must throw
+        new ComplexPolynomial(parseFactors("1", "2")).apply(z, z, new MutableComplex());
+    }
+
+    @Test
+    public void testApplyArray() {
+        // (4 + i)z^4 + (2 - 3i)z^2 - z
+        Complex[] factors = parseFactors("0", "-1", "2-3i", "0", "4+i");
+        ComplexPolynomial cp = new ComplexPolynomial(factors);
+
+        ComplexArray z = new ComplexArray(new Complex(-2, 5), new Complex(-0.37, 1.21), Complex.ZERO);
+        ComplexArray actual = new ComplexArray(3);
+        cp.apply(z, actual);
+
+        for (int i = 0; i < z.length(); i++) {
+            Complex expected = cp.apply(z.get(i));
+            assertEquals(expected.getReal(), actual.getReal(i), 1E-9);
+            assertEquals(expected.getImag(), actual.getImag(i), 1E-9);
+        }
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testApplyArraySame() {
+        ComplexArray z = new ComplexArray(Complex.ONE);
+        // must throw
+        new ComplexPolynomial(parseFactors("1", "2")).apply(z, z);
+    }
+
 
     /* ------------------------------ Hardcore string tests ------------------------------ */
     // Can be ignored as it is not a homework requirement
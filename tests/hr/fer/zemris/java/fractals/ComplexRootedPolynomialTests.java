@@ -2,6 +2,8 @@ package hr.fer.zemris.java.fractals;
 
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
+
 import org.junit.Test;
 
 @SuppressWarnings("javadoc")
@@ -92,6 +94,179 @@ public class ComplexRootedPolynomialTests {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void testIndexOfClosestRootForPrimitive() {
+        Complex[] roots = parseRoots("2+2i", "-2+2i", "-2-2i", "1+i");
+        ComplexRootedPolynomial crp = new ComplexRootedPolynomial(roots);
+
+        assertEquals(3, crp.indexOfClosestRootFor(0, 0, 3));
+        assertEquals(1, crp.indexOfClosestRootFor(-1.9, 2.05, 0.5));
+        assertEquals(-1, crp.indexOfClosestRootFor(0, 0, 1));
+    }
+
+    @Test
+    public void testIndexOfClosestRootForManyRoots() {
+        // enough roots for the grid, with a repeated root
+        int n = 2 * ComplexRootedPolynomial.GRID_ROOTS;
+        Complex[] roots = new Complex[n];
+        for (int i = 0; i < n; i++) {
+            double angle = 2 * Math.PI * (i / 2) / n;
+            roots[i] = new Complex(Math.cos(angle), Math.sin(angle));
+        }
+        ComplexRootedPolynomial crp = new ComplexRootedPolynomial(roots);
+
+        assertEquals(0, crp.indexOfClosestRootFor(1.001, 0, 0.002));
+        assertEquals(4, crp.indexOfClosestRootFor(roots[5], 0.002));
+        assertEquals(-1, crp.indexOfClosestRootFor(0, 0, 0.002));
+        // the whole circle is within the threshold
+        assertEquals(0, crp.indexOfClosestRootFor(2, 0, 10));
+        assertEquals(0, crp.indexOfClosestRootFor(Double.NaN, 0, 0.002));
+    }
+
+    @Test
+    public void testNewtonStep1() {
+        Complex[] roots = parseRoots("1", "-1", "2+i", "-2-i", "0.3-0.7i");
+        ComplexRootedPolynomial crp = new ComplexRootedPolynomial(roots);
+        ComplexPolynomial cp = crp.toComplexPolynom();
+
+        Complex z = new Complex(0.4, -0.2);
+        Complex expected = cp.apply(z).divide(cp.derive().apply(z));
+
+        double[] actual = new double[3];
+        int index = crp.newtonStep(z.getReal(), z.getImag(), actual);
+
+        assertEquals(expected.getReal(), actual[0], 1E-9);
+        assertEquals(expected.getImag(), actual[1], 1E-9);
+        assertEquals(4, index);
+        assertEquals(z.distance(roots[4]), actual[2], 1E-12);
+    }
+
+    @Test
+    public void testNewtonStep2() {
+        Complex[] roots = parseRoots("1", "-1", "i", "-i");
+        ComplexRootedPolynomial crp = new ComplexRootedPolynomial(roots);
+
+        double[] actual = new double[3];
+
+        // z is a root
+        assertEquals(2, crp.newtonStep(0, 1, actual));
+        assertArrayEquals(new double[] {0, 0, 0}, actual, 0);
+
+        // derivative of z^4 - 1 vanishes at 0
+        crp.newtonStep(0, 0, actual);
+        assertTrue(Double.isInfinite(actual[0]));
+        assertTrue(Double.isInfinite(actual[1]));
+    }
+
+    @Test
+    public void testNewtonSteps() {
+        Complex[] roots = parseRoots("1", "-1", "i", "-i", "2+i");
+        ComplexRootedPolynomial crp = new ComplexRootedPolynomial(roots);
+
+        // includes a root, a vanishing derivative and a tie between two roots
+        double[] re = {0.4, 0, 1, -3.5, 0};
+        double[] im = {-0.2, 1, 0, 7, 0};
+        double[] stepRe = new double[5];
+        double[] stepIm = new double[5];
+        double[] distances = new double[5];
+        int[] indexes = new int[5];
+        crp.newtonSteps(re, im, 5, stepRe, stepIm, distances, indexes);
+
+        double[] expected = new double[3];
+        for (int l = 0; l < 5; l++) {
+            assertEquals(crp.newtonStep(re[l], im[l], expected), indexes[l]);
+            assertEquals(expected[0], stepRe[l], 0);
+            assertEquals(expected[1], stepIm[l], 0);
+            assertEquals(expected[2], distances[l], 0);
+        }
+    }
+
+    @Test
+    public void testNewtonStepsArray() {
+        Complex[] roots = parseRoots("1", "-1", "i", "-i", "2+i");
+        ComplexRootedPolynomial crp = new ComplexRootedPolynomial(roots);
+
+        ComplexArray z = new ComplexArray(new Complex(0.4, -0.2), new Complex(-3.5, 7));
+        ComplexArray steps = new ComplexArray(2);
+        double[] distances = new double[2];
+        int[] indexes = new int[2];
+        crp.newtonSteps(z, steps, distances, indexes);
+
+        double[] expected = new double[3];
+        for (int i = 0; i < z.length(); i++) {
+            assertEquals(crp.newtonStep(z.getReal(i), z.getImag(i), expected), indexes[i]);
+            assertArrayEquals(expected, new double[] {steps.getReal(i), steps.getImag(i), distances[i]}, 0);
+        }
+    }
+
+    @Test
+    public void testApplyArray() {
+        Complex[] roots = parseRoots("1", "-1", "2+i", "-2-i", "0.3-0.7i");
+        ComplexRootedPolynomial crp = new ComplexRootedPolynomial(roots);
+
+        ComplexArray z = new ComplexArray(new Complex(0.4, -0.2), Complex.ONE, new Complex(-3, 1.5));
+        ComplexArray actual = new ComplexArray(3);
+        crp.apply(z, actual);
+
+        // must be exactly the same as the complex version
+        for (int i = 0; i < z.length(); i++) {
+            Complex expected = crp.apply(z.get(i));
+            assertEquals(expected.getReal(), actual.getReal(i), 0);
+            assertEquals(expected.getImag(), actual.getImag(i), 0);
+        }
+    }
+
+    @Test
+    public void testNewtonStepDoubleDouble() {
+        Complex[] roots = parseRoots("1", "-1", "i", "-i", "2+i");
+        ComplexRootedPolynomial crp = new ComplexRootedPolynomial(roots);
+
+        double[] expected = new double[3];
+        crp.newtonStep(0.4, -0.2, expected);
+        DoubleDoubleComplex actual = crp.newtonStep(new DoubleDoubleComplex(0.4, -0.2));
+
+        assertEquals(expected[0], actual.getReal(), 1E-15);
+        assertEquals(expected[1], actual.getImag(), 1E-15);
+
+        // z is a root
+        assertTrue(crp.newtonStep(new DoubleDoubleComplex(0, 1)).isZero());
+
+        // derivative of z^4 - 1 vanishes at 0
+        ComplexRootedPolynomial square = new ComplexRootedPolynomial(parseRoots("1", "-1", "i", "-i"));
+        assertNull(square.newtonStep(DoubleDoubleComplex.ZERO));
+    }
+
+    @Test
+    public void testConvergenceRadius() {
+        Complex[] roots = parseRoots("1", "-1", "i", "-i");
+        ComplexRootedPolynomial crp = new ComplexRootedPolynomial(roots);
+
+        // nearest other root is at sqrt(2), divided by 3*4 - 2
+        assertEquals(Math.sqrt(2) / 10, crp.convergenceRadius(0), 1E-12);
+
+        assertTrue(Double.isInfinite(new ComplexRootedPolynomial(Complex.ONE).convergenceRadius(0)));
+        assertEquals(0, new ComplexRootedPolynomial(Complex.ONE, Complex.ONE).convergenceRadius(0), 0);
+    }
+
+    @Test
+    public void testConvergenceRadiusManyRoots() {
+        Complex[] roots = new Complex[50];
+        for (int i = 0; i < roots.length; i++) {
+            roots[i] = new Complex(i % 7 * 0.3, i * 0.01);
+        }
+        ComplexRootedPolynomial crp = new ComplexRootedPolynomial(roots);
+
+        for (int i = 0; i < roots.length; i++) {
+            double nearest = Double.POSITIVE_INFINITY;
+            for (int j = 0; j < roots.length; j++) {
+                if (i != j) {
+                    nearest = Math.min(nearest, roots[i].distance(roots[j]));
+                }
+            }
+            assertEquals(nearest / (3*50 - 2), crp.convergenceRadius(i), 0);
+        }
+    }
+
 
     @Test
     public void testToComplexPolynom1() {
@@ -126,6 +301,28 @@ public class ComplexRootedPolynomialTests {
     }
 
 
+    @Test
+    public void testToComplexPolynomProductTree() {
+        // z^n - 0.01^n, which is z^n up to the tolerance
+        int n = 3 * ComplexRootedPolynomial.PARALLEL_EXPANSION + 7;
+        Complex[] roots = new Complex[n];
+        for (int i = 0; i < n; i++) {
+            double angle = 2 * Math.PI * i / n;
+            roots[i] = new Complex(0.01 * Math.cos(angle), 0.01 * Math.sin(angle));
+        }
+
+        ComplexPolynomial actual = new ComplexRootedPolynomial(roots).toComplexPolynom();
+
+        Complex[] factorsE = new Complex[n + 1];
+        Arrays.fill(factorsE, Complex.ZERO);
+        factorsE[n] = Complex.ONE;
+        ComplexPolynomial expected = new ComplexPolynomial(factorsE);
+
+        assertEquals(expected, actual);
+        assertEquals(n, actual.order());
+    }
+
+
     /* ------------------------------ Hardcore string tests ------------------------------ */
     // Can be ignored as it is not a homework requirement
 
@@ -0,0 +1,121 @@
+package hr.fer.zemris.java.fractals;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class DoubleDoubleComplexTests {
+
+    private static final double DOUBLE_TOLERATION = 1E-6;
+
+    /* ------------------------------ Public method tests ------------------------------ */
+
+    @Test
+    public void testConstructorNormalizes() {
+        DoubleDoubleComplex c = new DoubleDoubleComplex(1, 1E-20, 1E-20, 1);
+
+        assertEquals(1, c.getReal(), 0);
+        assertEquals(1E-20, c.getRealLow(), 0);
+        assertEquals(1, c.getImag(), 0);
+        assertEquals(1E-20, c.getImagLow(), 0);
+    }
+
+    @Test
+    public void testAddKeepsLowPart() {
+        DoubleDoubleComplex c = new DoubleDoubleComplex(1, 1)
+                .add(new DoubleDoubleComplex(1E-20, -1E-25))
+                .sub(new DoubleDoubleComplex(1, 1));
+
+        // plain doubles would give zero
+        assertEquals(1E-20, c.getReal(), 1E-36);
+        assertEquals(-1E-25, c.getImag(), 1E-41);
+    }
+
+    @Test
+    public void testMultiply() {
+        DoubleDoubleComplex c1 = new DoubleDoubleComplex(-1, 0.5);
+        DoubleDoubleComplex c2 = new DoubleDoubleComplex(2, 3);
+        Complex expected = new Complex(-1, 0.5).multiply(new Complex(2, 3));
+
+        assertEquals(expected, c1.multiply(c2).toComplex());
+        assertEquals(new Complex(-3, 1.5), c1.multiply(3).toComplex());
+    }
+
+    @Test
+    public void testMultiplyExact() {
+        // (1 + 2^-40)^2 = 1 + 2^-39 + 2^-80 does not fit into a double
+        double e = Math.scalb(1.0, -40);
+        DoubleDoubleComplex c = new DoubleDoubleComplex(1 + e, 0);
+        DoubleDoubleComplex square = c.multiply(c);
+
+        assertEquals(1 + 2*e, square.getReal(), 0);
+        assertEquals(e*e, square.getRealLow(), 0);
+    }
+
+    @Test
+    public void testDivide() {
+        DoubleDoubleComplex c1 = new DoubleDoubleComplex(-1, 0.5);
+        DoubleDoubleComplex c2 = new DoubleDoubleComplex(2, 3);
+        Complex expected = new Complex(-1, 0.5).divide(new Complex(2, 3));
+
+        assertEquals(expected, c1.divide(c2).toComplex());
+        assertEquals(new Complex(-0.25, 0.125), c1.divide(4).toComplex());
+    }
+
+    @Test
+    public void testDivideExact() {
+        // 1/3 * 3 returns exactly one only with the low part
+        DoubleDoubleComplex third = new DoubleDoubleComplex(1, 0).divide(3);
+        DoubleDoubleComplex one = third.multiply(3);
+
+        assertEquals(1, one.getReal(), 0);
+        assertEquals(0, one.getRealLow(), 1E-31);
+    }
+
+    @Test
+    public void testReciprocal() {
+        DoubleDoubleComplex c = new DoubleDoubleComplex(0, 2);
+
+        assertEquals(new Complex(0, -0.5), c.reciprocal().toComplex());
+    }
+
+    @Test(expected=ArithmeticException.class)
+    public void testReciprocalZero() {
+        // must throw
+        DoubleDoubleComplex.ZERO.reciprocal();
+    }
+
+    @Test(expected=ArithmeticException.class)
+    public void testDivideZero() {
+        // must throw
+        new DoubleDoubleComplex(1, 1).divide(0);
+    }
+
+    @Test
+    public void testNegate() {
+        DoubleDoubleComplex c = new DoubleDoubleComplex(1, 1E-20, -2, 0).negate();
+
+        assertEquals(-1, c.getReal(), 0);
+        assertEquals(-1E-20, c.getRealLow(), 0);
+        assertEquals(2, c.getImag(), 0);
+    }
+
+    @Test
+    public void testModule() {
+        DoubleDoubleComplex c = new DoubleDoubleComplex(-1, 2);
+
+        assertEquals(Math.sqrt(5), c.module(), DOUBLE_TOLERATION);
+    }
+
+    @Test
+    public void testEquals() {
+        DoubleDoubleComplex c1 = new DoubleDoubleComplex(1, 1E-20, 0, 0);
+        DoubleDoubleComplex c2 = new DoubleDoubleComplex(1, 1E-20, 0, 0);
+
+        assertEquals(c1, c2);
+        assertEquals(c1.hashCode(), c2.hashCode());
+        assertNotEquals(c1, new DoubleDoubleComplex(1, 0));
+    }
+
+}
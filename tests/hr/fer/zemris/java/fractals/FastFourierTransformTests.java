@@ -0,0 +1,75 @@
+package hr.fer.zemris.java.fractals;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class FastFourierTransformTests {
+
+    private static final double DOUBLE_TOLERATION = 1E-12;
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testTransformNotPowerOfTwo() {
+        // must throw
+        FastFourierTransform.transform(new double[6], new double[6], false);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testTransformLengthsDiffer() {
+        // must throw
+        FastFourierTransform.transform(new double[8], new double[4], false);
+    }
+
+    @Test
+    public void testTransform() {
+        double[] re = {1, -2, 0.5, 3, 0, 1, -1, 2};
+        double[] im = {0, 1, -1, 0.25, 2, 0, 1, -3};
+        int n = re.length;
+
+        // discrete Fourier transform by definition
+        double[] expectedRe = new double[n];
+        double[] expectedIm = new double[n];
+        for (int k = 0; k < n; k++) {
+            for (int j = 0; j < n; j++) {
+                double angle = -2 * Math.PI * j * k / n;
+                expectedRe[k] += re[j]*Math.cos(angle) - im[j]*Math.sin(angle);
+                expectedIm[k] += re[j]*Math.sin(angle) + im[j]*Math.cos(angle);
+            }
+        }
+
+        FastFourierTransform.transform(re, im, false);
+
+        assertArrayEquals(expectedRe, re, DOUBLE_TOLERATION);
+        assertArrayEquals(expectedIm, im, DOUBLE_TOLERATION);
+    }
+
+    @Test
+    public void testInverse() {
+        double[] re = new double[64];
+        double[] im = new double[64];
+        for (int i = 0; i < re.length; i++) {
+            re[i] = i % 5 - 2;
+            im[i] = Math.sqrt(i);
+        }
+        double[] expectedRe = re.clone();
+        double[] expectedIm = im.clone();
+
+        FastFourierTransform.transform(re, im, false);
+        FastFourierTransform.transform(re, im, true);
+
+        assertArrayEquals(expectedRe, re, DOUBLE_TOLERATION);
+        assertArrayEquals(expectedIm, im, DOUBLE_TOLERATION);
+    }
+
+    @Test
+    public void testTransformSingle() {
+        double[] re = {3};
+        double[] im = {-1};
+        FastFourierTransform.transform(re, im, true);
+
+        assertArrayEquals(new double[] {3}, re, 0);
+        assertArrayEquals(new double[] {-1}, im, 0);
+    }
+
+}
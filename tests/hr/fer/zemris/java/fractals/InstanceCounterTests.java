@@ -0,0 +1,60 @@
+package hr.fer.zemris.java.fractals;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class InstanceCounterTests {
+
+    @Test
+    public void testIncrement() {
+        InstanceCounter counter = new InstanceCounter();
+        assertEquals(0, counter.total());
+
+        counter.increment();
+        counter.increment();
+
+        assertEquals(2, counter.ofCurrentThread());
+        assertEquals(2, counter.total());
+    }
+
+    @Test
+    public void testManyThreads() throws InterruptedException {
+        final InstanceCounter counter = new InstanceCounter();
+        final long[] counts = new long[8];
+
+        Thread[] threads = new Thread[counts.length];
+        for (int i = 0; i < threads.length; i++) {
+            final int index = i;
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 100_000; j++) {
+                        counter.increment();
+                    }
+                    counts[index] = counter.ofCurrentThread();
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // no counts are lost
+        for (long count : counts) {
+            assertEquals(100_000, count);
+        }
+        assertEquals(800_000, counter.total());
+        assertEquals(0, counter.ofCurrentThread());
+    }
+
+    @Test
+    public void testComplexNotCounted() {
+        // tests do not set the complex.countInstances property
+        assertNull(Complex.instanceCounter);
+        new Complex(1, 1);
+    }
+
+}
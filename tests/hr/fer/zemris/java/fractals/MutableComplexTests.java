@@ -0,0 +1,94 @@
+package hr.fer.zemris.java.fractals;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class MutableComplexTests {
+
+    @Test
+    public void testDefaultConstructor() {
+        MutableComplex c = new MutableComplex();
+
+        assertEquals(0, c.getReal(), 0);
+        assertEquals(0, c.getImag(), 0);
+    }
+
+    @Test
+    public void testConversion() {
+        Complex c = new Complex(-1, 0.5);
+        MutableComplex mutable = new MutableComplex(c);
+
+        assertEquals(c, mutable.toComplex());
+        assertNotSame(mutable.toComplex(), mutable.toComplex());
+
+        mutable.set(2, 3);
+        assertEquals(new Complex(2, 3), mutable.toComplex());
+        assertEquals(new Complex(-1, 0.5), c);
+    }
+
+    @Test
+    public void testOperationsMatchComplex() {
+        Complex c1 = new Complex(-1.3, 0.7);
+        Complex c2 = new Complex(2.1, -3.9);
+
+        assertExactly(c1.add(c2), new MutableComplex(c1).addInPlace(new MutableComplex(c2)));
+        assertExactly(c1.sub(c2), new MutableComplex(c1).subInPlace(new MutableComplex(c2)));
+        assertExactly(c1.multiply(c2), new MutableComplex(c1).mulInPlace(new MutableComplex(c2)));
+        assertExactly(c1.divide(c2), new MutableComplex(c1).divInPlace(new MutableComplex(c2)));
+        assertExactly(c1.negate(), new MutableComplex(c1).negateInPlace());
+        assertEquals(c1.module(), new MutableComplex(c1).module(), 0);
+        assertEquals(c1.distance(c2), new MutableComplex(c1).distance(new MutableComplex(c2)), 0);
+    }
+
+    @Test
+    public void testChaining() {
+        // z^2 + c with z = 1 + i and c = -1
+        MutableComplex z = new MutableComplex(1, 1);
+        z.mulInPlace(z).addInPlace(new MutableComplex(-1, 0));
+
+        assertExactly(new Complex(-1, 2), z);
+    }
+
+    @Test
+    public void testFma() {
+        Complex c1 = new Complex(-1.3, 0.7);
+        Complex c2 = new Complex(2.1, -3.9);
+        Complex c3 = new Complex(0.25, 5);
+
+        MutableComplex actual = new MutableComplex(c1).fma(new MutableComplex(c2), c3);
+        Complex expected = c1.multiply(c2).add(c3);
+
+        assertEquals(expected.getReal(), actual.getReal(), 1E-12);
+        assertEquals(expected.getImag(), actual.getImag(), 1E-12);
+    }
+
+    @Test
+    public void testDivideZero() {
+        MutableComplex c = new MutableComplex(1, 2);
+        try {
+            c.divInPlace(new MutableComplex());
+            fail("Must throw.");
+        } catch (ArithmeticException e) {
+            // unchanged
+            assertExactly(new Complex(1, 2), c);
+        }
+    }
+
+
+    /* ------------------------------ Utility methods ------------------------------ */
+
+    /**
+     * Asserts that the parts of the specified complex numbers are exactly
+     * equal.
+     *
+     * @param expected the expected complex number
+     * @param actual the actual complex number
+     */
+    private static void assertExactly(Complex expected, MutableComplex actual) {
+        assertEquals(expected.getReal(), actual.getReal(), 0);
+        assertEquals(expected.getImag(), actual.getImag(), 0);
+    }
+
+}
@@ -0,0 +1,399 @@
+package hr.fer.zemris.java.fractals;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.fractals.Newton.Kernel;
+import hr.fer.zemris.java.fractals.Newton.Scheduler;
+import hr.fer.zemris.java.fractals.Newton.Settings;
+import hr.fer.zemris.java.fractals.viewer.IFractalProducer;
+import hr.fer.zemris.java.fractals.viewer.IFractalResultObserver;
+
+/*
+ * The producer keeps the polynomial of the roots loaded first for the rest of
+ * the run, so every test uses the same roots, those of z^3 - 2z + 2. Orbits
+ * near 0 and 1 are caught in an attracting cycle between these points, so
+ * some pixels have no root. Images that are computed differently may differ
+ * in a pixel whose point lies close to a boundary between the basins, so
+ * they are compared with the tolerance of assertSameBasins: a differing pixel
+ * must have a neighbor of another color.
+ */
+@SuppressWarnings("javadoc")
+public class NewtonTests {
+
+    private static final List<String> ROOTS = Arrays.asList(
+            "-1.7692923542386314",
+            "0.8846461771193157+0.5897428050222056i",
+            "0.8846461771193157-0.5897428050222056i");
+
+    private static final double RE_MIN = -2.1;
+    private static final double RE_MAX = 1.9;
+    private static final double IM_MIN = -1.4;
+    private static final double IM_MAX = 1.6;
+    private static final int WIDTH = 100;
+    private static final int HEIGHT = 80;
+
+    @Test
+    public void testProduceLoadedRoots() throws IOException {
+        Newton.loadRoots(writeLines(ROOTS));
+        IFractalProducer producer = Newton.createProducer(settings());
+
+        final List<short[]> results = new ArrayList<>();
+        final List<Short> colors = new ArrayList<>();
+        producer.produce(-2, 2, -2, 2, 16, 16, 1, new IFractalResultObserver() {
+            @Override
+            public void acceptResult(short[] data, short numberOfColors, long requestNo) {
+                results.add(data);
+                colors.add(numberOfColors);
+            }
+        });
+
+        assertEquals(1, results.size());
+        assertEquals(4, colors.get(0).shortValue());
+        for (short index : results.get(0)) {
+            assertTrue(index >= 0 && index <= 3);
+        }
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testLoadTooManyRoots() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i <= Newton.MAX_ROOTS; i++) {
+            lines.add(Integer.toString(i));
+        }
+        // must throw
+        Newton.loadRoots(writeLines(lines));
+    }
+
+    @Test
+    public void testReferenceImage() throws IOException {
+        short[] image = render(settings());
+
+        // every root has its own basin, and the cycle leaves some pixels without a root
+        int[] counts = new int[ROOTS.size() + 1];
+        for (short index : image) {
+            counts[index]++;
+        }
+        assertTrue(counts[0] > 0);
+        for (int i = 1; i < counts.length; i++) {
+            assertTrue(counts[i] > image.length / 10);
+        }
+    }
+
+    @Test
+    public void testEarlyExits() throws IOException {
+        // the default kernel stops in convergence disks and cycles
+        short[] expected = render(settings());
+
+        // these kernels iterate every orbit until it converges or runs out of iterations
+        for (Kernel kernel : new Kernel[] {Kernel.COMPLEX, Kernel.PRIMITIVE, Kernel.HORNER, Kernel.MUTABLE}) {
+            Settings settings = settings();
+            settings.kernel = kernel;
+            assertSameBasins(expected, render(settings));
+        }
+    }
+
+    @Test
+    public void testLanesAndDoubleDoubleKernels() throws IOException {
+        short[] expected = render(settings());
+
+        Settings settings = settings();
+        settings.kernel = Kernel.LANES;
+        assertArrayEquals(expected, render(settings));
+
+        settings.lanes = 3;
+        assertArrayEquals(expected, render(settings));
+
+        settings.kernel = Kernel.DOUBLE_DOUBLE;
+        assertSameBasins(expected, render(settings));
+    }
+
+    @Test
+    public void testTileScheduler() throws IOException {
+        short[] expected = render(settings());
+
+        // every pixel is computed the same way, whatever the size of its tile
+        for (int tileSize : new int[] {-1, 0, 1, 2, 7, 1000}) {
+            Settings settings = settings();
+            settings.tileSize = tileSize;
+            assertArrayEquals(expected, render(settings));
+        }
+    }
+
+    @Test
+    public void testStripeScheduler() throws IOException {
+        short[] expected = render(settings());
+
+        Settings settings = settings();
+        settings.scheduler = Scheduler.STRIPES;
+        assertArrayEquals(expected, render(settings));
+    }
+
+    @Test
+    public void testSupersededBeforeStart() throws IOException {
+        IFractalProducer producer = createProducer(settings());
+        Results results = new Results();
+
+        producer.produce(RE_MIN, RE_MAX, IM_MIN, IM_MAX, WIDTH, HEIGHT, 2, results);
+        producer.produce(RE_MIN, RE_MAX, IM_MIN, IM_MAX, WIDTH, HEIGHT, 1, results);
+
+        assertEquals(Arrays.asList(2L), results.requests);
+    }
+
+    @Test
+    public void testSupersededWhileComputing() throws IOException {
+        short[] expected = render(settings());
+
+        Settings settings = settings();
+        settings.progressive = true;
+        final IFractalProducer producer = createProducer(settings);
+        final Results results = new Results();
+
+        // the second request starts once the first one has delivered its coarsest pass
+        producer.produce(RE_MIN, RE_MAX, IM_MIN, IM_MAX, WIDTH, HEIGHT, 1, new IFractalResultObserver() {
+            @Override
+            public void acceptResult(short[] data, short numberOfColors, long requestNo) {
+                results.acceptResult(data, numberOfColors, requestNo);
+                producer.produce(RE_MIN, RE_MAX, IM_MIN, IM_MAX, WIDTH, HEIGHT, 2, results);
+            }
+        });
+
+        assertEquals(Arrays.asList(1L, 2L, 2L, 2L), results.requests);
+        assertArrayEquals(expected, results.last());
+    }
+
+    @Test
+    public void testProgressive() throws IOException {
+        short[] expected = render(settings());
+
+        Settings settings = settings();
+        settings.progressive = true;
+        Results results = new Results();
+        createProducer(settings).produce(RE_MIN, RE_MAX, IM_MIN, IM_MAX, WIDTH, HEIGHT, 1, results);
+
+        // each pass fills the block of a computed pixel with its color index
+        int[] steps = {4, 2, 1};
+        assertEquals(steps.length, results.images.size());
+        for (int pass = 0; pass < steps.length; pass++) {
+            short[] image = results.images.get(pass);
+            int step = steps[pass];
+            for (int y = 0; y < HEIGHT; y++) {
+                for (int x = 0; x < WIDTH; x++) {
+                    assertEquals(expected[y / step * step * WIDTH + x / step * step], image[y * WIDTH + x]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSubdivision() throws IOException {
+        short[] expected = render(settings());
+
+        // a filled rectangle may miss a feature thinner than a pixel inside its border
+        Settings settings = settings();
+        settings.scheduler = Scheduler.SUBDIVISION;
+        assertSameBasins(expected, render(settings));
+    }
+
+    @Test
+    public void testSymmetry() throws IOException {
+        // centered on the real axis, so that the conjugation maps the rows onto each other
+        double imMax = 1.5;
+        short[] expected = render(settings(), RE_MIN, RE_MAX, -imMax, imMax);
+
+        Settings settings = settings();
+        settings.symmetric = true;
+        assertSameBasins(expected, render(settings, RE_MIN, RE_MAX, -imMax, imMax));
+    }
+
+    @Test
+    public void testTileCache() throws IOException {
+        short[] expected = render(settings());
+
+        // a grid point may differ from the point computed without the cache in the last bits
+        for (int tileSize : new int[] {1, 2, 7, 32}) {
+            Settings settings = settings();
+            settings.tileSize = tileSize;
+            settings.cacheSize = 8;
+            assertSameBasins(expected, render(settings));
+        }
+    }
+
+    @Test
+    public void testTileCacheReused() throws IOException {
+        Settings settings = settings();
+        settings.tileSize = 7;
+        settings.cacheSize = 8;
+        settings.reuse = false;
+        IFractalProducer producer = createProducer(settings);
+        Results results = new Results();
+
+        // away and back again, where every tile is taken from the cache
+        double shift = 10 * (RE_MAX - RE_MIN) / (WIDTH - 1);
+        producer.produce(RE_MIN, RE_MAX, IM_MIN, IM_MAX, WIDTH, HEIGHT, 1, results);
+        producer.produce(RE_MIN + shift, RE_MAX + shift, IM_MIN, IM_MAX, WIDTH, HEIGHT, 2, results);
+        producer.produce(RE_MIN, RE_MAX, IM_MIN, IM_MAX, WIDTH, HEIGHT, 3, results);
+
+        assertArrayEquals(results.images.get(0), results.images.get(2));
+        assertSameBasins(render(settings(), RE_MIN + shift, RE_MAX + shift, IM_MIN, IM_MAX),
+                results.images.get(1));
+    }
+
+    @Test
+    public void testPanReuse() throws IOException {
+        IFractalProducer producer = createProducer(settings());
+        Results results = new Results();
+        double spacingRe = (RE_MAX - RE_MIN) / (WIDTH - 1);
+        double spacingIm = (IM_MAX - IM_MIN) / (HEIGHT - 1);
+
+        // moved by whole pixels, so the pixels of the previous image are reused
+        double shiftRe = 13 * spacingRe;
+        double shiftIm = -5 * spacingIm;
+        producer.produce(RE_MIN, RE_MAX, IM_MIN, IM_MAX, WIDTH, HEIGHT, 1, results);
+        producer.produce(RE_MIN + shiftRe, RE_MAX + shiftRe, IM_MIN + shiftIm, IM_MAX + shiftIm,
+                WIDTH, HEIGHT, 2, results);
+        assertSameBasins(render(settings(), RE_MIN + shiftRe, RE_MAX + shiftRe,
+                IM_MIN + shiftIm, IM_MAX + shiftIm), results.last());
+
+        // moved by a fraction of a pixel, so the image is computed again
+        shiftRe += spacingRe / 3;
+        producer.produce(RE_MIN + shiftRe, RE_MAX + shiftRe, IM_MIN + shiftIm, IM_MAX + shiftIm,
+                WIDTH, HEIGHT, 3, results);
+        assertArrayEquals(render(settings(), RE_MIN + shiftRe, RE_MAX + shiftRe,
+                IM_MIN + shiftIm, IM_MAX + shiftIm), results.last());
+    }
+
+
+    /* ------------------------------ Utility methods ------------------------------ */
+
+    /**
+     * Returns the default settings of a producer, which do not depend on the
+     * system properties that the tests may be run with.
+     *
+     * @return the default settings
+     */
+    private static Settings settings() {
+        Settings settings = new Settings();
+        settings.kernel = Kernel.ROOTED;
+        settings.lanes = 32;
+        settings.scheduler = Scheduler.TILES;
+        settings.tileSize = 32;
+        settings.progressive = false;
+        settings.symmetric = false;
+        settings.cacheSize = 0;
+        settings.reuse = true;
+        return settings;
+    }
+
+    /**
+     * Loads the test roots and returns a new producer with the specified
+     * settings.
+     *
+     * @param settings settings of the producer
+     * @return a new producer
+     * @throws IOException if an I/O error occurs
+     */
+    private static IFractalProducer createProducer(Settings settings) throws IOException {
+        Newton.loadRoots(writeLines(ROOTS));
+        return Newton.createProducer(settings);
+    }
+
+    /**
+     * Renders the test view by a new producer with the specified settings and
+     * returns the image.
+     *
+     * @param settings settings of the producer
+     * @return the rendered image
+     * @throws IOException if an I/O error occurs
+     */
+    private static short[] render(Settings settings) throws IOException {
+        return render(settings, RE_MIN, RE_MAX, IM_MIN, IM_MAX);
+    }
+
+    /**
+     * Renders the specified view by a new producer with the specified
+     * settings and returns the image.
+     *
+     * @param settings settings of the producer
+     * @param reMin minimum value of the real part of a complex number
+     * @param reMax maximum value of the real part of a complex number
+     * @param imMin minimum value of the imaginary part of a complex number
+     * @param imMax maximum value of the imaginary part of a complex number
+     * @return the rendered image
+     * @throws IOException if an I/O error occurs
+     */
+    private static short[] render(Settings settings, double reMin, double reMax, double imMin, double imMax)
+            throws IOException {
+        Results results = new Results();
+        createProducer(settings).produce(reMin, reMax, imMin, imMax, WIDTH, HEIGHT, 1, results);
+        return results.last();
+    }
+
+    /**
+     * Asserts that the specified images differ only in the pixels that have
+     * a neighbor of another color in the expected image, which lie on a
+     * boundary between the basins of the roots.
+     *
+     * @param expected the expected image
+     * @param actual the actual image
+     */
+    private static void assertSameBasins(short[] expected, short[] actual) {
+        assertEquals(expected.length, actual.length);
+
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                int offset = y * WIDTH + x;
+                if (expected[offset] == actual[offset]) continue;
+
+                boolean boundary =
+                        x > 0 && expected[offset - 1] != expected[offset]
+                        || x < WIDTH - 1 && expected[offset + 1] != expected[offset]
+                        || y > 0 && expected[offset - WIDTH] != expected[offset]
+                        || y < HEIGHT - 1 && expected[offset + WIDTH] != expected[offset];
+                assertTrue("Pixel (" + x + ", " + y + ") differs inside a basin.", boundary);
+            }
+        }
+    }
+
+    /**
+     * Writes the specified lines into a new temporary file, which is deleted
+     * when the virtual machine exits.
+     *
+     * @param lines lines to be written
+     * @return path of the file
+     * @throws IOException if an I/O error occurs
+     */
+    private static Path writeLines(List<String> lines) throws IOException {
+        Path path = Files.createTempFile("roots", ".txt");
+        path.toFile().deleteOnExit();
+        return Files.write(path, lines);
+    }
+
+    /**
+     * An observer that keeps every delivered image with its request number.
+     */
+    private static class Results implements IFractalResultObserver {
+        private final List<short[]> images = new ArrayList<>();
+        private final List<Long> requests = new ArrayList<>();
+
+        @Override
+        public synchronized void acceptResult(short[] data, short numberOfColors, long requestNo) {
+            images.add(data);
+            requests.add(requestNo);
+        }
+
+        public synchronized short[] last() {
+            assertFalse("No image was delivered.", images.isEmpty());
+            return images.get(images.size() - 1);
+        }
+    }
+
+}
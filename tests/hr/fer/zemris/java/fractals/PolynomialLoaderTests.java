@@ -0,0 +1,149 @@
+package hr.fer.zemris.java.fractals;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class PolynomialLoaderTests {
+
+    @Test
+    public void testLoadText() throws IOException {
+        String[] lines = {
+            "1", "-i", "", "2+i", "  -2.71 - 3.15 i\r", "i2", "5,5-0,25i", "   ", ".5", "-0",
+            "0.12345678901234567890", "1e5", "NaN", "1+2"
+        };
+        Path path = writeLines(Arrays.asList(lines));
+
+        ComplexArray actual = PolynomialLoader.load(path);
+
+        List<Complex> expected = new ArrayList<>();
+        for (String line : lines) {
+            if (!line.trim().isEmpty()) {
+                expected.add(Complex.parse(line));
+            }
+        }
+        assertSameValues(expected, actual);
+    }
+
+    @Test
+    public void testLoadTextChunks() throws IOException {
+        // large enough to be split into several chunks
+        List<String> lines = new ArrayList<>();
+        List<Complex> expected = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            String line = String.format(Locale.ROOT, "%.9f%+.6fi", Math.sin(i) * i, Math.cos(i));
+            lines.add(line);
+            expected.add(Complex.parse(line));
+        }
+        Path path = writeLines(lines);
+
+        assertSameValues(expected, PolynomialLoader.load(path));
+    }
+
+    @Test
+    public void testLoadTextError() throws IOException {
+        Path path = writeLines(Arrays.asList("1", "", "2+i", "x3"));
+
+        try {
+            PolynomialLoader.load(path);
+            fail("Expected NumberFormatException.");
+        } catch (NumberFormatException e) {
+            assertTrue(e.getMessage().contains("line 4"));
+        }
+    }
+
+    @Test
+    public void testLoadBinary() throws IOException {
+        ComplexArray values = new ComplexArray(Complex.ONE, new Complex(-2.5, 1E-300), Complex.IM_NEG);
+        Path path = Files.createTempFile("roots", ".bin");
+        path.toFile().deleteOnExit();
+
+        PolynomialLoader.writeBinary(path, values);
+        ComplexArray actual = PolynomialLoader.load(path);
+
+        assertEquals(8 + 3*16, Files.size(path));
+        assertArrayEquals(values.re, actual.re, 0);
+        assertArrayEquals(values.im, actual.im, 0);
+    }
+
+    @Test(expected=IOException.class)
+    public void testLoadBinaryCorrupted() throws IOException {
+        Path path = Files.createTempFile("roots", ".bin");
+        path.toFile().deleteOnExit();
+        Files.write(path, ByteBuffer.allocate(20).putInt(PolynomialLoader.MAGIC).putInt(1).array());
+
+        // must throw
+        PolynomialLoader.load(path);
+    }
+
+    @Test
+    public void testLoadRoots() throws IOException {
+        Path path = writeLines(Arrays.asList("1", "-1", "i", "-i"));
+
+        ComplexRootedPolynomial actual = PolynomialLoader.loadRoots(path);
+
+        assertEquals(4, actual.order());
+        assertEquals(new ComplexRootedPolynomial(Complex.ONE, Complex.ONE_NEG, Complex.IM, Complex.IM_NEG)
+                .toComplexPolynom(), actual.toComplexPolynom());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testLoadRootsEmpty() throws IOException {
+        Path path = writeLines(Arrays.asList("", " "));
+
+        // must throw
+        PolynomialLoader.loadRoots(path);
+    }
+
+    @Test
+    public void testLoadFactors() throws IOException {
+        Path path = writeLines(Arrays.asList("-1", "0", "1"));
+
+        ComplexPolynomial actual = PolynomialLoader.loadFactors(path);
+
+        assertEquals(new ComplexPolynomial(Complex.ONE_NEG, Complex.ZERO, Complex.ONE), actual);
+    }
+
+
+    /* ------------------------------ Utility methods ------------------------------ */
+
+    /**
+     * Writes the specified lines into a new temporary file, which is deleted
+     * when the virtual machine exits.
+     *
+     * @param lines lines to be written
+     * @return path of the file
+     * @throws IOException if an I/O error occurs
+     */
+    private static Path writeLines(List<String> lines) throws IOException {
+        Path path = Files.createTempFile("roots", ".txt");
+        path.toFile().deleteOnExit();
+        return Files.write(path, lines);
+    }
+
+    /**
+     * Asserts that the specified array has exactly the same values as the
+     * specified list of complex numbers.
+     *
+     * @param expected the expected values
+     * @param actual the actual values
+     */
+    private static void assertSameValues(List<Complex> expected, ComplexArray actual) {
+        assertEquals(expected.size(), actual.length());
+        for (int i = 0; i < actual.length(); i++) {
+            assertEquals(expected.get(i).getReal(), actual.getReal(i), 0);
+            assertEquals(expected.get(i).getImag(), actual.getImag(i), 0);
+        }
+    }
+
+}
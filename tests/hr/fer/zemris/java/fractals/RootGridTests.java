@@ -0,0 +1,134 @@
+package hr.fer.zemris.java.fractals;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class RootGridTests {
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorThresholdZero() {
+        // must throw
+        new RootGrid(new double[] {0}, new double[] {0}, 0);
+    }
+
+    @Test
+    public void testIsSupported() {
+        double[] re = {1, -1};
+        double[] im = {0, 0};
+
+        assertTrue(RootGrid.isSupported(re, im, 0.002));
+        assertFalse(RootGrid.isSupported(re, im, 0));
+        assertFalse(RootGrid.isSupported(re, im, Double.NaN));
+        assertFalse(RootGrid.isSupported(re, im, Double.POSITIVE_INFINITY));
+        assertFalse(RootGrid.isSupported(new double[] {1, Double.NaN}, im, 0.002));
+        assertFalse(RootGrid.isSupported(new double[] {1, Double.NEGATIVE_INFINITY}, im, 0.002));
+        assertFalse(RootGrid.isSupported(new double[0], new double[0], 0.002));
+    }
+
+    @Test
+    public void testIndexOfClosestRootFor() {
+        double[] re = {0, 1, 1, 0, 5};
+        double[] im = {0, 0, 0, 1, 5};
+        RootGrid grid = new RootGrid(re, im, 0.75);
+
+        assertEquals(0, grid.indexOfClosestRootFor(0.1, 0.1));
+        // repeated root, the lower index
+        assertEquals(1, grid.indexOfClosestRootFor(0.9, -0.1));
+        // equally distant from roots 0 and 3
+        assertEquals(0, grid.indexOfClosestRootFor(0, 0.5));
+        assertEquals(4, grid.indexOfClosestRootFor(5.5, 5.5));
+        assertEquals(-1, grid.indexOfClosestRootFor(3, 3));
+        assertEquals(-1, grid.indexOfClosestRootFor(-100, 1E200));
+    }
+
+    @Test
+    public void testMatchesLinearScan() {
+        Random random = new Random(42);
+        int n = 300;
+        double[] re = new double[n];
+        double[] im = new double[n];
+        for (int i = 0; i < n; i++) {
+            // roots on a lattice, so that many points are equally distant
+            re[i] = random.nextInt(40) * 0.05;
+            im[i] = random.nextInt(40) * 0.05;
+        }
+
+        for (double threshold : new double[] {0.002, 0.025, 0.05, 0.3}) {
+            RootGrid grid = new RootGrid(re, im, threshold);
+
+            for (int k = 0; k < 20000; k++) {
+                int i = random.nextInt(n);
+                double angle = random.nextInt(8) * Math.PI / 4;
+                double distance = threshold * random.nextInt(3) / 2;
+                double x = re[i] + distance * Math.cos(angle);
+                double y = im[i] + distance * Math.sin(angle);
+
+                assertEquals(linearScan(re, im, x, y, threshold), grid.indexOfClosestRootFor(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void testNearestDistances() {
+        Random random = new Random(7);
+        int n = 2000;
+        double[] re = new double[n];
+        double[] im = new double[n];
+        for (int i = 0; i < n; i++) {
+            re[i] = random.nextInt(100) * 0.01;
+            im[i] = random.nextGaussian();
+        }
+        // a distant root and a repeated root
+        re[0] = 1000;
+        re[1] = re[2];
+        im[1] = im[2];
+
+        double[] actual = RootGrid.nearestDistances(re, im);
+
+        for (int i = 0; i < n; i++) {
+            double expected = Double.POSITIVE_INFINITY;
+            for (int j = 0; j < n; j++) {
+                if (j != i) {
+                    expected = Math.min(expected, Math.hypot(re[i] - re[j], im[i] - im[j]));
+                }
+            }
+            assertEquals(expected, actual[i], 0);
+        }
+        assertEquals(0, actual[1], 0);
+    }
+
+
+    /* ------------------------------ Utility methods ------------------------------ */
+
+    /**
+     * Returns the index of closest root to the point <tt>x + y*i</tt> that is
+     * within the threshold, or <tt>-1</tt>, by computing the distance to
+     * every root.
+     *
+     * @param re real parts of the roots
+     * @param im imaginary parts of the roots
+     * @param x real part of the point
+     * @param y imaginary part of the point
+     * @param threshold the maximum allowed distance
+     * @return the index of closest root to the point
+     */
+    private static int linearScan(double[] re, double[] im, double x, double y, double threshold) {
+        double minDistance = Math.hypot(x - re[0], y - im[0]);
+        int index = 0;
+
+        for (int i = 1; i < re.length; i++) {
+            double distance = Math.hypot(x - re[i], y - im[i]);
+            if (distance < minDistance) {
+                minDistance = distance;
+                index = i;
+            }
+        }
+
+        return minDistance > threshold ? -1 : index;
+    }
+
+}
@@ -0,0 +1,121 @@
+package hr.fer.zemris.java.fractals;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class RootSymmetryTests {
+
+    @Test
+    public void testFindNone() {
+        Complex[] roots = parseRoots("1", "2", "3+i");
+        assertNull(new ComplexRootedPolynomial(roots).findSymmetry());
+    }
+
+    @Test
+    public void testFindSingleRoot() {
+        Complex[] roots = parseRoots("2-i");
+        assertNull(new ComplexRootedPolynomial(roots).findSymmetry());
+    }
+
+    @Test
+    public void testFindMirror() {
+        // symmetric over the imaginary axis only
+        Complex[] roots = parseRoots("1", "-1", "0.5i");
+        RootSymmetry symmetry = new ComplexRootedPolynomial(roots).findSymmetry();
+
+        assertEquals(1, symmetry.order());
+        assertTrue(symmetry.isMirror());
+        assertEquals(2, symmetry.size());
+    }
+
+    @Test
+    public void testFindRotationAndMirror() {
+        Complex[] roots = parseRoots("1", "-0.5+0.8660254037844386i", "-0.5-0.8660254037844386i");
+        RootSymmetry symmetry = new ComplexRootedPolynomial(roots).findSymmetry();
+
+        assertEquals(3, symmetry.order());
+        assertTrue(symmetry.isMirror());
+        assertEquals(6, symmetry.size());
+    }
+
+    @Test
+    public void testFindRotationWithoutMirror() {
+        // a square and a square turned by a quarter of its own symmetry
+        Complex[] roots = parseRoots("1", "i", "-1", "-i", "2+0.5i", "-0.5+2i", "-2-0.5i", "0.5-2i");
+        RootSymmetry symmetry = new ComplexRootedPolynomial(roots).findSymmetry();
+
+        assertEquals(4, symmetry.order());
+        assertFalse(symmetry.isMirror());
+        assertEquals(4, symmetry.size());
+    }
+
+    @Test
+    public void testFindAroundCentroid() {
+        Complex[] roots = parseRoots("1", "2", "3");
+        RootSymmetry symmetry = new ComplexRootedPolynomial(roots).findSymmetry();
+
+        assertEquals(2, symmetry.order());
+        assertTrue(symmetry.isMirror());
+
+        double[] point = new double[2];
+        // element 2 is the rotation by pi around 2
+        symmetry.apply(2, 1.5, 0.25, point);
+        assertArrayEquals(new double[] {2.5, -0.25}, point, 1E-12);
+        assertEquals(0, symmetry.mapIndex(2, 2));
+    }
+
+    @Test
+    public void testApplyMatchesMapIndex() {
+        Complex[] roots = parseRoots("1", "i", "-1", "-i");
+        RootSymmetry symmetry = new ComplexRootedPolynomial(roots).findSymmetry();
+        assertEquals(8, symmetry.size());
+
+        double[] point = new double[2];
+        for (int element = 0; element < symmetry.size(); element++) {
+            for (int i = 0; i < roots.length; i++) {
+                symmetry.apply(element, roots[i].getReal(), roots[i].getImag(), point);
+                Complex expected = roots[symmetry.mapIndex(element, i)];
+
+                assertEquals(expected.getReal(), point[0], 1E-12);
+                assertEquals(expected.getImag(), point[1], 1E-12);
+            }
+        }
+    }
+
+    @Test
+    public void testInverse() {
+        Complex[] roots = parseRoots("1", "-0.5+0.8660254037844386i", "-0.5-0.8660254037844386i");
+        RootSymmetry symmetry = new ComplexRootedPolynomial(roots).findSymmetry();
+
+        for (int element = 0; element < symmetry.size(); element++) {
+            int inverse = symmetry.inverse(element);
+            for (int i = 0; i < roots.length; i++) {
+                assertEquals(i, symmetry.mapIndex(inverse, symmetry.mapIndex(element, i)));
+            }
+            assertEquals(-1, symmetry.mapIndex(element, -1));
+        }
+    }
+
+
+    /* ------------------------------ Utility methods ------------------------------ */
+
+    /**
+     * Returns an array of complex roots, where index <tt>i</tt> of the returned
+     * array is a parsed string from the specified <tt>s</tt> at index <tt>i</tt>.
+     *
+     * @param s array of strings to be parsed
+     * @return an array of parsed complex roots
+     */
+    private static Complex[] parseRoots(String ...s) {
+        Complex[] roots = new Complex[s.length];
+
+        for (int i = 0; i < s.length; i++) {
+            roots[i] = Complex.parse(s[i]);
+        }
+
+        return roots;
+    }
+
+}
@@ -0,0 +1,74 @@
+package hr.fer.zemris.java.fractals;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class TileCacheTests {
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorNegative() {
+        // must throw
+        new TileCache<String>(-1);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testPutNull() {
+        // must throw
+        new TileCache<String>(100).put("a", null);
+    }
+
+    @Test
+    public void testGet() {
+        TileCache<String> cache = new TileCache<>(100);
+        short[] tile = {1, 2, 3};
+        cache.put("a", tile);
+
+        assertSame(tile, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+        assertEquals(1, cache.count());
+        assertEquals(6, cache.size());
+    }
+
+    @Test
+    public void testPutReplaces() {
+        TileCache<String> cache = new TileCache<>(100);
+        cache.put("a", new short[10]);
+        cache.put("a", new short[4]);
+
+        assertEquals(1, cache.count());
+        assertEquals(8, cache.size());
+        assertEquals(0, cache.evictions());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        // room for two tiles of 10 bytes
+        TileCache<String> cache = new TileCache<>(20);
+        cache.put("a", new short[5]);
+        cache.put("b", new short[5]);
+        cache.get("a");
+        cache.put("c", new short[5]);
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(1, cache.evictions());
+        assertEquals(20, cache.size());
+    }
+
+    @Test
+    public void testTooLargeTile() {
+        TileCache<String> cache = new TileCache<>(20);
+        cache.put("a", new short[5]);
+        cache.put("b", new short[11]);
+
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertEquals(0, cache.evictions());
+    }
+
+}
@@ -0,0 +1,199 @@
+package hr.fer.zemris.java.raytracer.model;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class BoundingVolumeHierarchyTests {
+
+    @Test
+    public void testEmpty() {
+        IntersectionAccelerator bvh = new BoundingVolumeHierarchy(Collections.<GraphicalObject>emptyList());
+
+        assertNull(bvh.findClosestIntersection(Ray.fromPoints(new Point3D(), new Point3D(1, 0, 0))));
+    }
+
+    @Test
+    public void testFindClosestIntersection() {
+        List<GraphicalObject> objects = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            objects.add(sphere(new Point3D(-5, i, 0), 0.4, i));
+        }
+        IntersectionAccelerator bvh = new BoundingVolumeHierarchy(objects);
+
+        RayIntersection intersection = bvh.findClosestIntersection(
+                Ray.fromPoints(new Point3D(10, 3, 0), new Point3D(0, 3, 0)));
+        assertEquals(14.6, intersection.getDistance(), 1E-12);
+        assertEquals(3, intersection.getKdr(), 0);
+
+        assertNull(bvh.findClosestIntersection(Ray.fromPoints(new Point3D(10, 3.5, 0), new Point3D(0, 3.5, 0))));
+        assertNull(bvh.findClosestIntersection(Ray.fromPoints(new Point3D(10, 3, 0), new Point3D(20, 3, 0))));
+    }
+
+    @Test
+    public void testIsOccluded() {
+        List<GraphicalObject> objects = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            objects.add(sphere(new Point3D(-5, i, 0), 0.4, i));
+        }
+        IntersectionAccelerator bvh = new BoundingVolumeHierarchy(objects);
+        Ray ray = Ray.fromPoints(new Point3D(10, 3, 0), new Point3D(0, 3, 0));
+
+        assertTrue(bvh.isOccluded(ray, 15));
+        assertFalse(bvh.isOccluded(ray, 14.5));
+        // the ray starts inside a sphere
+        assertTrue(bvh.isOccluded(Ray.fromPoints(new Point3D(-5, 3, 0), new Point3D(0, 3, 0)), 0.5));
+        assertFalse(bvh.isOccluded(Ray.fromPoints(new Point3D(-5, 3, 0), new Point3D(0, 3, 0)), 0.3));
+    }
+
+    @Test
+    public void testMatchesBruteForce() {
+        Random random = new Random(42);
+        int n = 2000;
+        Point3D[] centers = new Point3D[n];
+        double[] radii = new double[n];
+        List<GraphicalObject> objects = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            centers[i] = new Point3D(random.nextInt(40) - 20, random.nextInt(40) - 20, random.nextGaussian() * 5);
+            radii[i] = 0.1 + random.nextDouble();
+            objects.add(sphere(centers[i], radii[i], i));
+        }
+        // repeated spheres, where the first one must be found
+        for (int i = 0; i < 100; i++) {
+            int j = random.nextInt(n);
+            objects.add(sphere(centers[j], radii[j], objects.size()));
+        }
+        objects.add(unboundedSphere(new Point3D(0, 0, 0), 3, objects.size()));
+
+        assertSameIntersections(objects, random);
+    }
+
+    @Test
+    public void testMatchesBruteForceCoincidentCentroids() {
+        Random random = new Random(7);
+        List<GraphicalObject> objects = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            objects.add(sphere(new Point3D(1, 2, 3), 0.5 + random.nextInt(3), i));
+        }
+
+        assertSameIntersections(objects, random);
+    }
+
+    @Test
+    public void testAxisAlignedRays() {
+        List<GraphicalObject> objects = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < 5; j++) {
+                objects.add(sphere(new Point3D(0, i, j), 0.5, objects.size()));
+            }
+        }
+        IntersectionAccelerator bvh = new BoundingVolumeHierarchy(objects);
+        IntersectionAccelerator bruteForce = new BruteForceAccelerator(objects);
+
+        // rays along the faces of the bounding boxes, with positive and negative zeros
+        for (double y = -0.5; y <= 4.5; y += 0.5) {
+            for (double z = -0.5; z <= 4.5; z += 0.5) {
+                for (Point3D direction : new Point3D[] {new Point3D(-1, 0, 0), new Point3D(-1, -0.0, -0.0)}) {
+                    Ray ray = new Ray(new Point3D(10, y, z), direction);
+                    assertSameIntersection(bruteForce.findClosestIntersection(ray), bvh.findClosestIntersection(ray));
+                }
+            }
+        }
+    }
+
+
+    /* ------------------------------ Utility methods ------------------------------ */
+
+    /**
+     * Asserts that a bounding volume hierarchy built from the specified
+     * objects finds the same intersections and occlusions as testing every
+     * object, for random rays that start from various points.
+     *
+     * @param objects objects of the scene
+     * @param random random number generator
+     */
+    private static void assertSameIntersections(List<GraphicalObject> objects, Random random) {
+        IntersectionAccelerator bvh = new BoundingVolumeHierarchy(objects);
+        IntersectionAccelerator bruteForce = new BruteForceAccelerator(objects);
+
+        for (int k = 0; k < 20000; k++) {
+            double scale = k % 2 == 0 ? 40 : 4;
+            Point3D start = new Point3D(random.nextGaussian(), random.nextGaussian(), random.nextGaussian())
+                    .scalarMultiply(scale);
+            Point3D end = new Point3D(random.nextGaussian(), random.nextGaussian(), random.nextGaussian())
+                    .scalarMultiply(10);
+            Ray ray = Ray.fromPoints(start, end);
+
+            RayIntersection expected = bruteForce.findClosestIntersection(ray);
+            assertSameIntersection(expected, bvh.findClosestIntersection(ray));
+
+            double maxDistance = random.nextDouble() * 60;
+            boolean occluded = expected != null && expected.getDistance() < maxDistance;
+            assertEquals(occluded, bruteForce.isOccluded(ray, maxDistance));
+            assertEquals(occluded, bvh.isOccluded(ray, maxDistance));
+            if (expected != null) {
+                assertFalse(bvh.isOccluded(ray, expected.getDistance()));
+                assertTrue(bvh.isOccluded(ray, Math.nextUp(expected.getDistance())));
+            }
+        }
+    }
+
+    /**
+     * Asserts that the specified intersections are either both <tt>null</tt>
+     * or are the same intersection with the same object.
+     *
+     * @param expected the expected intersection
+     * @param actual the actual intersection
+     */
+    private static void assertSameIntersection(RayIntersection expected, RayIntersection actual) {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+
+        assertNotNull(actual);
+        assertEquals(expected.getDistance(), actual.getDistance(), 0);
+        // the index of the object
+        assertEquals(expected.getKdr(), actual.getKdr(), 0);
+    }
+
+    /**
+     * Returns a sphere with the specified center and radius, whose red
+     * diffuse component is the specified index.
+     *
+     * @param center sphere center
+     * @param radius sphere radius
+     * @param index index of the sphere
+     * @return a sphere
+     */
+    private static Sphere sphere(Point3D center, double radius, int index) {
+        return new Sphere(center, radius, index, 1, 1, 0.5, 0.5, 0.5, 10);
+    }
+
+    /**
+     * Returns a sphere with the specified center and radius, whose red
+     * diffuse component is the specified index, that is not
+     * {@linkplain Bounded}.
+     *
+     * @param center sphere center
+     * @param radius sphere radius
+     * @param index index of the sphere
+     * @return a sphere that is not bounded
+     */
+    private static GraphicalObject unboundedSphere(Point3D center, double radius, int index) {
+        final Sphere sphere = sphere(center, radius, index);
+        return new GraphicalObject() {
+            @Override
+            public RayIntersection findClosestRayIntersection(Ray ray) {
+                return sphere.findClosestRayIntersection(ray);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,79 @@
+package hr.fer.zemris.java.raytracer.model;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class CompiledSceneTests {
+
+    @Test
+    public void testCompile() {
+        Scene scene = createScene();
+
+        CompiledScene compiled = new CompiledScene(scene, AcceleratorType.BVH);
+
+        assertEquals(2, compiled.getLightCount());
+        assertEquals(100, compiled.getLight(0).getR());
+        assertEquals(80, compiled.getLight(1).getG());
+        RayIntersection intersection = compiled.getAccelerator().findClosestIntersection(
+                Ray.fromPoints(new Point3D(10, 0, 0), new Point3D(0, 0, 0)));
+        assertEquals(8, intersection.getDistance(), 1E-12);
+    }
+
+    @Test
+    public void testLightsAreCopied() {
+        Scene scene = createScene();
+
+        CompiledScene compiled = new CompiledScene(scene, AcceleratorType.BVH);
+        scene.getLights().get(0).getPoint().x = -100;
+
+        assertEquals(10, compiled.getLight(0).getPoint().x, 0);
+    }
+
+    @Test
+    public void testOfCachesByIdentity() {
+        Scene scene = createScene();
+
+        CompiledScene compiled = CompiledScene.of(scene, AcceleratorType.BVH);
+
+        assertSame(compiled, CompiledScene.of(scene, AcceleratorType.BVH));
+        assertNotSame(compiled, CompiledScene.of(createScene(), AcceleratorType.BVH));
+    }
+
+    @Test
+    public void testOfRecompiles() {
+        Scene scene = createScene();
+
+        CompiledScene compiled = CompiledScene.of(scene, AcceleratorType.BVH);
+        CompiledScene bruteForce = CompiledScene.of(scene, AcceleratorType.BRUTE_FORCE);
+        assertNotSame(compiled, bruteForce);
+
+        scene.add(new Sphere(new Point3D(5, 0, 0), 1, 1, 1, 1, 0.5, 0.5, 0.5, 10));
+        CompiledScene changed = CompiledScene.of(scene, AcceleratorType.BRUTE_FORCE);
+        assertNotSame(bruteForce, changed);
+        RayIntersection intersection = changed.getAccelerator().findClosestIntersection(
+                Ray.fromPoints(new Point3D(10, 0, 0), new Point3D(0, 0, 0)));
+        assertEquals(4, intersection.getDistance(), 1E-12);
+
+        scene.add(new LightSource(new Point3D(0, 0, 10), 10, 10, 10));
+        assertEquals(3, CompiledScene.of(scene, AcceleratorType.BRUTE_FORCE).getLightCount());
+    }
+
+
+    /* ------------------------------ Utility methods ------------------------------ */
+
+    /**
+     * Returns a new scene with two spheres and two light sources.
+     *
+     * @return a new scene
+     */
+    private static Scene createScene() {
+        return new Scene()
+                .add(new Sphere(new Point3D(0, 0, 0), 2, 1, 1, 1, 0.5, 0.5, 0.5, 10))
+                .add(new Sphere(new Point3D(0, 5, 0), 1, 1, 1, 1, 0.5, 0.5, 0.5, 10))
+                .add(new LightSource(new Point3D(10, 5, 5), 100, 0, 0))
+                .add(new LightSource(new Point3D(10, -5, 5), 0, 80, 80));
+    }
+
+}
@@ -0,0 +1,86 @@
+package hr.fer.zemris.java.raytracer.model;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class SphereTests {
+
+    private static final double DOUBLE_TOLERATION = 1E-12;
+
+    private final Sphere sphere = new Sphere(new Point3D(0, 0, 0), 1, 0.1, 0.2, 0.3, 0.4, 0.5, 0.6, 7);
+
+    @Test
+    public void testIntersect() {
+        HitRecord hit = new HitRecord();
+
+        assertTrue(sphere.intersect(Ray.fromPoints(new Point3D(10, 0, 0), new Point3D(0, 0, 0)), hit));
+        assertEquals(9, hit.distance, DOUBLE_TOLERATION);
+        assertEquals(1, hit.x, DOUBLE_TOLERATION);
+        assertEquals(0, hit.y, DOUBLE_TOLERATION);
+        assertEquals(1, hit.normalX, DOUBLE_TOLERATION);
+        assertTrue(hit.outer);
+        assertTrue(hit.isHit());
+    }
+
+    @Test
+    public void testIntersectFromInside() {
+        HitRecord hit = new HitRecord();
+
+        assertTrue(sphere.intersect(Ray.fromPoints(new Point3D(0, 0.5, 0), new Point3D(0, 2, 0)), hit));
+        assertEquals(0.5, hit.distance, DOUBLE_TOLERATION);
+        assertEquals(1, hit.normalY, DOUBLE_TOLERATION);
+        assertFalse(hit.outer);
+    }
+
+    @Test
+    public void testIntersectMiss() {
+        HitRecord hit = new HitRecord();
+
+        assertFalse(sphere.intersect(Ray.fromPoints(new Point3D(10, 2, 0), new Point3D(0, 2, 0)), hit));
+        assertFalse(sphere.intersect(Ray.fromPoints(new Point3D(10, 0, 0), new Point3D(20, 0, 0)), hit));
+        assertFalse(hit.isHit());
+        assertNull(hit.toRayIntersection());
+    }
+
+    @Test
+    public void testIntersectKeepsCloserHit() {
+        HitRecord hit = new HitRecord();
+        hit.distance = 5;
+
+        assertFalse(sphere.intersect(Ray.fromPoints(new Point3D(10, 0, 0), new Point3D(0, 0, 0)), hit));
+        assertEquals(5, hit.distance, 0);
+
+        hit.reset();
+        assertTrue(sphere.intersect(Ray.fromPoints(new Point3D(10, 0, 0), new Point3D(0, 0, 0)), hit));
+    }
+
+    @Test
+    public void testFindClosestRayIntersection() {
+        RayIntersection intersection = sphere.findClosestRayIntersection(
+                Ray.fromPoints(new Point3D(0, 0, -3), new Point3D(0, 0, 0)));
+
+        assertEquals(2, intersection.getDistance(), DOUBLE_TOLERATION);
+        assertEquals(-1, intersection.getPoint().z, DOUBLE_TOLERATION);
+        assertEquals(-1, intersection.getNormal().z, DOUBLE_TOLERATION);
+        assertTrue(intersection.isOuter());
+        assertEquals(0.1, intersection.getKdr(), 0);
+        assertEquals(0.2, intersection.getKdg(), 0);
+        assertEquals(0.3, intersection.getKdb(), 0);
+        assertEquals(0.4, intersection.getKrr(), 0);
+        assertEquals(0.5, intersection.getKrg(), 0);
+        assertEquals(0.6, intersection.getKrb(), 0);
+        assertEquals(7, intersection.getKrn(), 0);
+    }
+
+    @Test
+    public void testOccludes() {
+        Ray ray = Ray.fromPoints(new Point3D(10, 0, 0), new Point3D(0, 0, 0));
+
+        assertTrue(sphere.occludes(ray, 9.5));
+        assertFalse(sphere.occludes(ray, 9));
+        assertFalse(sphere.occludes(Ray.fromPoints(new Point3D(10, 2, 0), new Point3D(0, 2, 0)), 100));
+    }
+
+}